@@ -11,11 +11,26 @@ import com.github.jknack.handlebars.Options;
 import com.github.jknack.handlebars.Template;
 import com.github.jknack.handlebars.helper.StringHelpers;
 import com.github.jknack.handlebars.io.TemplateLoader;
+import com.github.kongchen.swagger.docgen.classfile.ClassFileJaxrsReader;
+import com.github.kongchen.swagger.docgen.classfile.ClassFileModelResolver;
+import com.github.kongchen.swagger.docgen.classfile.ClassFileRepository;
+import com.github.kongchen.swagger.docgen.incremental.DependencyRecorder;
+import com.github.kongchen.swagger.docgen.incremental.IncrementalState;
+import com.github.kongchen.swagger.docgen.incremental.ModelStore;
 import com.github.kongchen.swagger.docgen.mavenplugin.ApiSource;
+import com.github.kongchen.swagger.docgen.mavenplugin.SecurityDefinition;
+import com.github.kongchen.swagger.docgen.reader.ClassSwaggerReader;
+import com.github.kongchen.swagger.docgen.reader.ModelCache;
 import com.github.kongchen.swagger.docgen.reader.ModelSubstitute;
+import com.github.kongchen.swagger.docgen.reader.ReaderCaches;
+import com.github.kongchen.swagger.docgen.util.CopyingSpecFilter;
+import com.github.kongchen.swagger.docgen.util.HashUtils;
+import com.github.kongchen.swagger.docgen.util.SwaggerInterner;
 import io.swagger.converter.ModelConverters;
+import io.swagger.core.filter.SwaggerSpecFilter;
 import io.swagger.models.Scheme;
 import io.swagger.models.Swagger;
+import io.swagger.models.auth.SecuritySchemeDefinition;
 import org.apache.commons.io.FileUtils;
 
 import java.io.BufferedReader;
@@ -23,6 +38,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.lang.reflect.Type;
@@ -30,7 +46,15 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Created with IntelliJ IDEA.
@@ -59,6 +83,22 @@ public abstract class AbstractDocumentSource {
 
     protected String swaggerSchemaConverter;
 
+    protected int readParallelism = 1;
+
+    protected SwaggerInterner interner;
+
+    private IncrementalState incrementalState;
+
+    private ModelStore modelStore;
+
+    private ReaderCaches caches = new ReaderCaches();
+
+    private ModelSubstitute substitute;
+
+    private Map<Type, Type> substitutions = Collections.emptyMap();
+
+    private ClassFileRepository classFiles;
+
     public AbstractDocumentSource(LogAdapter log, ApiSource apiSource) {
         LOG = log;
         this.outputPath = apiSource.getOutputPath();
@@ -87,6 +127,211 @@ public abstract class AbstractDocumentSource {
 
     public abstract void loadDocuments() throws Exception, GenerateException;
 
+    protected abstract ClassSwaggerReader createReader(Swagger swagger);
+
+    public int getReadParallelism() {
+        return readParallelism;
+    }
+
+    /**
+     * Number of API classes read at the same time.
+     */
+    public void setReadParallelism(int readParallelism) {
+        this.readParallelism = readParallelism;
+    }
+
+    public IncrementalState getIncrementalState() {
+        return incrementalState;
+    }
+
+    /**
+     * Reuse what the previous build read from the API classes which did not change.
+     */
+    public void setIncrementalState(IncrementalState incrementalState) {
+        this.incrementalState = incrementalState;
+    }
+
+    public ModelStore getModelStore() {
+        return modelStore;
+    }
+
+    /**
+     * Load the models of the types whose class files did not change since the previous build from
+     * <code>modelStore</code> instead of resolving them again.
+     */
+    public void setModelStore(ModelStore modelStore) {
+        this.modelStore = modelStore;
+    }
+
+    public ReaderCaches getCaches() {
+        return caches;
+    }
+
+    /**
+     * Share <code>caches</code> with the document sources of the other apiSources of the same execution,
+     * which reuse what the ones before them resolved unless they substitute other models.
+     */
+    public void setCaches(ReaderCaches caches) {
+        this.caches = caches;
+    }
+
+    public ClassFileRepository getClassFiles() {
+        return classFiles;
+    }
+
+    /**
+     * Read the API classes from these class files instead of loading them, see {@link #readClassFiles(Set)}.
+     */
+    public void setClassFiles(ClassFileRepository classFiles) {
+        this.classFiles = classFiles;
+    }
+
+    /**
+     * Reads the API classes into {@link #swagger}, which then holds the properties and inline schemas that
+     * are the same once, see {@link SwaggerInterner}.
+     */
+    protected Swagger read(Set<Class<?>> classes) throws GenerateException {
+        interner = new SwaggerInterner();
+        caches.resolveWith(substitutions);
+        ModelCache models = caches.getModels();
+        int misses = models.getMisses();
+        int loads = models.getLoads();
+        int hits = models.getHits();
+        // the model converters are shared by the whole JVM, the substitute only takes part in this read
+        if (substitute != null) {
+            ModelConverters.getInstance().addConverter(substitute);
+        }
+        // the incremental state and the model store both keep which class files things were resolved from
+        DependencyRecorder recorder = null;
+        if (incrementalState != null || modelStore != null) {
+            recorder = new DependencyRecorder();
+            ModelConverters.getInstance().addConverter(recorder);
+        }
+        models.setStore(modelStore, getSubstitutionsKey());
+        ReaderCaches.setCurrent(caches);
+        Swagger result;
+        try {
+            result = incrementalState == null ? createReader(swagger).read(classes) : readIncrementally(classes);
+        } finally {
+            ReaderCaches.setCurrent(null);
+            models.setStore(null, null);
+            if (recorder != null) {
+                ModelConverters.getInstance().removeConverter(recorder);
+            }
+            if (substitute != null) {
+                ModelConverters.getInstance().removeConverter(substitute);
+            }
+        }
+        LOG.info("Resolved " + (models.getMisses() - misses) + " model graphs, loaded "
+                + (models.getLoads() - loads) + " from the model store, reused them "
+                + (models.getHits() - hits) + " times");
+        LOG.info("Kept " + interner.getDistinct() + " distinct of " + interner.getOccurrences()
+                + " properties and inline schemas");
+        return result;
+    }
+
+    /**
+     * Reads the API classes named <code>classNames</code> from {@link #classFiles} into {@link #swagger}, without
+     * loading them or the classes they refer to. The model substitute file and the types to skip are taken by name.
+     */
+    protected Swagger readClassFiles(Set<String> classNames) throws GenerateException {
+        interner = new SwaggerInterner();
+        Map<String, String> substitutes = Collections.emptyMap();
+        if (modelSubstitute != null) {
+            substitutes = readModelSubstitutes(classFiles.getClassLoader().getResourceAsStream(
+                    modelSubstitute.startsWith("/") ? modelSubstitute.substring(1) : modelSubstitute));
+        }
+        ClassFileJaxrsReader reader = new ClassFileJaxrsReader(swagger, LOG, new ClassFileModelResolver(classFiles, substitutes));
+        if (apiSource.getTypesToSkip() != null) {
+            reader.setTypeNamesToSkip(new HashSet<String>(apiSource.getTypesToSkip()));
+        }
+        reader.setParallelism(readParallelism);
+        reader.setInterner(interner);
+        Swagger result = reader.read(classNames);
+        LOG.info("Read " + classFiles.getRead() + " class files");
+        LOG.info("Kept " + interner.getDistinct() + " distinct of " + interner.getOccurrences()
+                + " properties and inline schemas");
+        return result;
+    }
+
+    /**
+     * Adds the security definitions of the apiSource to {@link #swagger}, sorted to make the output consistent.
+     * They are put into a new map, as the document shares what it was read from.
+     */
+    protected void addSecurityDefinitions() throws GenerateException {
+        Map<String, SecuritySchemeDefinition> definitions = new TreeMap<String, SecuritySchemeDefinition>();
+        if (swagger.getSecurityDefinitions() != null) {
+            definitions.putAll(swagger.getSecurityDefinitions());
+        }
+        if (apiSource.getSecurityDefinitions() != null) {
+            for (SecurityDefinition securityDefinition : apiSource.getSecurityDefinitions()) {
+                definitions.putAll(securityDefinition.getDefinitions());
+            }
+        }
+        if (!definitions.isEmpty()) {
+            swagger.setSecurityDefinitions(definitions);
+        }
+    }
+
+    /**
+     * Replaces {@link #swagger} by what <code>filter</code> keeps of it, without changing the properties and
+     * inline schemas it shares, see {@link CopyingSpecFilter}.
+     */
+    protected void filter(SwaggerSpecFilter filter) {
+        swagger = new CopyingSpecFilter().filter(swagger, filter, new HashMap<String, List<String>>(),
+                new HashMap<String, String>(), new HashMap<String, List<String>>());
+    }
+
+    /**
+     * @return the model substitutions, the same from one build to the next
+     */
+    private String getSubstitutionsKey() {
+        List<String> pairs = new ArrayList<String>();
+        for (Map.Entry<Type, Type> substitution : substitutions.entrySet()) {
+            pairs.add(substitution.getKey() + ":" + substitution.getValue());
+        }
+        Collections.sort(pairs);
+        return HashUtils.md5Hex(pairs.toString());
+    }
+
+    /**
+     * Reads the API classes one by one, whatever {@link #readParallelism} is, each recording what it depends on.
+     */
+    private Swagger readIncrementally(Set<Class<?>> classes) throws GenerateException {
+        List<Class<?>> sorted = new ArrayList<Class<?>>(classes);
+        Collections.sort(sorted, new Comparator<Class<?>>() {
+            @Override
+            public int compare(Class<?> c1, Class<?> c2) {
+                return c1.getName().compareTo(c2.getName());
+            }
+        });
+
+        int reused = 0;
+        for (Class<?> cls : sorted) {
+            Swagger fragment = incrementalState.getFragment(cls.getName());
+            if (fragment != null) {
+                reused++;
+                // read again from the state, the reader interned the others as it read them
+                interner.intern(fragment);
+            } else {
+                Set<Class<?>> dependencies;
+                DependencyRecorder.start();
+                try {
+                    DependencyRecorder.recordSignatures(cls);
+                    fragment = createReader(new Swagger()).read(Collections.<Class<?>>singleton(cls));
+                } finally {
+                    dependencies = DependencyRecorder.stop();
+                }
+                incrementalState.putFragment(cls.getName(), fragment, DependencyRecorder.withSuperTypes(dependencies));
+            }
+            for (String conflict : Utils.mergeSwagger(swagger, fragment)) {
+                LOG.warn("Conflicting " + conflict + " read from " + cls.getName() + ", replacing the one read before");
+            }
+        }
+        LOG.info("Reused " + reused + " of " + sorted.size() + " API classes read by the previous build");
+        return swagger;
+    }
+
     public void toSwaggerDocuments(String swaggerUIDocBasePath)
             throws GenerateException {
         mapper.configure(SerializationFeature.WRITE_EMPTY_JSON_ARRAYS, false);
@@ -125,35 +370,60 @@ public abstract class AbstractDocumentSource {
         }
     }
 
+    /**
+     * Loads the model substitutions of the apiSource, which the model converters use while its API classes
+     * are read.
+     */
     public void loadOverridingModels() throws GenerateException {
         if (modelSubstitute != null) {
             ModelSubstitute modelSubstitute = new ModelSubstitute(new ObjectMapper());
-            BufferedReader reader = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream(this.modelSubstitute)));
-            String line = null;
+            for (Map.Entry<String, String> substitution : readModelSubstitutes(getClass().getResourceAsStream(this.modelSubstitute)).entrySet()) {
+                modelSubstitute.substitute(substitution.getKey(), substitution.getValue());
+            }
+            substitute = modelSubstitute;
+            substitutions = new HashMap<Type, Type>(modelSubstitute.getSubstitutions());
+        } else {
+            substitute = null;
+            substitutions = Collections.emptyMap();
+        }
+    }
+    
+    /**
+     * @return the expected class names of the model substitute file by actual class name, in file order
+     */
+    private Map<String, String> readModelSubstitutes(InputStream in) throws GenerateException {
+        Map<String, String> substitutes = new LinkedHashMap<String, String>();
+        if (in == null) {
+            throw new GenerateException("Cannot find the override model file " + this.modelSubstitute);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in));
+        try {
             try {
-                line = reader.readLine();
+                String line = reader.readLine();
                 while (line != null) {
                     String[] classes = line.split(":");
                     if (classes == null || classes.length != 2) {
                         throw new GenerateException("Bad format of override model file, it should be ${actualClassName}:${expectClassName}");
                     }
-                    modelSubstitute.substitute(classes[0].trim(), classes[1].trim());
+                    substitutes.put(classes[0].trim(), classes[1].trim());
                     line = reader.readLine();
                 }
-            } catch (IOException e) {
-                throw new GenerateException(e);
+            } finally {
+                reader.close();
             }
-            ModelConverters.getInstance().addConverter(modelSubstitute);
+        } catch (IOException e) {
+            throw new GenerateException(e);
         }
+        return substitutes;
     }
-    
+
     public void loadTypesToSkip() throws GenerateException {
         List<String> typesToSkip = apiSource.getTypesToSkip();
         if (typesToSkip != null && !typesToSkip.isEmpty()) {
             ObjectMapper mapper = new ObjectMapper();
             for (String typeToSkip : typesToSkip) {
                 try {
-                    Type type = Class.forName(typeToSkip);
+                    Type type = Class.forName(typeToSkip, false, AbstractDocumentSource.class.getClassLoader());
                     this.typesToSkip.add(type);
                 } catch (ClassNotFoundException e) {
                     throw new GenerateException(e);
@@ -1,12 +1,20 @@
 package com.github.kongchen.swagger.docgen;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.jknack.handlebars.io.ClassPathTemplateLoader;
 import com.github.jknack.handlebars.io.FileTemplateLoader;
 import io.swagger.models.*;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.MapProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.util.Json;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -17,6 +25,8 @@ public class Utils {
 
     private static final java.lang.String CLASSPATH = "classpath:";
 
+    private static final java.lang.String[] HTTP_METHODS = {"get", "put", "post", "delete", "patch", "options"};
+
     public static TemplatePath parseTemplateUrl(String templatePath) throws GenerateException {
         if (templatePath == null) return null;
         TemplatePath tp;
@@ -89,6 +99,108 @@ public class Utils {
 
     }
 
+    /**
+     * Adds the paths, tags and definitions of <code>fragment</code> to <code>swagger</code>, the same way
+     * the readers would have added them while reading into <code>swagger</code> directly: an operation or
+     * a definition already there is replaced.
+     *
+     * @return the operations, as "METHOD path", and the definitions, as "definition name", which were
+     * replaced by different ones
+     */
+    public static List<String> mergeSwagger(Swagger swagger, Swagger fragment) {
+        List<String> conflicts = new ArrayList<String>();
+        if (fragment.getTags() != null) {
+            for (Tag tag : fragment.getTags()) {
+                swagger.tag(tag);
+            }
+        }
+        if (fragment.getPaths() != null) {
+            for (Map.Entry<String, Path> entry : fragment.getPaths().entrySet()) {
+                Path path = swagger.getPath(entry.getKey());
+                if (path == null) {
+                    path = new Path();
+                    swagger.path(entry.getKey(), path);
+                }
+                for (String method : HTTP_METHODS) {
+                    Operation operation = getOperation(entry.getValue(), method);
+                    if (operation != null) {
+                        Operation previous = getOperation(path, method);
+                        if (previous != null && !previous.equals(operation)) {
+                            conflicts.add(method.toUpperCase() + " " + entry.getKey());
+                        }
+                        path.set(method, operation);
+                    }
+                }
+            }
+        }
+        if (fragment.getDefinitions() != null) {
+            for (Map.Entry<String, Model> entry : fragment.getDefinitions().entrySet()) {
+                Model previous = swagger.getDefinitions() == null ? null : swagger.getDefinitions().get(entry.getKey());
+                if (previous != null && !previous.equals(entry.getValue())) {
+                    conflicts.add("definition " + entry.getKey());
+                }
+                swagger.model(entry.getKey(), entry.getValue());
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Puts back the details of the properties of <code>model</code> which the swagger deserializers leave
+     * out, read from <code>node</code>, the JSON it was deserialized from, and their names, which are not
+     * part of it.
+     */
+    public static void restoreProperties(Model model, JsonNode node) throws IOException {
+        if (model.getProperties() == null) {
+            return;
+        }
+        JsonNode properties = node.path("properties");
+        for (Map.Entry<String, Property> property : model.getProperties().entrySet()) {
+            if (property.getValue() != null && property.getValue().getName() == null) {
+                property.getValue().setName(property.getKey());
+            }
+            restoreProperty(property.getValue(), properties.path(property.getKey()));
+        }
+    }
+
+    private static void restoreProperty(Property property, JsonNode node) throws IOException {
+        if (property == null || node.isMissingNode()) {
+            return;
+        }
+        if (property.getXml() == null && node.has("xml")) {
+            property.setXml(Json.mapper().treeToValue(node.get("xml"), Xml.class));
+        }
+        if (property.getReadOnly() == null && node.has("readOnly")) {
+            property.setReadOnly(node.get("readOnly").asBoolean());
+        }
+        if (property instanceof ArrayProperty) {
+            ArrayProperty array = (ArrayProperty) property;
+            if (array.getUniqueItems() == null && node.has("uniqueItems")) {
+                array.setUniqueItems(node.get("uniqueItems").asBoolean());
+            }
+            restoreProperty(array.getItems(), node.path("items"));
+        } else if (property instanceof MapProperty) {
+            restoreProperty(((MapProperty) property).getAdditionalProperties(), node.path("additionalProperties"));
+        }
+    }
+
+    private static Operation getOperation(Path path, String method) {
+        if ("get".equals(method)) {
+            return path.getGet();
+        } else if ("put".equals(method)) {
+            return path.getPut();
+        } else if ("post".equals(method)) {
+            return path.getPost();
+        } else if ("delete".equals(method)) {
+            return path.getDelete();
+        } else if ("patch".equals(method)) {
+            return path.getPatch();
+        } else if ("options".equals(method)) {
+            return path.getOptions();
+        }
+        return null;
+    }
+
     private static void sortResponses(Path path, String method) throws GenerateException {
         try {
             Method m = Path.class.getDeclaredMethod("get" + method);
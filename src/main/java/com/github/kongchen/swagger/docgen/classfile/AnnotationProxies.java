@@ -0,0 +1,120 @@
+package com.github.kongchen.swagger.docgen.classfile;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationValue;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Implements annotations of the plugin's own dependencies, such as the swagger and JAX-RS ones, with the values
+ * read from a class file, so what the swagger readers do with them is done the same way.
+ *
+ * Members of type <code>Class</code> can only give their default, the classes of the project being out of reach.
+ */
+final class AnnotationProxies {
+
+    private AnnotationProxies() {
+    }
+
+    /**
+     * @return <code>instance</code> as an <code>annotationType</code>, or null if it is null
+     */
+    static <A extends Annotation> A create(Class<A> annotationType, AnnotationInstance instance) {
+        if (instance == null) {
+            return null;
+        }
+        return annotationType.cast(Proxy.newProxyInstance(annotationType.getClassLoader(),
+                new Class<?>[]{annotationType}, new Handler(annotationType, instance)));
+    }
+
+    private static class Handler implements InvocationHandler {
+        private final Class<? extends Annotation> annotationType;
+        private final AnnotationInstance instance;
+
+        Handler(Class<? extends Annotation> annotationType, AnnotationInstance instance) {
+            this.annotationType = annotationType;
+            this.instance = instance;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if ("annotationType".equals(name) && method.getParameterTypes().length == 0) {
+                return annotationType;
+            } else if ("toString".equals(name) && method.getParameterTypes().length == 0) {
+                return instance.toString();
+            } else if ("hashCode".equals(name) && method.getParameterTypes().length == 0) {
+                return System.identityHashCode(proxy);
+            } else if ("equals".equals(name) && method.getParameterTypes().length == 1) {
+                return proxy == args[0];
+            }
+            AnnotationValue value = instance.value(name);
+            if (value == null) {
+                return method.getDefaultValue();
+            }
+            return convert(value, method.getReturnType());
+        }
+
+        private static Object convert(AnnotationValue value, Class<?> type) {
+            if (type.isArray() && value.kind() != AnnotationValue.Kind.ARRAY) {
+                // a single value may be given without braces
+                Object array = Array.newInstance(type.getComponentType(), 1);
+                Array.set(array, 0, convert(value, type.getComponentType()));
+                return array;
+            } else if (type == String[].class) {
+                return value.asStringArray();
+            } else if (type == int[].class) {
+                return value.asIntArray();
+            } else if (type == boolean[].class) {
+                return value.asBooleanArray();
+            } else if (type.isArray() && type.getComponentType().isEnum()) {
+                String[] constants = value.asEnumArray();
+                Object array = Array.newInstance(type.getComponentType(), constants.length);
+                for (int i = 0; i < constants.length; i++) {
+                    Array.set(array, i, toEnum(type.getComponentType(), constants[i]));
+                }
+                return array;
+            } else if (type.isArray() && type.getComponentType().isAnnotation()) {
+                AnnotationInstance[] nested = value.asNestedArray();
+                Object array = Array.newInstance(type.getComponentType(), nested.length);
+                for (int i = 0; i < nested.length; i++) {
+                    Array.set(array, i, create(type.getComponentType().asSubclass(Annotation.class), nested[i]));
+                }
+                return array;
+            } else if (type == String.class) {
+                return value.asString();
+            } else if (type == boolean.class) {
+                return value.asBoolean();
+            } else if (type == int.class) {
+                return value.asInt();
+            } else if (type == long.class) {
+                return value.asLong();
+            } else if (type == double.class) {
+                return value.asDouble();
+            } else if (type == float.class) {
+                return value.asFloat();
+            } else if (type == short.class) {
+                return value.asShort();
+            } else if (type == byte.class) {
+                return value.asByte();
+            } else if (type == char.class) {
+                return value.asChar();
+            } else if (type.isEnum()) {
+                return toEnum(type, value.asEnum());
+            } else if (type.isAnnotation()) {
+                return create(type.asSubclass(Annotation.class), value.asNested());
+            }
+            throw new UnsupportedOperationException("Cannot give the " + type.getName() + " " + value.name()
+                    + " read from a class file");
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Object toEnum(Class<?> type, String constant) {
+            return Enum.valueOf((Class<Enum>) type, constant);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.kongchen.swagger.docgen.classfile;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationValue;
+import org.jboss.jandex.Type;
+
+/**
+ * The values of an annotation read from a class file, which only holds those that differ from their defaults:
+ * each getter takes the default of the annotation member it reads.
+ */
+final class AnnotationValues {
+
+    private AnnotationValues() {
+    }
+
+    static String getString(AnnotationInstance annotation, String name, String defaultValue) {
+        AnnotationValue value = annotation == null ? null : annotation.value(name);
+        return value == null ? defaultValue : value.asString();
+    }
+
+    static boolean getBoolean(AnnotationInstance annotation, String name, boolean defaultValue) {
+        AnnotationValue value = annotation == null ? null : annotation.value(name);
+        return value == null ? defaultValue : value.asBoolean();
+    }
+
+    static int getInt(AnnotationInstance annotation, String name, int defaultValue) {
+        AnnotationValue value = annotation == null ? null : annotation.value(name);
+        return value == null ? defaultValue : value.asInt();
+    }
+
+    static String[] getStrings(AnnotationInstance annotation, String name) {
+        AnnotationValue value = annotation == null ? null : annotation.value(name);
+        if (value == null) {
+            return new String[0];
+        }
+        // a single value may be given without braces, which is read the same
+        return value.kind() == AnnotationValue.Kind.ARRAY ? value.asStringArray() : new String[]{value.asString()};
+    }
+
+    /**
+     * @return the class given by <code>name</code>, or null if it is the default
+     */
+    static Type getClass(AnnotationInstance annotation, String name) {
+        AnnotationValue value = annotation == null ? null : annotation.value(name);
+        return value == null ? null : value.asClass();
+    }
+
+    static AnnotationInstance[] getNested(AnnotationInstance annotation, String name) {
+        AnnotationValue value = annotation == null ? null : annotation.value(name);
+        if (value == null) {
+            return new AnnotationInstance[0];
+        }
+        return value.kind() == AnnotationValue.Kind.ARRAY ? value.asNestedArray()
+                : new AnnotationInstance[]{value.asNested()};
+    }
+}
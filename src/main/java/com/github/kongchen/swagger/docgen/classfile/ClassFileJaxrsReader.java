@@ -0,0 +1,732 @@
+package com.github.kongchen.swagger.docgen.classfile;
+
+import com.github.kongchen.swagger.docgen.GenerateException;
+import com.github.kongchen.swagger.docgen.LogAdapter;
+import com.github.kongchen.swagger.docgen.reader.AbstractReader;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.Authorization;
+import io.swagger.annotations.AuthorizationScope;
+import io.swagger.jaxrs.ParameterProcessor;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Response;
+import io.swagger.models.SecurityRequirement;
+import io.swagger.models.Swagger;
+import io.swagger.models.Tag;
+import io.swagger.models.parameters.AbstractSerializableParameter;
+import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.CookieParameter;
+import io.swagger.models.parameters.FormParameter;
+import io.swagger.models.parameters.HeaderParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.PathParameter;
+import io.swagger.models.parameters.QueryParameter;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.MapProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.PropertyBuilder;
+import io.swagger.models.properties.RefProperty;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.FieldInfo;
+import org.jboss.jandex.MethodInfo;
+import org.jboss.jandex.Type;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.core.Context;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Reads the JAX-RS resources from their class files, the way {@link com.github.kongchen.swagger.docgen.reader.JaxrsReader}
+ * reads them from their classes, which are never loaded: the annotations and the generic signatures are read by
+ * Jandex, and the models are resolved by a {@link ClassFileModelResolver}.
+ *
+ * The swagger extensions, the model converters and the Jackson modules of the project are not consulted, and the
+ * parameter types are skipped by their names.
+ */
+public class ClassFileJaxrsReader extends AbstractReader {
+    static final DotName API = DotName.createSimple("io.swagger.annotations.Api");
+    static final DotName API_OPERATION = DotName.createSimple("io.swagger.annotations.ApiOperation");
+    static final DotName API_RESPONSES = DotName.createSimple("io.swagger.annotations.ApiResponses");
+    static final DotName API_PARAM = DotName.createSimple("io.swagger.annotations.ApiParam");
+    static final DotName API_IMPLICIT_PARAMS = DotName.createSimple("io.swagger.annotations.ApiImplicitParams");
+    static final DotName PATH = DotName.createSimple("javax.ws.rs.Path");
+    static final DotName CONSUMES = DotName.createSimple("javax.ws.rs.Consumes");
+    static final DotName PRODUCES = DotName.createSimple("javax.ws.rs.Produces");
+    static final DotName HTTP_METHOD = DotName.createSimple("javax.ws.rs.HttpMethod");
+    static final DotName PATH_PARAM = DotName.createSimple("javax.ws.rs.PathParam");
+    static final DotName QUERY_PARAM = DotName.createSimple("javax.ws.rs.QueryParam");
+    static final DotName HEADER_PARAM = DotName.createSimple("javax.ws.rs.HeaderParam");
+    static final DotName COOKIE_PARAM = DotName.createSimple("javax.ws.rs.CookieParam");
+    static final DotName FORM_PARAM = DotName.createSimple("javax.ws.rs.FormParam");
+    static final DotName DEFAULT_VALUE = DotName.createSimple("javax.ws.rs.DefaultValue");
+    static final DotName CONTEXT = DotName.createSimple("javax.ws.rs.core.Context");
+    static final DotName BEAN_PARAM = DotName.createSimple("javax.ws.rs.BeanParam");
+    static final DotName INJECT_PARAM = DotName.createSimple("com.sun.jersey.api.core.InjectParam");
+    static final DotName FORM_DATA_PARAM = DotName.createSimple("com.sun.jersey.multipart.FormDataParam");
+
+    private static final String RESPONSE = "javax.ws.rs.core.Response";
+    private static final String FORM_DATA_CONTENT_DISPOSITION = "com.sun.jersey.core.header.FormDataContentDisposition";
+    private static final Map<String, String> HTTP_METHODS = new HashMap<String, String>();
+
+    static {
+        for (String method : new String[]{"GET", "PUT", "POST", "DELETE", "OPTIONS", "HEAD"}) {
+            HTTP_METHODS.put("javax.ws.rs." + method, method.toLowerCase());
+        }
+        HTTP_METHODS.put("io.swagger.jaxrs.PATCH", "patch");
+    }
+
+    private final ClassFileRepository classFiles;
+    private final ClassFileModelResolver models;
+    private Set<String> typeNamesToSkip = new HashSet<String>();
+    private final LinkedList<String> reading = new LinkedList<String>();
+
+    public ClassFileJaxrsReader(Swagger swagger, LogAdapter LOG, ClassFileModelResolver models) {
+        super(swagger, LOG);
+        this.models = models;
+        this.classFiles = models.getClassFiles();
+    }
+
+    public Set<String> getTypeNamesToSkip() {
+        return typeNamesToSkip;
+    }
+
+    /**
+     * The names of the parameter types which are not documented.
+     */
+    public void setTypeNamesToSkip(Set<String> typeNamesToSkip) {
+        this.typeNamesToSkip = typeNamesToSkip;
+    }
+
+    /**
+     * Reads the resources named <code>classNames</code>, leaving out those without a readable class file.
+     */
+    public Swagger read(Set<String> classNames) throws GenerateException {
+        if (interner == null && (parallelism <= 1 || classNames.size() <= 1)) {
+            for (String className : classNames) {
+                read(className);
+            }
+            return swagger;
+        }
+
+        Map<String, Callable<Swagger>> tasks = new LinkedHashMap<String, Callable<Swagger>>();
+        for (final String className : classNames) {
+            final ClassFileJaxrsReader reader = new ClassFileJaxrsReader(new Swagger(), LOG, models);
+            reader.setTypeNamesToSkip(new HashSet<String>(typeNamesToSkip));
+            tasks.put(className, new Callable<Swagger>() {
+                @Override
+                public Swagger call() {
+                    return reader.read(className);
+                }
+            });
+        }
+        mergeAll(tasks);
+        return swagger;
+    }
+
+    public Swagger read(String className) {
+        ClassInfo cls = classFiles.get(className);
+        if (cls == null) {
+            LOG.warn("Could not read the class file of " + className);
+            return swagger;
+        }
+        reading.addLast(className);
+        try {
+            return read(cls, "", null, false, new String[0], new String[0], new HashMap<String, Tag>(), new ArrayList<Parameter>());
+        } finally {
+            reading.removeLast();
+        }
+    }
+
+    protected Swagger read(ClassInfo cls, String parentPath, String parentMethod, boolean readHidden, String[] parentConsumes, String[] parentProduces, Map<String, Tag> parentTags, List<Parameter> parentParameters) {
+        List<ClassInfo> hierarchy = classFiles.getHierarchy(cls);
+        Api api = AnnotationProxies.create(Api.class, ClassFileRepository.findClassAnnotation(hierarchy, API));
+
+        // only read if allowing hidden apis OR api is not marked as hidden
+        if (!canReadApi(readHidden, api)) {
+            return swagger;
+        }
+
+        Map<String, Tag> tags = updateTagsForApi(parentTags, api);
+        List<SecurityRequirement> securities = getSecurityRequirements(api);
+        String apiPath = AnnotationValues.getString(ClassFileRepository.findClassAnnotation(hierarchy, PATH), "value", null);
+        String[] classConsumes = AnnotationValues.getStrings(ClassFileRepository.findClassAnnotation(hierarchy, CONSUMES), "value");
+        String[] classProduces = AnnotationValues.getStrings(ClassFileRepository.findClassAnnotation(hierarchy, PRODUCES), "value");
+
+        Map<DotName, Map<String, Type>> bindings = models.bindTypeVariables(cls, Collections.<Type>emptyList());
+        for (List<MethodInfo> method : getMethods(hierarchy, bindings)) {
+            ApiOperation apiOperation = AnnotationProxies.create(ApiOperation.class, find(method, API_OPERATION));
+            String methodPath = AnnotationValues.getString(find(method, PATH), "value", null);
+
+            String operationPath = getPath(apiPath, methodPath, parentPath);
+            if (operationPath != null && apiOperation != null) {
+                Map<String, String> regexMap = new HashMap<String, String>();
+                operationPath = parseOperationPath(operationPath, regexMap);
+
+                String httpMethod = extractOperationMethod(apiOperation, method);
+
+                Operation operation = parseMethod(method, bindings);
+                if (operation == null) {
+                    continue;
+                }
+
+                updateOperationParameters(parentParameters, regexMap, operation);
+
+                updateOperationProtocols(apiOperation, operation);
+
+                String[] apiConsumes = updateOperationConsumes(parentConsumes, classConsumes, operation);
+                String[] apiProduces = updateOperationProduces(parentProduces, classProduces, operation);
+
+                handleSubResource(apiConsumes, httpMethod, apiProduces, tags, method.get(0), operationPath, operation);
+
+                // can't continue without a valid http method
+                httpMethod = httpMethod == null ? parentMethod : httpMethod;
+                updateTagsForOperation(operation, apiOperation);
+                updateOperation(apiConsumes, apiProduces, tags, securities, operation);
+                updatePath(operationPath, httpMethod, operation);
+            }
+        }
+
+        return swagger;
+    }
+
+    /**
+     * @return the public methods of the class, each followed by the methods of its super types it overrides or
+     * implements, nearest first
+     */
+    private List<List<MethodInfo>> getMethods(List<ClassInfo> hierarchy, Map<DotName, Map<String, Type>> bindings) {
+        Map<String, List<MethodInfo>> methods = new LinkedHashMap<String, List<MethodInfo>>();
+        for (ClassInfo type : hierarchy) {
+            boolean isInterface = Modifier.isInterface(type.flags());
+            for (MethodInfo method : type.unsortedMethods()) {
+                int flags = method.flags();
+                // bridge methods only repeat the method they bridge to
+                if (method.name().startsWith("<") || Modifier.isStatic(flags) || method.isSynthetic()
+                        || (flags & 0x0040) != 0 || !(isInterface || Modifier.isPublic(flags))) {
+                    continue;
+                }
+                Map<String, Type> typeArguments = bindings.get(type.name());
+                StringBuilder signature = new StringBuilder(method.name()).append('(');
+                for (Type parameterType : method.parameters()) {
+                    Type resolved = typeArguments == null ? parameterType
+                            : ClassFileModelResolver.substitute(parameterType, typeArguments);
+                    signature.append(ClassFileModelResolver.erase(resolved)).append(',');
+                }
+                String key = signature.append(')').toString();
+                List<MethodInfo> overridden = methods.get(key);
+                if (overridden == null) {
+                    overridden = new ArrayList<MethodInfo>();
+                    methods.put(key, overridden);
+                }
+                overridden.add(method);
+            }
+        }
+        return new ArrayList<List<MethodInfo>>(methods.values());
+    }
+
+    /**
+     * @return the annotation <code>annotationName</code> of the first of <code>method</code> and the methods it
+     * overrides declaring it
+     */
+    private static AnnotationInstance find(List<MethodInfo> method, DotName annotationName) {
+        for (MethodInfo m : method) {
+            for (AnnotationInstance annotation : m.annotations()) {
+                if (annotation.name().equals(annotationName) && isOnMethod(annotation)) {
+                    return annotation;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isOnMethod(AnnotationInstance annotation) {
+        return annotation.target() != null && annotation.target().kind() == AnnotationTarget.Kind.METHOD;
+    }
+
+    /**
+     * @return the annotations of parameter <code>position</code>, taken from the first of <code>method</code> and
+     * the methods it overrides annotating it
+     */
+    private static List<AnnotationInstance> getParameterAnnotations(List<MethodInfo> method, int position) {
+        for (MethodInfo m : method) {
+            List<AnnotationInstance> annotations = new ArrayList<AnnotationInstance>();
+            for (AnnotationInstance annotation : m.annotations()) {
+                if (annotation.target() != null && annotation.target().kind() == AnnotationTarget.Kind.METHOD_PARAMETER
+                        && annotation.target().asMethodParameter().position() == position) {
+                    annotations.add(annotation);
+                }
+            }
+            if (!annotations.isEmpty()) {
+                return annotations;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return the lower case HTTP method of <code>method</code>, given by its <code>@ApiOperation</code> or by a
+     * JAX-RS annotation, or null
+     */
+    private String extractOperationMethod(ApiOperation apiOperation, List<MethodInfo> method) {
+        if (!"".equals(apiOperation.httpMethod())) {
+            return apiOperation.httpMethod().toLowerCase();
+        }
+        for (MethodInfo m : method) {
+            for (AnnotationInstance annotation : m.annotations()) {
+                if (!isOnMethod(annotation)) {
+                    continue;
+                }
+                String name = annotation.name().toString();
+                if (HTTP_METHODS.containsKey(name)) {
+                    return HTTP_METHODS.get(name);
+                }
+                if (annotation.name().equals(HTTP_METHOD)) {
+                    return annotation.value().asString().toLowerCase();
+                }
+                ClassInfo annotationClass = classFiles.get(name);
+                AnnotationInstance httpMethod = annotationClass == null ? null
+                        : ClassFileRepository.getClassAnnotation(annotationClass, HTTP_METHOD);
+                if (httpMethod != null) {
+                    return httpMethod.value().asString().toLowerCase();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void handleSubResource(String[] apiConsumes, String httpMethod, String[] apiProduces, Map<String, Tag> tags, MethodInfo method, String operationPath, Operation operation) {
+        ClassInfo responseClass = classFiles.get(ClassFileModelResolver.erase(method.returnType()).name());
+        if (responseClass == null || ClassFileRepository.getClassAnnotation(responseClass, API) == null) {
+            return;
+        }
+        String className = responseClass.name().toString();
+        if (reading.contains(className)) {
+            LOG.warn("Not reading sub-resource " + className + " of " + method
+                    + " again, it is already being read: " + reading);
+            return;
+        }
+        reading.addLast(className);
+        try {
+            read(responseClass, operationPath, httpMethod, true, apiConsumes, apiProduces, tags, operation.getParameters());
+        } finally {
+            reading.removeLast();
+        }
+    }
+
+    protected Operation parseMethod(List<MethodInfo> method, Map<DotName, Map<String, Type>> bindings) {
+        Operation operation = new Operation();
+        MethodInfo methodInfo = method.get(0);
+        AnnotationInstance apiOperationInstance = find(method, API_OPERATION);
+        ApiOperation apiOperation = AnnotationProxies.create(ApiOperation.class, apiOperationInstance);
+
+        String operationId = methodInfo.name();
+        String responseContainer = null;
+
+        Type responseType = null;
+        Map<String, Property> defaultResponseHeaders = new HashMap<String, Property>();
+
+        if (apiOperation != null) {
+            if (apiOperation.hidden())
+                return null;
+            if (!"".equals(apiOperation.nickname()))
+                operationId = apiOperation.nickname();
+
+            defaultResponseHeaders = parseResponseHeaders(AnnotationValues.getNested(apiOperationInstance, "responseHeaders"));
+
+            operation
+                    .summary(apiOperation.value())
+                    .description(apiOperation.notes());
+
+            Type response = AnnotationValues.getClass(apiOperationInstance, "response");
+            if (response != null && !isVoid(response))
+                responseType = response;
+            if (!"".equals(apiOperation.responseContainer()))
+                responseContainer = apiOperation.responseContainer();
+            for (Authorization auth : apiOperation.authorizations()) {
+                if (auth.value() != null && !"".equals(auth.value())) {
+                    SecurityRequirement security = new SecurityRequirement();
+                    security.setName(auth.value());
+                    for (AuthorizationScope scope : auth.scopes()) {
+                        if (scope.scope() != null && !"".equals(scope.scope())) {
+                            security.addScope(scope.scope());
+                        }
+                    }
+                    operation.security(security);
+                }
+            }
+        }
+
+        if (responseType == null) {
+            // pick out response from method declaration
+            responseType = ClassFileModelResolver.erase(methodInfo.returnType());
+        }
+        if (!isVoid(responseType)
+                && !RESPONSE.equals(responseType.name().toString())
+                && !isResource(responseType)) {
+            Property property = models.readAsProperty(responseType);
+            if (property != null && isPrimitive(property)) {
+                Property responseProperty;
+                if ("list".equalsIgnoreCase(responseContainer))
+                    responseProperty = new ArrayProperty(property);
+                else if ("map".equalsIgnoreCase(responseContainer))
+                    responseProperty = new MapProperty(property);
+                else
+                    responseProperty = property;
+                operation.response(200, new Response()
+                        .description("successful operation")
+                        .schema(responseProperty)
+                        .headers(defaultResponseHeaders));
+            } else if (property != null) {
+                Map<String, Model> read = models.read(responseType);
+                if (read.size() == 0) {
+                    operation.response(200, new Response()
+                            .description("successful operation")
+                            .schema(property)
+                            .headers(defaultResponseHeaders));
+                }
+                for (String key : read.keySet()) {
+                    Property responseProperty;
+                    if ("list".equalsIgnoreCase(responseContainer))
+                        responseProperty = new ArrayProperty(new RefProperty().asDefault(key));
+                    else if ("map".equalsIgnoreCase(responseContainer))
+                        responseProperty = new MapProperty(new RefProperty().asDefault(key));
+                    else
+                        responseProperty = new RefProperty().asDefault(key);
+                    operation.response(200, new Response()
+                            .description("successful operation")
+                            .schema(responseProperty)
+                            .headers(defaultResponseHeaders));
+                }
+                addModels(responseType);
+            }
+        }
+
+        operation.operationId(operationId);
+
+        for (String mediaType : AnnotationValues.getStrings(find(method, CONSUMES), "value"))
+            operation.consumes(mediaType);
+        for (String mediaType : AnnotationValues.getStrings(find(method, PRODUCES), "value"))
+            operation.produces(mediaType);
+
+        AnnotationInstance responseAnnotation = find(method, API_RESPONSES);
+        if (responseAnnotation != null) {
+            updateApiResponse(operation, responseAnnotation);
+        }
+
+        // process parameters
+        Map<String, Type> typeArguments = bindings.get(methodInfo.declaringClass().name());
+        List<Type> parameterTypes = methodInfo.parameters();
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            Type type = typeArguments == null ? parameterTypes.get(i)
+                    : ClassFileModelResolver.substitute(parameterTypes.get(i), typeArguments);
+            for (Parameter parameter : getParameters(type, getParameterAnnotations(method, i))) {
+                operation.parameter(parameter);
+            }
+        }
+        if (operation.getResponses() == null) {
+            operation.defaultResponse(new Response().description("successful operation"));
+        }
+
+        readImplicitParameters(method, operation);
+
+        return operation;
+    }
+
+    private static boolean isVoid(Type type) {
+        return type.kind() == Type.Kind.VOID || "java.lang.Void".equals(type.name().toString());
+    }
+
+    private boolean isResource(Type type) {
+        ClassInfo classInfo = type.kind() == Type.Kind.CLASS ? classFiles.get(type.name()) : null;
+        return classInfo != null && ClassFileRepository.getClassAnnotation(classInfo, API) != null;
+    }
+
+    private static boolean isPrimitive(Property property) {
+        String type = property.getType();
+        return "integer".equals(type) || "string".equals(type) || "number".equals(type)
+                || "boolean".equals(type) || "array".equals(type) || "file".equals(type);
+    }
+
+    /**
+     * Adds the models of <code>type</code> and of the types it refers to.
+     */
+    private void addModels(Type type) {
+        for (Map.Entry<String, Model> model : models.readAll(type).entrySet()) {
+            swagger.model(model.getKey(), model.getValue());
+        }
+    }
+
+    protected Map<String, Property> parseResponseHeaders(AnnotationInstance[] headers) {
+        Map<String, Property> responseHeaders = null;
+        for (AnnotationInstance header : headers) {
+            String name = AnnotationValues.getString(header, "name", "");
+            if (!"".equals(name)) {
+                if (responseHeaders == null)
+                    responseHeaders = new HashMap<String, Property>();
+                String description = AnnotationValues.getString(header, "description", "");
+                Type type = AnnotationValues.getClass(header, "response");
+                String container = AnnotationValues.getString(header, "responseContainer", "");
+
+                if (type != null && !isVoid(type)) {
+                    Property property = models.readAsProperty(type);
+                    if (property != null) {
+                        Property responseProperty;
+                        if ("list".equalsIgnoreCase(container))
+                            responseProperty = new ArrayProperty(property);
+                        else if ("map".equalsIgnoreCase(container))
+                            responseProperty = new MapProperty(property);
+                        else
+                            responseProperty = property;
+                        responseProperty.setDescription(description);
+                        responseHeaders.put(name, responseProperty);
+                    }
+                }
+            }
+        }
+        return responseHeaders;
+    }
+
+    protected void updateApiResponse(Operation operation, AnnotationInstance responseAnnotation) {
+        for (AnnotationInstance apiResponse : AnnotationValues.getNested(responseAnnotation, "value")) {
+            Map<String, Property> responseHeaders = parseResponseHeaders(AnnotationValues.getNested(apiResponse, "responseHeaders"));
+            Type responseType = AnnotationValues.getClass(apiResponse, "response");
+            int code = AnnotationValues.getInt(apiResponse, "code", 0);
+            Response response = new Response()
+                    .description(AnnotationValues.getString(apiResponse, "message", ""))
+                    .headers(responseHeaders);
+
+            if (responseType == null || isVoid(responseType)) {
+                if (operation.getResponses() != null && !operation.getResponses().isEmpty()) {
+                    Response apiOperationResponse = operation.getResponses().get(String.valueOf(code));
+                    if (apiOperationResponse != null) {
+                        response.setSchema(apiOperationResponse.getSchema());
+                    }
+                }
+            }
+
+            if (code == 0)
+                operation.defaultResponse(response);
+            else
+                operation.response(code, response);
+
+            if (responseType != null && !isVoid(responseType)) {
+                for (String key : models.read(responseType).keySet()) {
+                    response.schema(new RefProperty().asDefault(key));
+                }
+                addModels(responseType);
+            }
+        }
+    }
+
+    /**
+     * Extracts the parameters of a method parameter the way the JAX-RS, Jersey and bean parameter extensions
+     * do, and applies its <code>@ApiParam</code> to them with the swagger parameter processor.
+     */
+    protected List<Parameter> getParameters(Type type, List<AnnotationInstance> annotations) {
+        List<Parameter> parameters = new ArrayList<Parameter>();
+        String typeName = ClassFileModelResolver.erase(type).name().toString();
+        if (typeNamesToSkip.contains(typeName) || FORM_DATA_CONTENT_DISPOSITION.equals(typeName)) {
+            return parameters;
+        }
+        List<Annotation> proxies = toProxies(annotations);
+        for (AnnotationInstance annotation : annotations) {
+            if (annotation.name().equals(BEAN_PARAM) || annotation.name().equals(INJECT_PARAM)) {
+                return getBeanParameters(classFiles.get(typeName));
+            }
+        }
+
+        Parameter parameter = null;
+        for (AnnotationInstance annotation : annotations) {
+            parameter = getParameter(type, parameter, annotation);
+        }
+        if (parameter != null) {
+            parameters.add(ParameterProcessor.applyAnnotations(swagger, parameter, Object.class, proxies));
+            return parameters;
+        }
+
+        // look for body parameters
+        for (Annotation annotation : proxies) {
+            if (annotation instanceof Context) {
+                return parameters;
+            }
+        }
+        ApiParam param = null;
+        String defaultValue = null;
+        for (Annotation annotation : proxies) {
+            if (annotation instanceof ApiParam) {
+                param = (ApiParam) annotation;
+            } else if (annotation instanceof DefaultValue) {
+                defaultValue = ((DefaultValue) annotation).value();
+            }
+        }
+        if (param != null && !"".equals(param.defaultValue())) {
+            defaultValue = param.defaultValue();
+        }
+        BodyParameter body = new BodyParameter();
+        body.setRequired(param != null && param.required());
+        body.setName(param != null && !"".equals(param.name()) ? param.name() : "body");
+        if (param != null && !"".equals(param.value())) {
+            body.setDescription(param.value());
+        }
+        setSchema(body, type, defaultValue);
+        parameters.add(body);
+        return parameters;
+    }
+
+    private void setSchema(BodyParameter body, Type type, String defaultValue) {
+        Property property = models.readAsProperty(type);
+        if (property != null) {
+            Map<PropertyBuilder.PropertyId, Object> args = new EnumMap<PropertyBuilder.PropertyId, Object>(PropertyBuilder.PropertyId.class);
+            if (defaultValue != null && !"".equals(defaultValue)) {
+                args.put(PropertyBuilder.PropertyId.DEFAULT, defaultValue);
+            }
+            body.setSchema(PropertyBuilder.toModel(PropertyBuilder.merge(property, args)));
+            addModels(type);
+        }
+    }
+
+    /**
+     * @return <code>parameter</code>, or the parameter given by <code>annotation</code> if it is a JAX-RS one
+     */
+    private Parameter getParameter(Type type, Parameter parameter, AnnotationInstance annotation) {
+        DotName name = annotation.name();
+        String value = annotation.value() == null ? "" : annotation.value().asString();
+        AbstractSerializableParameter<?> serializable;
+        if (name.equals(QUERY_PARAM)) {
+            serializable = new QueryParameter().name(value);
+        } else if (name.equals(PATH_PARAM)) {
+            serializable = new PathParameter().name(value);
+        } else if (name.equals(HEADER_PARAM)) {
+            serializable = new HeaderParameter().name(value);
+            serializable.setDefaultValue("");
+        } else if (name.equals(COOKIE_PARAM)) {
+            serializable = new CookieParameter().name(value);
+        } else if (name.equals(FORM_PARAM)) {
+            serializable = new FormParameter().name(value);
+        } else if (name.equals(FORM_DATA_PARAM)) {
+            FormParameter formParameter = new FormParameter().name(value);
+            if (classFiles.isSubtypeOf(ClassFileModelResolver.erase(type).name().toString(), "java.io.InputStream")) {
+                formParameter.setType("file");
+                return formParameter;
+            }
+            serializable = formParameter;
+        } else {
+            return parameter;
+        }
+        Property schema = models.readAsProperty(type);
+        if (schema != null) {
+            serializable.setProperty(schema);
+        }
+        String parameterType = serializable.getType();
+        if ("ref".equals(parameterType) || ("array".equals(parameterType)
+                && !name.equals(QUERY_PARAM) && !name.equals(PATH_PARAM))) {
+            serializable.setType("string");
+        }
+        return serializable;
+    }
+
+    /**
+     * @return the parameters given by the fields of <code>bean</code> and of its superclasses
+     */
+    private List<Parameter> getBeanParameters(ClassInfo bean) {
+        List<Parameter> parameters = new ArrayList<Parameter>();
+        for (ClassInfo c = bean; c != null && !ClassFileRepository.isObject(c.name()); c = classFiles.get(c.superName())) {
+            for (FieldInfo field : c.unsortedFields()) {
+                Parameter parameter = null;
+                AnnotationInstance param = null;
+                for (AnnotationInstance annotation : field.annotations()) {
+                    if (annotation.target().kind() != AnnotationTarget.Kind.FIELD) {
+                        continue;
+                    }
+                    if (annotation.name().equals(API_PARAM)) {
+                        param = annotation;
+                    }
+                    parameter = getParameter(field.type(), parameter, annotation);
+                }
+                if (parameter != null) {
+                    if (param != null) {
+                        parameter.setDescription(AnnotationValues.getString(param, "value", ""));
+                        parameter.setRequired(AnnotationValues.getBoolean(param, "required", false));
+                        parameter.setAccess(AnnotationValues.getString(param, "access", ""));
+                        String name = AnnotationValues.getString(param, "name", "");
+                        if (!"".equals(name)) {
+                            parameter.setName(name);
+                        }
+                    }
+                    parameters.add(parameter);
+                }
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * @return the annotations of <code>annotations</code> the swagger parameter processor looks at
+     */
+    private static List<Annotation> toProxies(List<AnnotationInstance> annotations) {
+        List<Annotation> proxies = new ArrayList<Annotation>();
+        for (AnnotationInstance annotation : annotations) {
+            if (annotation.name().equals(API_PARAM)) {
+                proxies.add(AnnotationProxies.create(ApiParam.class, annotation));
+            } else if (annotation.name().equals(DEFAULT_VALUE)) {
+                proxies.add(AnnotationProxies.create(DefaultValue.class, annotation));
+            } else if (annotation.name().equals(CONTEXT)) {
+                proxies.add(AnnotationProxies.create(Context.class, annotation));
+            }
+        }
+        return proxies;
+    }
+
+    protected void readImplicitParameters(List<MethodInfo> method, Operation operation) {
+        AnnotationInstance implicitParams = find(method, API_IMPLICIT_PARAMS);
+        for (AnnotationInstance instance : AnnotationValues.getNested(implicitParams, "value")) {
+            ApiImplicitParam param = AnnotationProxies.create(ApiImplicitParam.class, instance);
+            Parameter p;
+            if (param.paramType().equalsIgnoreCase("path")) {
+                p = new PathParameter();
+            } else if (param.paramType().equalsIgnoreCase("query")) {
+                p = new QueryParameter();
+            } else if (param.paramType().equalsIgnoreCase("form") || param.paramType().equalsIgnoreCase("formData")) {
+                p = new FormParameter();
+            } else if (param.paramType().equalsIgnoreCase("header")) {
+                p = new HeaderParameter();
+            } else if (param.paramType().equalsIgnoreCase("body")) {
+                // the model is the one of the data type, or else of the class declaring the method
+                ClassInfo dataType = classFiles.get(param.dataType());
+                BodyParameter body = new BodyParameter();
+                body.setRequired(param.required());
+                body.setName(!"".equals(param.name()) ? param.name() : "body");
+                if (!"".equals(param.value())) {
+                    body.setDescription(param.value());
+                }
+                setSchema(body, Type.create(dataType != null ? dataType.name() : method.get(0).declaringClass().name(),
+                        Type.Kind.CLASS), param.defaultValue());
+                operation.addParameter(body);
+                continue;
+            } else {
+                continue;
+            }
+            p = ParameterProcessor.applyAnnotations(swagger, p, Object.class, Collections.<Annotation>singletonList(param));
+            if (p != null) {
+                operation.addParameter(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,681 @@
+package com.github.kongchen.swagger.docgen.classfile;
+
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Xml;
+import io.swagger.models.properties.AbstractNumericProperty;
+import io.swagger.models.properties.AbstractProperty;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.BooleanProperty;
+import io.swagger.models.properties.DateTimeProperty;
+import io.swagger.models.properties.DoubleProperty;
+import io.swagger.models.properties.FloatProperty;
+import io.swagger.models.properties.IntegerProperty;
+import io.swagger.models.properties.LongProperty;
+import io.swagger.models.properties.MapProperty;
+import io.swagger.models.properties.ObjectProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+import io.swagger.models.properties.UUIDProperty;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ArrayType;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.FieldInfo;
+import org.jboss.jandex.MethodInfo;
+import org.jboss.jandex.ParameterizedType;
+import org.jboss.jandex.Type;
+import org.jboss.jandex.TypeVariable;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the properties and the models of the types read from class files, the way the swagger model
+ * resolver and Jackson resolve them from the classes with the default settings: a model holds the public
+ * getters and fields of the class and of its superclasses, and the fields the getters read or annotated with
+ * <code>@JsonProperty</code>. <code>@JsonIgnore</code>, <code>@JsonIgnoreProperties</code>, <code>@JsonProperty</code>,
+ * <code>@ApiModel</code>, <code>@ApiModelProperty</code>, the JAXB annotations and the bean validation constraints
+ * are honoured, the other Jackson annotations and the model converters are not.
+ *
+ * The models reached from a type are resolved once, and shared by the readers of the same document.
+ */
+public class ClassFileModelResolver {
+    static final DotName API_MODEL = DotName.createSimple("io.swagger.annotations.ApiModel");
+    static final DotName API_MODEL_PROPERTY = DotName.createSimple("io.swagger.annotations.ApiModelProperty");
+    static final DotName JSON_IGNORE = DotName.createSimple("com.fasterxml.jackson.annotation.JsonIgnore");
+    static final DotName JSON_PROPERTY = DotName.createSimple("com.fasterxml.jackson.annotation.JsonProperty");
+    static final DotName JSON_IGNORE_PROPERTIES = DotName.createSimple("com.fasterxml.jackson.annotation.JsonIgnoreProperties");
+    static final DotName XML_ROOT_ELEMENT = DotName.createSimple("javax.xml.bind.annotation.XmlRootElement");
+    static final DotName XML_ELEMENT = DotName.createSimple("javax.xml.bind.annotation.XmlElement");
+    static final DotName XML_ELEMENT_WRAPPER = DotName.createSimple("javax.xml.bind.annotation.XmlElementWrapper");
+    static final DotName XML_ATTRIBUTE = DotName.createSimple("javax.xml.bind.annotation.XmlAttribute");
+    static final DotName NOT_NULL = DotName.createSimple("javax.validation.constraints.NotNull");
+    static final DotName MIN = DotName.createSimple("javax.validation.constraints.Min");
+    static final DotName MAX = DotName.createSimple("javax.validation.constraints.Max");
+    static final DotName SIZE = DotName.createSimple("javax.validation.constraints.Size");
+    static final DotName DECIMAL_MIN = DotName.createSimple("javax.validation.constraints.DecimalMin");
+    static final DotName DECIMAL_MAX = DotName.createSimple("javax.validation.constraints.DecimalMax");
+
+    /**
+     * The value JAXB gives the names and namespaces left to their defaults.
+     */
+    private static final String XML_DEFAULT = "##default";
+
+    private static final Map<String, String> SIMPLE_TYPES = new HashMap<String, String>();
+
+    static {
+        for (String name : Arrays.asList("java.lang.String", "java.lang.Character", "char")) {
+            SIMPLE_TYPES.put(name, "string");
+        }
+        for (String name : Arrays.asList("java.lang.Byte", "byte")) {
+            SIMPLE_TYPES.put(name, "byte");
+        }
+        for (String name : Arrays.asList("java.lang.Boolean", "boolean")) {
+            SIMPLE_TYPES.put(name, "boolean");
+        }
+        for (String name : Arrays.asList("java.lang.Integer", "int", "java.lang.Short", "short")) {
+            SIMPLE_TYPES.put(name, "int32");
+        }
+        for (String name : Arrays.asList("java.lang.Long", "long", "java.math.BigInteger")) {
+            SIMPLE_TYPES.put(name, "int64");
+        }
+        for (String name : Arrays.asList("java.lang.Float", "float")) {
+            SIMPLE_TYPES.put(name, "float");
+        }
+        for (String name : Arrays.asList("java.lang.Double", "double", "java.math.BigDecimal")) {
+            SIMPLE_TYPES.put(name, "double");
+        }
+        for (String name : Arrays.asList("java.util.Date", "java.sql.Date", "java.sql.Timestamp", "java.util.Calendar",
+                "java.util.GregorianCalendar", "org.joda.time.DateTime")) {
+            SIMPLE_TYPES.put(name, "date-time");
+        }
+        SIMPLE_TYPES.put("java.util.UUID", "uuid");
+        SIMPLE_TYPES.put("java.net.URI", "uri");
+        SIMPLE_TYPES.put("java.net.URL", "url");
+        SIMPLE_TYPES.put("java.lang.Object", "object");
+    }
+
+    private final ClassFileRepository classFiles;
+    private final Map<String, String> substitutions;
+    private final Map<String, Map<String, Model>> graphs = new HashMap<String, Map<String, Model>>();
+
+    /**
+     * @param substitutions the names of the classes resolved instead of others, by the names of those
+     */
+    public ClassFileModelResolver(ClassFileRepository classFiles, Map<String, String> substitutions) {
+        this.classFiles = classFiles;
+        this.substitutions = substitutions;
+    }
+
+    public ClassFileRepository getClassFiles() {
+        return classFiles;
+    }
+
+    /**
+     * @return the property describing <code>type</code>, a reference for a model, or null for <code>void</code>
+     */
+    public Property readAsProperty(Type type) {
+        return resolve(type, Collections.<String, Type>emptyMap(), null);
+    }
+
+    /**
+     * @return the model of <code>type</code> itself by its name, none if it is not described by a model
+     */
+    public Map<String, Model> read(Type type) {
+        Property property = readAsProperty(type);
+        if (!(property instanceof RefProperty)) {
+            return Collections.emptyMap();
+        }
+        String name = ((RefProperty) property).getSimpleRef();
+        Model model = readAll(type).get(name);
+        return model == null ? Collections.<String, Model>emptyMap() : Collections.singletonMap(name, model);
+    }
+
+    /**
+     * @return the models of <code>type</code> and of the types it refers to, by their names
+     */
+    public synchronized Map<String, Model> readAll(Type type) {
+        String key = type.toString();
+        Map<String, Model> models = graphs.get(key);
+        if (models == null) {
+            models = new LinkedHashMap<String, Model>();
+            resolve(type, Collections.<String, Type>emptyMap(), models);
+            models = Collections.unmodifiableMap(models);
+            graphs.put(key, models);
+        }
+        return models;
+    }
+
+    /**
+     * @param typeArguments the types given to the type variables <code>type</code> may hold
+     * @param models where the models reached are added, null to resolve the property only
+     */
+    private Property resolve(Type type, Map<String, Type> typeArguments, Map<String, Model> models) {
+        switch (type.kind()) {
+            case VOID:
+                return null;
+            case PRIMITIVE:
+                return simpleProperty(SIMPLE_TYPES.get(type.name().toString()));
+            case ARRAY:
+                ArrayType arrayType = type.asArrayType();
+                Property items = resolve(arrayType.component(), typeArguments, models);
+                for (int i = 0; i < arrayType.dimensions(); i++) {
+                    items = new ArrayProperty(items);
+                }
+                return items;
+            case TYPE_VARIABLE:
+                Type argument = typeArguments.get(type.asTypeVariable().identifier());
+                if (argument != null) {
+                    return resolve(argument, Collections.<String, Type>emptyMap(), models);
+                }
+                return resolve(type.asTypeVariable().bounds().get(0), Collections.<String, Type>emptyMap(), models);
+            case WILDCARD_TYPE:
+                return resolve(type.asWildcardType().extendsBound(), typeArguments, models);
+            case CLASS:
+            case PARAMETERIZED_TYPE:
+                return resolveClass(substitute(type, typeArguments), models);
+            default:
+                return new ObjectProperty();
+        }
+    }
+
+    private Property resolveClass(Type type, Map<String, Model> models) {
+        String className = type.name().toString();
+        if (substitutions.containsKey(className)) {
+            className = substitutions.get(className);
+            type = Type.create(DotName.createSimple(className), Type.Kind.CLASS);
+        }
+        if (SIMPLE_TYPES.containsKey(className)) {
+            return simpleProperty(SIMPLE_TYPES.get(className));
+        }
+        List<Type> arguments = type.kind() == Type.Kind.PARAMETERIZED_TYPE
+                ? type.asParameterizedType().arguments() : Collections.<Type>emptyList();
+        ClassInfo classInfo = classFiles.get(className);
+        if (classInfo == null) {
+            return new ObjectProperty();
+        }
+        Map<String, Type> noArguments = Collections.emptyMap();
+        if (classInfo.isEnum()) {
+            StringProperty property = new StringProperty();
+            List<String> constants = new ArrayList<String>();
+            for (FieldInfo field : classInfo.unsortedFields()) {
+                if (field.isEnumConstant()) {
+                    constants.add(field.name());
+                }
+            }
+            property.setEnum(constants);
+            return property;
+        }
+        if (classFiles.isSubtypeOf(className, "java.util.Map")) {
+            Type valueType = arguments.size() == 2 ? arguments.get(1) : null;
+            return new MapProperty(valueType == null ? new ObjectProperty() : resolve(valueType, noArguments, models));
+        }
+        if (classFiles.isSubtypeOf(className, "java.util.Collection")) {
+            Type itemType = arguments.size() == 1 ? arguments.get(0) : null;
+            ArrayProperty property = new ArrayProperty(
+                    itemType == null ? new ObjectProperty() : resolve(itemType, noArguments, models));
+            if (classFiles.isSubtypeOf(className, "java.util.Set")) {
+                property.setUniqueItems(true);
+            }
+            return property;
+        }
+        String name = getModelName(type);
+        if (models != null && !models.containsKey(name)) {
+            ModelImpl model = new ModelImpl();
+            // put before its properties are resolved, as they may refer to it
+            models.put(name, model);
+            model.setType(ModelImpl.OBJECT);
+            String description = AnnotationValues.getString(
+                    ClassFileRepository.getClassAnnotation(classInfo, API_MODEL), "description", "");
+            if (!"".equals(description)) {
+                model.setDescription(description);
+            }
+            model.setXml(getXml(ClassFileRepository.getClassAnnotation(classInfo, XML_ROOT_ELEMENT), null));
+            for (Map.Entry<String, Property> property : resolveProperties(classInfo, arguments, models).entrySet()) {
+                model.addProperty(property.getKey(), property.getValue());
+            }
+        }
+        return new RefProperty().asDefault(name);
+    }
+
+    /**
+     * @return the name of the model of <code>type</code>: the value of its <code>@ApiModel</code>, or its simple
+     * name followed by those of its type arguments
+     */
+    String getModelName(Type type) {
+        switch (type.kind()) {
+            case PRIMITIVE:
+            case VOID:
+                return type.name().toString();
+            case ARRAY:
+                return getModelName(type.asArrayType().component());
+            case WILDCARD_TYPE:
+                return getModelName(type.asWildcardType().extendsBound());
+            case TYPE_VARIABLE:
+                return getModelName(type.asTypeVariable().bounds().get(0));
+            default:
+                break;
+        }
+        ClassInfo classInfo = classFiles.get(type.name());
+        String name = AnnotationValues.getString(classInfo == null ? null
+                : ClassFileRepository.getClassAnnotation(classInfo, API_MODEL), "value", "");
+        if ("".equals(name)) {
+            name = getSimpleName(type.name().toString());
+        }
+        if (type.kind() == Type.Kind.PARAMETERIZED_TYPE) {
+            StringBuilder builder = new StringBuilder(name);
+            for (Type argument : type.asParameterizedType().arguments()) {
+                builder.append(getModelName(argument));
+            }
+            name = builder.toString();
+        }
+        return name;
+    }
+
+    static String getSimpleName(String className) {
+        return className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1);
+    }
+
+    /**
+     * @return the properties of the model of <code>classInfo</code>, given <code>arguments</code>, by their names
+     */
+    private Map<String, Property> resolveProperties(ClassInfo classInfo, List<Type> arguments,
+                                                    Map<String, Model> models) {
+        Map<DotName, Map<String, Type>> bindings = bindTypeVariables(classInfo, arguments);
+
+        // the fields of the superclasses come first, then the getters of the class and of its super types
+        LinkedList<ClassInfo> superclasses = new LinkedList<ClassInfo>();
+        for (ClassInfo c = classInfo; c != null && !ClassFileRepository.isObject(c.name()); c = classFiles.get(c.superName())) {
+            superclasses.addFirst(c);
+        }
+        Map<String, Accessors> accessors = new LinkedHashMap<String, Accessors>();
+        for (ClassInfo c : superclasses) {
+            for (FieldInfo field : c.unsortedFields()) {
+                int flags = field.flags();
+                if (!Modifier.isStatic(flags) && !Modifier.isTransient(flags) && !field.isSynthetic()) {
+                    Accessors property = getAccessors(accessors, field.name());
+                    property.field = field;
+                }
+            }
+        }
+        for (ClassInfo c : classFiles.getHierarchy(classInfo)) {
+            for (MethodInfo method : c.unsortedMethods()) {
+                String name = getPropertyName(method);
+                if (name != null) {
+                    getAccessors(accessors, name).getters.add(method);
+                }
+            }
+        }
+
+        List<String> ignored = Arrays.asList(AnnotationValues.getStrings(
+                ClassFileRepository.getClassAnnotation(classInfo, JSON_IGNORE_PROPERTIES), "value"));
+        List<PropertyEntry> entries = new ArrayList<PropertyEntry>();
+        for (Map.Entry<String, Accessors> entry : accessors.entrySet()) {
+            Accessors property = entry.getValue();
+            if (!property.isVisible() || property.find(JSON_IGNORE) != null || ignored.contains(entry.getKey())) {
+                continue;
+            }
+            AnnotationInstance apiModelProperty = property.find(API_MODEL_PROPERTY);
+            if (AnnotationValues.getBoolean(apiModelProperty, "hidden", false)) {
+                continue;
+            }
+            String name = AnnotationValues.getString(property.find(JSON_PROPERTY), "value", "");
+            if ("".equals(name)) {
+                name = entry.getKey();
+            }
+            Type type;
+            DotName declaringClass;
+            if (!property.getters.isEmpty()) {
+                type = property.getters.get(0).returnType();
+                declaringClass = property.getters.get(0).declaringClass().name();
+            } else {
+                type = property.field.type();
+                declaringClass = property.field.declaringClass().name();
+            }
+            Map<String, Type> typeArguments = bindings.get(declaringClass);
+            Property resolved = resolve(type, typeArguments == null
+                    ? Collections.<String, Type>emptyMap() : typeArguments, models);
+            if (resolved == null) {
+                continue;
+            }
+            applyApiModelProperty(resolved, apiModelProperty);
+            applyXmlAnnotations(resolved, property, name, apiModelProperty == null);
+            applyBeanValidatorAnnotations(resolved, property);
+            entries.add(new PropertyEntry(name, resolved, AnnotationValues.getInt(apiModelProperty, "position", 0)));
+        }
+        Collections.sort(entries, new Comparator<PropertyEntry>() {
+            @Override
+            public int compare(PropertyEntry e1, PropertyEntry e2) {
+                return e1.position < e2.position ? -1 : e1.position == e2.position ? 0 : 1;
+            }
+        });
+        Map<String, Property> properties = new LinkedHashMap<String, Property>();
+        for (PropertyEntry entry : entries) {
+            properties.put(entry.name, entry.property);
+        }
+        return properties;
+    }
+
+    private static Accessors getAccessors(Map<String, Accessors> accessors, String name) {
+        Accessors property = accessors.get(name);
+        if (property == null) {
+            property = new Accessors();
+            accessors.put(name, property);
+        }
+        return property;
+    }
+
+    private static void applyApiModelProperty(Property property, AnnotationInstance apiModelProperty) {
+        if (apiModelProperty == null) {
+            return;
+        }
+        String description = AnnotationValues.getString(apiModelProperty, "value", "");
+        if (!"".equals(description)) {
+            property.setDescription(description);
+        }
+        if (AnnotationValues.getBoolean(apiModelProperty, "required", false)) {
+            property.setRequired(true);
+        }
+        if (AnnotationValues.getBoolean(apiModelProperty, "readOnly", false)) {
+            property.setReadOnly(Boolean.TRUE);
+        }
+        String example = AnnotationValues.getString(apiModelProperty, "example", "");
+        if (!"".equals(example) && property instanceof AbstractProperty) {
+            ((AbstractProperty) property).setExample(example);
+        }
+        String allowableValues = AnnotationValues.getString(apiModelProperty, "allowableValues", "");
+        if (!"".equals(allowableValues) && property instanceof StringProperty && !allowableValues.startsWith("range")) {
+            List<String> values = new ArrayList<String>();
+            for (String value : allowableValues.split(",")) {
+                if (!"".equals(value.trim())) {
+                    values.add(value.trim());
+                }
+            }
+            ((StringProperty) property).setEnum(values);
+        }
+    }
+
+    /**
+     * Applies the JAXB annotations of <code>property</code> the way the swagger model resolver does, including
+     * its default value, which a boolean property takes as false when there is none.
+     *
+     * @param xmlRequired whether <code>@XmlElement</code> tells if the property is required
+     */
+    private static void applyXmlAnnotations(Property resolved, Accessors property, String name, boolean xmlRequired) {
+        AnnotationInstance element = property.find(XML_ELEMENT);
+        if (xmlRequired && AnnotationValues.getBoolean(element, "required", false)) {
+            resolved.setRequired(true);
+        }
+        String defaultValue = AnnotationValues.getString(element, "defaultValue", "");
+        resolved.setDefault("".equals(defaultValue) || "\u0000".equals(defaultValue) ? null : defaultValue);
+
+        AnnotationInstance wrapper = property.find(XML_ELEMENT_WRAPPER);
+        if (wrapper != null) {
+            Xml xml = getXml(wrapper, name);
+            xml.setWrapped(true);
+            resolved.setXml(xml);
+        }
+        for (AnnotationInstance named : new AnnotationInstance[]{element, property.find(XML_ATTRIBUTE)}) {
+            String xmlName = AnnotationValues.getString(named, "name", XML_DEFAULT);
+            if (!"".equals(xmlName) && !xmlName.equals(name) && !XML_DEFAULT.equals(xmlName)) {
+                if (resolved.getXml() == null) {
+                    resolved.setXml(new Xml());
+                }
+                resolved.getXml().setName(xmlName);
+            }
+        }
+    }
+
+    /**
+     * @param defaultName the name given for {@link #XML_DEFAULT}, null to give none
+     * @return the xml object of a JAXB annotation with a name and a namespace, or null if there is none
+     */
+    private static Xml getXml(AnnotationInstance annotation, String defaultName) {
+        String name = AnnotationValues.getString(annotation, "name", XML_DEFAULT);
+        if (annotation == null || (defaultName == null && ("".equals(name) || XML_DEFAULT.equals(name)))) {
+            return null;
+        }
+        Xml xml = new Xml();
+        if (XML_DEFAULT.equals(name)) {
+            xml.setName(defaultName);
+        } else if (!"".equals(name)) {
+            xml.setName(name);
+        }
+        String namespace = AnnotationValues.getString(annotation, "namespace", XML_DEFAULT);
+        if (!"".equals(namespace) && !XML_DEFAULT.equals(namespace)) {
+            xml.setNamespace(namespace);
+        }
+        return xml;
+    }
+
+    /**
+     * Applies the bean validation constraints of <code>property</code> the way the swagger model resolver does.
+     */
+    private static void applyBeanValidatorAnnotations(Property resolved, Accessors property) {
+        if (property.find(NOT_NULL) != null) {
+            resolved.setRequired(true);
+        }
+        AnnotationInstance min = property.find(MIN);
+        if (min != null && resolved instanceof AbstractNumericProperty) {
+            ((AbstractNumericProperty) resolved).setMinimum((double) min.value().asLong());
+        }
+        AnnotationInstance max = property.find(MAX);
+        if (max != null && resolved instanceof AbstractNumericProperty) {
+            ((AbstractNumericProperty) resolved).setMaximum((double) max.value().asLong());
+        }
+        AnnotationInstance size = property.find(SIZE);
+        if (size != null) {
+            int minSize = AnnotationValues.getInt(size, "min", 0);
+            int maxSize = AnnotationValues.getInt(size, "max", Integer.MAX_VALUE);
+            if (resolved instanceof AbstractNumericProperty) {
+                ((AbstractNumericProperty) resolved).setMinimum((double) minSize);
+                ((AbstractNumericProperty) resolved).setMaximum((double) maxSize);
+            } else if (resolved instanceof StringProperty) {
+                ((StringProperty) resolved).minLength(minSize);
+                ((StringProperty) resolved).maxLength(maxSize);
+            }
+        }
+        // an exclusive bound is only marked as such, as swagger does
+        AnnotationInstance decimalMin = property.find(DECIMAL_MIN);
+        if (decimalMin != null && resolved instanceof AbstractNumericProperty) {
+            if (AnnotationValues.getBoolean(decimalMin, "inclusive", true)) {
+                ((AbstractNumericProperty) resolved).setMinimum(Double.valueOf(decimalMin.value().asString()));
+            } else {
+                ((AbstractNumericProperty) resolved).setExclusiveMinimum(true);
+            }
+        }
+        AnnotationInstance decimalMax = property.find(DECIMAL_MAX);
+        if (decimalMax != null && resolved instanceof AbstractNumericProperty) {
+            if (AnnotationValues.getBoolean(decimalMax, "inclusive", true)) {
+                ((AbstractNumericProperty) resolved).setMaximum(Double.valueOf(decimalMax.value().asString()));
+            } else {
+                ((AbstractNumericProperty) resolved).setExclusiveMaximum(true);
+            }
+        }
+    }
+
+    /**
+     * @return the name of the property read by <code>method</code>, or null if it is not a getter
+     */
+    private static String getPropertyName(MethodInfo method) {
+        int flags = method.flags();
+        if (!Modifier.isPublic(flags) || Modifier.isStatic(flags) || method.isSynthetic()
+                || method.parameters().size() > 0 || method.returnType().kind() == Type.Kind.VOID) {
+            return null;
+        }
+        String name = method.name();
+        String returnType = method.returnType().name().toString();
+        String property;
+        if (name.startsWith("get") && name.length() > 3 && !"getClass".equals(name)) {
+            property = name.substring(3);
+        } else if (name.startsWith("is") && name.length() > 2
+                && ("boolean".equals(returnType) || "java.lang.Boolean".equals(returnType))) {
+            property = name.substring(2);
+        } else {
+            return null;
+        }
+        // the leading upper case letters are all lower cased, as Jackson does
+        StringBuilder builder = new StringBuilder(property);
+        for (int i = 0; i < builder.length() && Character.isUpperCase(builder.charAt(i)); i++) {
+            builder.setCharAt(i, Character.toLowerCase(builder.charAt(i)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the types the type variables of <code>classInfo</code> and of its super types stand for, by the
+     * class declaring them
+     */
+    Map<DotName, Map<String, Type>> bindTypeVariables(ClassInfo classInfo, List<Type> arguments) {
+        Map<DotName, Map<String, Type>> bindings = new HashMap<DotName, Map<String, Type>>();
+        LinkedList<ClassInfo> queue = new LinkedList<ClassInfo>();
+        bindings.put(classInfo.name(), bind(classInfo, arguments));
+        queue.add(classInfo);
+        while (!queue.isEmpty()) {
+            ClassInfo type = queue.removeFirst();
+            Map<String, Type> typeArguments = bindings.get(type.name());
+            List<Type> superTypes = new ArrayList<Type>();
+            if (type.superClassType() != null) {
+                superTypes.add(type.superClassType());
+            }
+            superTypes.addAll(type.interfaceTypes());
+            for (Type superType : superTypes) {
+                ClassInfo superInfo = classFiles.get(superType.name());
+                if (superInfo == null || bindings.containsKey(superInfo.name())) {
+                    continue;
+                }
+                List<Type> superArguments = superType.kind() == Type.Kind.PARAMETERIZED_TYPE
+                        ? substitute(superType, typeArguments).asParameterizedType().arguments()
+                        : Collections.<Type>emptyList();
+                bindings.put(superInfo.name(), bind(superInfo, superArguments));
+                queue.add(superInfo);
+            }
+        }
+        return bindings;
+    }
+
+    private static Map<String, Type> bind(ClassInfo classInfo, List<Type> arguments) {
+        Map<String, Type> typeArguments = new HashMap<String, Type>();
+        List<TypeVariable> variables = classInfo.typeParameters();
+        for (int i = 0; i < variables.size() && i < arguments.size(); i++) {
+            typeArguments.put(variables.get(i).identifier(), arguments.get(i));
+        }
+        return typeArguments;
+    }
+
+    /**
+     * @return <code>type</code> with the type variables it holds replaced by their <code>typeArguments</code>
+     */
+    static Type substitute(Type type, Map<String, Type> typeArguments) {
+        switch (type.kind()) {
+            case TYPE_VARIABLE:
+                Type argument = typeArguments.get(type.asTypeVariable().identifier());
+                return argument != null ? argument : type.asTypeVariable().bounds().get(0);
+            case WILDCARD_TYPE:
+                return substitute(type.asWildcardType().extendsBound(), typeArguments);
+            case ARRAY:
+                return ArrayType.create(substitute(type.asArrayType().component(), typeArguments),
+                        type.asArrayType().dimensions());
+            case PARAMETERIZED_TYPE:
+                if (typeArguments.isEmpty()) {
+                    return type;
+                }
+                ParameterizedType parameterizedType = type.asParameterizedType();
+                List<Type> arguments = parameterizedType.arguments();
+                Type[] substituted = new Type[arguments.size()];
+                for (int i = 0; i < substituted.length; i++) {
+                    substituted[i] = substitute(arguments.get(i), typeArguments);
+                }
+                return ParameterizedType.create(parameterizedType.name(), substituted, parameterizedType.owner());
+            default:
+                return type;
+        }
+    }
+
+    /**
+     * @return the raw type of <code>type</code>, as the class a reflective reader would be given
+     */
+    static Type erase(Type type) {
+        switch (type.kind()) {
+            case PARAMETERIZED_TYPE:
+                return Type.create(type.name(), Type.Kind.CLASS);
+            case TYPE_VARIABLE:
+                return erase(type.asTypeVariable().bounds().get(0));
+            case WILDCARD_TYPE:
+                return erase(type.asWildcardType().extendsBound());
+            case ARRAY:
+                return ArrayType.create(erase(type.asArrayType().component()), type.asArrayType().dimensions());
+            default:
+                return type;
+        }
+    }
+
+    private static Property simpleProperty(String type) {
+        if ("string".equals(type)) {
+            return new StringProperty();
+        } else if ("byte".equals(type)) {
+            return new StringProperty("byte");
+        } else if ("boolean".equals(type)) {
+            return new BooleanProperty();
+        } else if ("int32".equals(type)) {
+            return new IntegerProperty();
+        } else if ("int64".equals(type)) {
+            return new LongProperty();
+        } else if ("float".equals(type)) {
+            return new FloatProperty();
+        } else if ("double".equals(type)) {
+            return new DoubleProperty();
+        } else if ("date-time".equals(type)) {
+            return new DateTimeProperty();
+        } else if ("uuid".equals(type)) {
+            return new UUIDProperty();
+        } else if ("uri".equals(type) || "url".equals(type)) {
+            return new StringProperty(type);
+        }
+        return new ObjectProperty();
+    }
+
+    /**
+     * The field and the getters of a property, those of the class first.
+     */
+    private static class Accessors {
+        private FieldInfo field;
+        private final List<MethodInfo> getters = new ArrayList<MethodInfo>();
+
+        boolean isVisible() {
+            return !getters.isEmpty() || Modifier.isPublic(field.flags()) || field.annotation(JSON_PROPERTY) != null;
+        }
+
+        AnnotationInstance find(DotName annotationName) {
+            for (MethodInfo getter : getters) {
+                AnnotationInstance annotation = getter.annotation(annotationName);
+                if (annotation != null && annotation.target().kind() == org.jboss.jandex.AnnotationTarget.Kind.METHOD) {
+                    return annotation;
+                }
+            }
+            return field == null ? null : field.annotation(annotationName);
+        }
+    }
+
+    private static class PropertyEntry {
+        private final String name;
+        private final Property property;
+        private final int position;
+
+        PropertyEntry(String name, Property property, int position) {
+            this.name = name;
+            this.property = property;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.kongchen.swagger.docgen.classfile;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Indexer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The class files of the project, read as resources of a class loader and indexed one by one by Jandex the
+ * first time they are asked for. The classes themselves are never loaded, so a class loader which only
+ * looks up resources, without the plugin as its parent, is enough.
+ *
+ * It can be shared by readers working on different threads.
+ */
+public class ClassFileRepository {
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final ClassLoader classLoader;
+    private final Map<String, ClassInfo> classes = new HashMap<String, ClassInfo>();
+
+    public ClassFileRepository(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * @return the class file of <code>className</code>, or null if there is none or it cannot be read
+     */
+    public synchronized ClassInfo get(String className) {
+        if (classes.containsKey(className)) {
+            return classes.get(className);
+        }
+        ClassInfo classInfo = null;
+        InputStream in = classLoader.getResourceAsStream(className.replace('.', '/') + CLASS_SUFFIX);
+        if (in != null) {
+            try {
+                try {
+                    classInfo = new Indexer().index(in);
+                } finally {
+                    in.close();
+                }
+            } catch (IOException e) {
+                classInfo = null;
+            } catch (RuntimeException e) {
+                // not a class file Jandex can read
+                classInfo = null;
+            }
+        }
+        classes.put(className, classInfo);
+        return classInfo;
+    }
+
+    public ClassInfo get(DotName className) {
+        return className == null ? null : get(className.toString());
+    }
+
+    /**
+     * @return the number of class files read
+     */
+    public synchronized int getRead() {
+        int read = 0;
+        for (ClassInfo classInfo : classes.values()) {
+            if (classInfo != null) {
+                read++;
+            }
+        }
+        return read;
+    }
+
+    /**
+     * @return the class, its superclasses and then the interfaces they implement, leaving out <code>Object</code>
+     * and the super types whose class files cannot be read
+     */
+    public List<ClassInfo> getHierarchy(ClassInfo classInfo) {
+        Set<ClassInfo> types = new LinkedHashSet<ClassInfo>();
+        types.add(classInfo);
+        for (ClassInfo c = get(classInfo.superName()); c != null && !isObject(c.name()); c = get(c.superName())) {
+            types.add(c);
+        }
+        LinkedList<ClassInfo> queue = new LinkedList<ClassInfo>(types);
+        while (!queue.isEmpty()) {
+            for (DotName interfaceName : queue.removeFirst().interfaceNames()) {
+                ClassInfo interfaceInfo = get(interfaceName);
+                if (interfaceInfo != null && types.add(interfaceInfo)) {
+                    queue.add(interfaceInfo);
+                }
+            }
+        }
+        return new ArrayList<ClassInfo>(types);
+    }
+
+    /**
+     * @return whether <code>className</code> is <code>superName</code> or one of its sub types
+     */
+    public boolean isSubtypeOf(String className, String superName) {
+        if (className.equals(superName)) {
+            return true;
+        }
+        ClassInfo classInfo = get(className);
+        if (classInfo == null) {
+            return false;
+        }
+        for (ClassInfo type : getHierarchy(classInfo)) {
+            if (type.name().toString().equals(superName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the annotation <code>annotationName</code> of the class itself, or null
+     */
+    public static AnnotationInstance getClassAnnotation(ClassInfo classInfo, DotName annotationName) {
+        List<AnnotationInstance> annotations = classInfo.annotations().get(annotationName);
+        if (annotations != null) {
+            for (AnnotationInstance annotation : annotations) {
+                if (annotation.target() != null && annotation.target().kind() == AnnotationTarget.Kind.CLASS) {
+                    return annotation;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the annotation <code>annotationName</code> of the first type of <code>hierarchy</code> declaring it,
+     * or null
+     */
+    public static AnnotationInstance findClassAnnotation(List<ClassInfo> hierarchy, DotName annotationName) {
+        for (ClassInfo type : hierarchy) {
+            AnnotationInstance annotation = getClassAnnotation(type, annotationName);
+            if (annotation != null) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    static boolean isObject(DotName name) {
+        return "java.lang.Object".equals(name.toString());
+    }
+}
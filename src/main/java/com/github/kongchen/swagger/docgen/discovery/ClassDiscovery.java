@@ -0,0 +1,624 @@
+package com.github.kongchen.swagger.docgen.discovery;
+
+import com.github.kongchen.swagger.docgen.GenerateException;
+import com.github.kongchen.swagger.docgen.LogAdapter;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Finds annotated classes on the classpath by reading the annotations straight from the class files.
+ * Only the classes which are actually returned get loaded, and they are never initialised.
+ *
+ * This is a drop-in replacement for <code>new Reflections(prefix).getTypesAnnotatedWith(annotation)</code>:
+ * the same classpath roots are searched, with the same package prefix filter. Several locations
+ * are searched in a single pass over the union of their roots.
+ *
+ * Jars containing a {@link CompiledIndex}, or a Jandex index if enabled, are not scanned: the index is
+ * read instead. In directories, only the class files missing from the index or newer than it are read.
+ */
+public class ClassDiscovery {
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final LogAdapter LOG;
+    private final List<ClassLoader> classLoaders = new ArrayList<ClassLoader>();
+    private DiscoveryCache cache;
+    private int parallelism = 1;
+    private boolean useCompiledIndex = true;
+    private boolean useJandexIndex;
+    private Set<File> defaultScope;
+    private Map<File, List<ClassFileInfo>> prepared;
+    private final JarPrefilter prefilter = new JarPrefilter();
+    private final Map<ClassLoader, List<File>> classpaths = new HashMap<ClassLoader, List<File>>();
+    private PrefixFilter preparedFilter;
+
+    public ClassDiscovery() {
+        this(new LogAdapter(Logger.getLogger(ClassDiscovery.class)));
+    }
+
+    public ClassDiscovery(LogAdapter log) {
+        this.LOG = log;
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (contextClassLoader != null) {
+            classLoaders.add(contextClassLoader);
+        }
+        ClassLoader staticClassLoader = ClassDiscovery.class.getClassLoader();
+        if (staticClassLoader != null && staticClassLoader != contextClassLoader) {
+            classLoaders.add(staticClassLoader);
+        }
+    }
+
+    /**
+     * Searches the classpath of <code>classLoader</code> only, such as one holding the project classes
+     * outside the plugin realm.
+     */
+    public ClassDiscovery(LogAdapter log, ClassLoader classLoader) {
+        this.LOG = log;
+        classLoaders.add(classLoader);
+    }
+
+    public DiscoveryCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Reuse what previous builds found in unchanged jars and class files.
+     */
+    public void setCache(DiscoveryCache cache) {
+        this.cache = cache;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Number of classpath roots scanned at the same time, 1 or less to scan them one by one.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isUseCompiledIndex() {
+        return useCompiledIndex;
+    }
+
+    /**
+     * Read the class index written by {@link ClassIndexProcessor} instead of scanning the roots containing one.
+     */
+    public void setUseCompiledIndex(boolean useCompiledIndex) {
+        this.useCompiledIndex = useCompiledIndex;
+    }
+
+    public boolean isUseJandexIndex() {
+        return useJandexIndex;
+    }
+
+    /**
+     * Read the <code>META-INF/jandex.idx</code> of the roots containing one instead of scanning them.
+     */
+    public void setUseJandexIndex(boolean useJandexIndex) {
+        this.useJandexIndex = useJandexIndex;
+    }
+
+    public Set<File> getDefaultScope() {
+        return defaultScope;
+    }
+
+    /**
+     * The jars and directories searched when no location is given, null to search
+     * every directory of the classpath.
+     */
+    public void setDefaultScope(Set<File> defaultScope) {
+        this.defaultScope = defaultScope;
+    }
+
+    private List<IndexFormat> getIndexFormats() {
+        List<IndexFormat> formats = new ArrayList<IndexFormat>();
+        if (useCompiledIndex) {
+            formats.add(new CompiledIndex());
+        }
+        if (useJandexIndex) {
+            formats.add(new JandexIndex());
+        }
+        return formats;
+    }
+
+    /**
+     * @param location a package or class name prefix, "" for everything reachable from the classpath directories
+     * @param annotation the annotation to look for
+     */
+    public Set<Class<?>> getTypesAnnotatedWith(String location, Class<? extends Annotation> annotation)
+            throws GenerateException {
+        return getTypesAnnotatedWith(Collections.singletonList(location), annotation);
+    }
+
+    /**
+     * Searches all classes of the default scope.
+     */
+    public Set<Class<?>> getTypesAnnotatedWith(Class<? extends Annotation> annotation) throws GenerateException {
+        return loadClasses(getTypeNamesAnnotatedWith(annotation.getName()));
+    }
+
+    /**
+     * Same as {@link #getTypesAnnotatedWith(Class)}, but gives the names of the classes without loading them.
+     */
+    public Set<String> getTypeNamesAnnotatedWith(String annotationName) throws GenerateException {
+        if (defaultScope == null) {
+            return getTypeNamesAnnotatedWith(Collections.singletonList(""), annotationName);
+        }
+        ClassIndex index = scan(defaultScope, new PrefixFilter(Collections.singletonList("")));
+        return index.getTypesAnnotatedWith(annotationName);
+    }
+
+    /**
+     * Same as calling {@link #getTypesAnnotatedWith(String, Class)} for each location,
+     * but the classpath is only walked once.
+     */
+    public Set<Class<?>> getTypesAnnotatedWith(List<String> locations, Class<? extends Annotation> annotation)
+            throws GenerateException {
+        return loadClasses(getTypeNamesAnnotatedWith(locations, annotation.getName()));
+    }
+
+    /**
+     * Same as {@link #getTypesAnnotatedWith(List, Class)}, but gives the names of the classes without loading them.
+     */
+    public Set<String> getTypeNamesAnnotatedWith(List<String> locations, String annotationName)
+            throws GenerateException {
+        Set<File> roots = findRoots(locations);
+        PrefixFilter filter = new PrefixFilter(locations);
+        Map<File, List<ClassFileInfo>> scanned = isPrepared(roots, locations) ? prepared : scanRoots(roots, filter);
+
+        ClassIndex index = new ClassIndex();
+        for (File root : roots) {
+            for (ClassFileInfo info : scanned.get(root)) {
+                if (filter.matches(info.getClassName())) {
+                    index.add(info);
+                }
+            }
+        }
+
+        Set<String> classNames = new HashSet<String>();
+        for (String location : locations) {
+            classNames.addAll(index.getTypesAnnotatedWith(annotationName, location));
+        }
+        return classNames;
+    }
+
+    /**
+     * Scans the classpath once for all the given locations, so that the following queries for any of them,
+     * or for packages inside them, are answered without scanning again.
+     */
+    public void prepare(Collection<String> locations) throws GenerateException {
+        Set<File> roots = findRoots(locations);
+        PrefixFilter filter = new PrefixFilter(locations);
+        prepared = scanRoots(roots, filter);
+        preparedFilter = filter;
+    }
+
+    private boolean isPrepared(Set<File> roots, List<String> locations) {
+        if (prepared == null || !prepared.keySet().containsAll(roots)) {
+            return false;
+        }
+        for (String location : locations) {
+            if (!preparedFilter.matches(location)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<File> findRoots(Collection<String> locations) throws GenerateException {
+        Set<File> roots = new LinkedHashSet<File>();
+        for (String location : locations) {
+            roots.addAll(findRoots(location));
+        }
+        return roots;
+    }
+
+    /**
+     * Resolves the classpath roots (directories or jar files) containing <code>location</code>,
+     * the same way <code>ClasspathHelper.forPackage</code> does.
+     *
+     * The jars of class loaders which list their classpath are selected by their central directory,
+     * so those without classes in <code>location</code> are never opened; the other class loaders are
+     * asked for the resource of <code>location</code>.
+     */
+    Set<File> findRoots(String location) throws GenerateException {
+        Set<File> roots = new LinkedHashSet<File>();
+        String packageResource = location.replace('.', '/');
+        for (ClassLoader classLoader : classLoaders) {
+            List<File> classpath = location.length() == 0 ? null : getClasspath(classLoader);
+            if (classpath == null) {
+                roots.addAll(findResourceRoots(classLoader, location));
+                continue;
+            }
+            for (File entry : classpath) {
+                if (entry.isDirectory() ? new File(entry, packageResource).exists()
+                        || new File(entry, packageResource + CLASS_SUFFIX).isFile()
+                        : entry.isFile() && prefilter.isRoot(entry, location)) {
+                    roots.add(entry);
+                }
+            }
+        }
+        return roots;
+    }
+
+    private Set<File> findResourceRoots(ClassLoader classLoader, String location) throws GenerateException {
+        Set<File> roots = new LinkedHashSet<File>();
+        String packageResource = location.replace('.', '/');
+        try {
+            String resourceName = packageResource;
+            Enumeration<URL> urls = classLoader.getResources(resourceName);
+            if (!urls.hasMoreElements() && resourceName.length() > 0) {
+                // the location may name a class rather than a package
+                resourceName = packageResource + CLASS_SUFFIX;
+                urls = classLoader.getResources(resourceName);
+            }
+            while (urls.hasMoreElements()) {
+                File root = toRoot(urls.nextElement(), resourceName);
+                if (root != null) {
+                    roots.add(root);
+                }
+            }
+        } catch (IOException e) {
+            throw new GenerateException("Cannot resolve classpath roots of " + location, e);
+        }
+        return roots;
+    }
+
+    /**
+     * @return the jars and directories searched by <code>classLoader</code>, parents first, including those
+     * named by the <code>Class-Path</code> of the jars, or null if one of the class loaders does not list them
+     */
+    private List<File> getClasspath(ClassLoader classLoader) {
+        if (classpaths.containsKey(classLoader)) {
+            return classpaths.get(classLoader);
+        }
+        LinkedList<URLClassLoader> chain = new LinkedList<URLClassLoader>();
+        for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent()) {
+            if (!(loader instanceof URLClassLoader)) {
+                classpaths.put(classLoader, null);
+                return null;
+            }
+            chain.addFirst((URLClassLoader) loader);
+        }
+        Set<File> entries = new LinkedHashSet<File>();
+        for (URLClassLoader loader : chain) {
+            for (URL url : loader.getURLs()) {
+                addClasspathEntry(url, entries);
+            }
+        }
+        List<File> classpath = new ArrayList<File>(entries);
+        classpaths.put(classLoader, classpath);
+        return classpath;
+    }
+
+    private void addClasspathEntry(URL url, Set<File> entries) {
+        File entry = toRoot(url, "");
+        if (entry == null || !entries.add(entry) || !entry.isFile()) {
+            return;
+        }
+        try {
+            JarFile jar = new JarFile(entry);
+            try {
+                Manifest manifest = jar.getManifest();
+                String classPath = manifest == null ? null : manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+                if (classPath != null) {
+                    for (String path : classPath.trim().split("\\s+")) {
+                        if (path.length() > 0) {
+                            addClasspathEntry(new URL(url, path), entries);
+                        }
+                    }
+                }
+            } finally {
+                jar.close();
+            }
+        } catch (IOException e) {
+            LOG.warn("Cannot read the manifest of " + entry + ": " + e.getMessage());
+        }
+    }
+
+    private File toRoot(URL url, String resourceName) {
+        String external = url.toExternalForm();
+        int index = resourceName.length() == 0 ? -1 : external.lastIndexOf(resourceName);
+        if (index != -1) {
+            external = external.substring(0, index);
+        }
+        if (external.startsWith("jar:")) {
+            external = external.substring("jar:".length());
+            int separator = external.indexOf("!/");
+            if (separator != -1) {
+                external = external.substring(0, separator);
+            }
+        }
+        if (!external.startsWith("file:")) {
+            LOG.warn("Skipping unsupported classpath entry " + url);
+            return null;
+        }
+        try {
+            return new File(new URL(external).toURI());
+        } catch (URISyntaxException e) {
+            return new File(external.substring("file:".length()));
+        } catch (IOException e) {
+            LOG.warn("Skipping unsupported classpath entry " + url);
+            return null;
+        }
+    }
+
+    ClassIndex scan(Set<File> roots, PrefixFilter filter) throws GenerateException {
+        ClassIndex index = new ClassIndex();
+        for (List<ClassFileInfo> classes : scanRoots(roots, filter).values()) {
+            index.addAll(classes);
+        }
+        return index;
+    }
+
+    /**
+     * @return the classes matching <code>filter</code> in each root, in classpath order
+     */
+    private Map<File, List<ClassFileInfo>> scanRoots(Set<File> roots, PrefixFilter filter) throws GenerateException {
+        if (parallelism > 1 && roots.size() > 1) {
+            return scanParallel(roots, filter);
+        }
+        Map<File, List<ClassFileInfo>> classes = new LinkedHashMap<File, List<ClassFileInfo>>();
+        for (File root : roots) {
+            try {
+                classes.put(root, scanRoot(root, filter));
+            } catch (IOException e) {
+                throw new GenerateException("Cannot scan " + root, e);
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Scans each root in its own task. The results are collected in classpath order,
+     * so they are the same as the ones of a sequential scan.
+     */
+    private Map<File, List<ClassFileInfo>> scanParallel(Set<File> roots, final PrefixFilter filter)
+            throws GenerateException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, roots.size()));
+        try {
+            Map<File, Future<List<ClassFileInfo>>> results = new LinkedHashMap<File, Future<List<ClassFileInfo>>>();
+            for (final File root : roots) {
+                results.put(root, executor.submit(new Callable<List<ClassFileInfo>>() {
+                    @Override
+                    public List<ClassFileInfo> call() throws IOException {
+                        return scanRoot(root, filter);
+                    }
+                }));
+            }
+
+            Map<File, List<ClassFileInfo>> classes = new LinkedHashMap<File, List<ClassFileInfo>>();
+            for (Map.Entry<File, Future<List<ClassFileInfo>>> result : results.entrySet()) {
+                try {
+                    classes.put(result.getKey(), result.getValue().get());
+                } catch (ExecutionException e) {
+                    throw new GenerateException("Cannot scan " + result.getKey(), e.getCause());
+                }
+            }
+            return classes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerateException("Interrupted while scanning the classpath", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<ClassFileInfo> scanRoot(File root, PrefixFilter filter) throws IOException {
+        List<ClassFileInfo> classes = new ArrayList<ClassFileInfo>();
+        if (root.isDirectory()) {
+            Map<String, ClassFileInfo> indexed = Collections.emptyMap();
+            long indexTime = 0;
+            for (IndexFormat format : getIndexFormats()) {
+                File index = new File(root, format.getResource());
+                Map<String, ClassFileInfo> read = index.isFile() ? readIndex(index, format, filter) : null;
+                if (read != null) {
+                    indexed = read;
+                    indexTime = index.lastModified();
+                    break;
+                }
+            }
+            scanDirectory(root, "", filter, indexed, indexTime, classes);
+        } else if (root.isFile()) {
+            scanJar(root, filter, classes);
+        }
+        return classes;
+    }
+
+    /**
+     * Takes the classes from <code>indexed</code> as long as their class files are not newer than the index,
+     * and reads the others, such as those compiled without the processor writing it.
+     */
+    private void scanDirectory(File directory, String packageName, PrefixFilter filter,
+                               Map<String, ClassFileInfo> indexed, long indexTime, List<ClassFileInfo> classes)
+            throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                String subPackage = packageName.length() == 0 ? name : packageName + "." + name;
+                if (filter.mayContain(subPackage)) {
+                    scanDirectory(file, subPackage, filter, indexed, indexTime, classes);
+                }
+            } else if (name.endsWith(CLASS_SUFFIX)) {
+                String className = (packageName.length() == 0 ? "" : packageName + ".")
+                        + name.substring(0, name.length() - CLASS_SUFFIX.length());
+                if (filter.matches(className)) {
+                    ClassFileInfo info = indexed.get(className);
+                    if (info == null || file.lastModified() > indexTime) {
+                        info = readClassFile(file);
+                    }
+                    if (info != null) {
+                        classes.add(info);
+                    }
+                }
+            }
+        }
+    }
+
+    private ClassFileInfo readClassFile(File file) throws IOException {
+        try {
+            if (cache != null) {
+                return cache.readClassFile(file);
+            }
+            InputStream in = new FileInputStream(file);
+            try {
+                return ClassFileParser.parse(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            LOG.warn("Skipping unreadable class file " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void scanJar(File jar, PrefixFilter filter, List<ClassFileInfo> classes) throws IOException {
+        List<ClassFileInfo> jarClasses = cache == null ? null : cache.getJarClasses(jar, filter.toString());
+        if (jarClasses == null) {
+            jarClasses = prefilter.mayContain(jar, filter)
+                    ? readJar(jar, filter)
+                    : Collections.<ClassFileInfo>emptyList();
+            if (cache != null) {
+                cache.putJarClasses(jar, filter.toString(), jarClasses);
+            }
+        }
+        classes.addAll(jarClasses);
+    }
+
+    /**
+     * @return the classes of the index matching <code>filter</code>, by name, or null if it cannot be read
+     */
+    private Map<String, ClassFileInfo> readIndex(File index, IndexFormat format, PrefixFilter filter) {
+        try {
+            InputStream in = new FileInputStream(index);
+            try {
+                Map<String, ClassFileInfo> classes = new HashMap<String, ClassFileInfo>();
+                for (ClassFileInfo info : format.readClasses(in)) {
+                    if (filter.matches(info.getClassName())) {
+                        classes.put(info.getClassName(), info);
+                    }
+                }
+                return classes;
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            LOG.warn("Ignoring unreadable class index " + index + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private List<ClassFileInfo> readJar(File jar, PrefixFilter filter) throws IOException {
+        List<ClassFileInfo> classes = new ArrayList<ClassFileInfo>();
+        ZipFile zip = new ZipFile(jar);
+        try {
+            for (IndexFormat format : getIndexFormats()) {
+                ZipEntry index = zip.getEntry(format.getResource());
+                List<ClassFileInfo> indexed = index != null ? readIndex(zip, index, format, filter) : null;
+                if (indexed != null) {
+                    return indexed;
+                }
+            }
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (!entry.isDirectory() && name.endsWith(CLASS_SUFFIX)
+                        && filter.matches(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'))) {
+                    InputStream in = zip.getInputStream(entry);
+                    try {
+                        classes.add(ClassFileParser.parse(in));
+                    } catch (IOException e) {
+                        LOG.warn("Skipping unreadable class file " + jar + "!/" + name + ": " + e.getMessage());
+                    } finally {
+                        in.close();
+                    }
+                }
+            }
+        } finally {
+            zip.close();
+        }
+        return classes;
+    }
+
+    private List<ClassFileInfo> readIndex(ZipFile jar, ZipEntry index, IndexFormat format, PrefixFilter filter) {
+        try {
+            InputStream in = jar.getInputStream(index);
+            try {
+                List<ClassFileInfo> classes = new ArrayList<ClassFileInfo>();
+                for (ClassFileInfo info : format.readClasses(in)) {
+                    if (filter.matches(info.getClassName())) {
+                        classes.add(info);
+                    }
+                }
+                return classes;
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            LOG.warn("Ignoring unreadable class index " + jar.getName() + "!/" + index.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    Set<Class<?>> loadClasses(Set<String> classNames) {
+        Set<Class<?>> classes = new HashSet<Class<?>>();
+        for (String className : classNames) {
+            Class<?> cls = loadClass(className);
+            if (cls != null) {
+                classes.add(cls);
+            }
+        }
+        return classes;
+    }
+
+    private Class<?> loadClass(String className) {
+        for (ClassLoader classLoader : classLoaders) {
+            try {
+                return Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException e) {
+                // try the next one
+            } catch (LinkageError e) {
+                // try the next one
+            }
+        }
+        LOG.warn("Could not load class " + className);
+        return null;
+    }
+}
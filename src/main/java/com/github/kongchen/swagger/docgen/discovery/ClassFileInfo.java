@@ -0,0 +1,65 @@
+package com.github.kongchen.swagger.docgen.discovery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What class discovery needs to know about a type, read straight from its class file
+ * without loading it: its name, its direct super types and its runtime-visible annotations.
+ *
+ * All names are binary names in their dotted form, e.g. <code>com.foo.Bar$Inner</code>.
+ */
+public class ClassFileInfo {
+    private String className;
+    private String superClassName;
+    private List<String> interfaceNames = new ArrayList<String>();
+    private List<String> annotationNames = new ArrayList<String>();
+
+    public ClassFileInfo() {
+    }
+
+    public ClassFileInfo(String className) {
+        this.className = className;
+    }
+
+    public boolean isAnnotatedWith(String annotationName) {
+        return annotationNames.contains(annotationName);
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
+    public String getSuperClassName() {
+        return superClassName;
+    }
+
+    public void setSuperClassName(String superClassName) {
+        this.superClassName = superClassName;
+    }
+
+    public List<String> getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    public void setInterfaceNames(List<String> interfaceNames) {
+        this.interfaceNames = interfaceNames;
+    }
+
+    public List<String> getAnnotationNames() {
+        return annotationNames;
+    }
+
+    public void setAnnotationNames(List<String> annotationNames) {
+        this.annotationNames = annotationNames;
+    }
+
+    @Override
+    public String toString() {
+        return className;
+    }
+}
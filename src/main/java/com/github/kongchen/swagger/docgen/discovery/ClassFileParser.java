@@ -0,0 +1,242 @@
+package com.github.kongchen.swagger.docgen.discovery;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the constant pool, the super types and the class-level <code>RuntimeVisibleAnnotations</code>
+ * attribute of a class file. Fields and methods are skipped over, nothing is ever loaded
+ * or initialised.
+ *
+ * See the JVM specification, chapter 4 "The class File Format".
+ */
+public class ClassFileParser {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final byte[] bytes;
+    private int pos;
+
+    private Object[] constants;
+    private int[] classNameIndexes;
+
+    private ClassFileParser(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public static ClassFileInfo parse(InputStream in) throws IOException {
+        return parse(readFully(in));
+    }
+
+    public static ClassFileInfo parse(byte[] bytes) throws IOException {
+        try {
+            return new ClassFileParser(bytes).parse();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Truncated class file");
+        }
+    }
+
+    private ClassFileInfo parse() throws IOException {
+        if (u4() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        pos += 4; // minor_version, major_version
+        readConstantPool();
+        pos += 2; // access_flags
+
+        ClassFileInfo info = new ClassFileInfo(className(u2()));
+        int superIndex = u2();
+        if (superIndex != 0) {
+            info.setSuperClassName(className(superIndex));
+        }
+        int interfaces = u2();
+        for (int i = 0; i < interfaces; i++) {
+            info.getInterfaceNames().add(className(u2()));
+        }
+
+        skipMembers(); // fields
+        skipMembers(); // methods
+
+        int attributes = u2();
+        for (int i = 0; i < attributes; i++) {
+            String name = utf8(u2());
+            int length = u4();
+            int end = pos + length;
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                int annotations = u2();
+                for (int a = 0; a < annotations; a++) {
+                    info.getAnnotationNames().add(descriptorToClassName(utf8(u2())));
+                    skipElementValuePairs();
+                }
+            }
+            pos = end;
+        }
+        return info;
+    }
+
+    private void readConstantPool() throws IOException {
+        int count = u2();
+        constants = new Object[count];
+        classNameIndexes = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = u1();
+            switch (tag) {
+                case 1: // Utf8
+                    int length = u2();
+                    constants[i] = decodeUtf8(pos, length);
+                    pos += length;
+                    break;
+                case 7: // Class
+                    classNameIndexes[i] = u2();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    pos += 2;
+                    break;
+                case 15: // MethodHandle
+                    pos += 3;
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    pos += 4;
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    pos += 8;
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+    }
+
+    private void skipMembers() {
+        int count = u2();
+        for (int i = 0; i < count; i++) {
+            pos += 6; // access_flags, name_index, descriptor_index
+            skipAttributes();
+        }
+    }
+
+    private void skipAttributes() {
+        int count = u2();
+        for (int i = 0; i < count; i++) {
+            pos += 2; // attribute_name_index
+            int length = u4();
+            pos += length;
+        }
+    }
+
+    private void skipElementValuePairs() throws IOException {
+        int pairs = u2();
+        for (int i = 0; i < pairs; i++) {
+            pos += 2; // element_name_index
+            skipElementValue();
+        }
+    }
+
+    private void skipElementValue() throws IOException {
+        int tag = u1();
+        switch (tag) {
+            case 'B':
+            case 'C':
+            case 'D':
+            case 'F':
+            case 'I':
+            case 'J':
+            case 'S':
+            case 'Z':
+            case 's':
+            case 'c':
+                pos += 2;
+                break;
+            case 'e':
+                pos += 4;
+                break;
+            case '@':
+                pos += 2; // type_index
+                skipElementValuePairs();
+                break;
+            case '[':
+                int values = u2();
+                for (int i = 0; i < values; i++) {
+                    skipElementValue();
+                }
+                break;
+            default:
+                throw new IOException("Unknown annotation element tag " + (char) tag);
+        }
+    }
+
+    private String className(int classIndex) {
+        return utf8(classNameIndexes[classIndex]).replace('/', '.');
+    }
+
+    private String utf8(int index) {
+        return (String) constants[index];
+    }
+
+    /**
+     * Turns a field descriptor such as <code>Lio/swagger/annotations/Api;</code> into
+     * <code>io.swagger.annotations.Api</code>.
+     */
+    static String descriptorToClassName(String descriptor) {
+        if (descriptor.startsWith("L") && descriptor.endsWith(";")) {
+            descriptor = descriptor.substring(1, descriptor.length() - 1);
+        }
+        return descriptor.replace('/', '.');
+    }
+
+    /**
+     * Decodes the "modified UTF-8" used by class files.
+     */
+    private String decodeUtf8(int offset, int length) {
+        char[] chars = new char[length];
+        int count = 0;
+        int end = offset + length;
+        while (offset < end) {
+            int c = bytes[offset++] & 0xff;
+            if (c < 0x80) {
+                chars[count++] = (char) c;
+            } else if ((c & 0xe0) == 0xc0) {
+                chars[count++] = (char) (((c & 0x1f) << 6) | (bytes[offset++] & 0x3f));
+            } else {
+                chars[count++] = (char) (((c & 0x0f) << 12) | ((bytes[offset++] & 0x3f) << 6) | (bytes[offset++] & 0x3f));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private int u1() {
+        return bytes[pos++] & 0xff;
+    }
+
+    private int u2() {
+        return ((bytes[pos++] & 0xff) << 8) | (bytes[pos++] & 0xff);
+    }
+
+    private int u4() {
+        return (u2() << 16) | u2();
+    }
+
+    static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.kongchen.swagger.docgen.discovery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The scanned classes of a discovery pass, keyed by class name.
+ */
+public class ClassIndex {
+    private final Map<String, ClassFileInfo> classes = new HashMap<String, ClassFileInfo>();
+
+    public void add(ClassFileInfo info) {
+        classes.put(info.getClassName(), info);
+    }
+
+    public void addAll(Collection<ClassFileInfo> infos) {
+        for (ClassFileInfo info : infos) {
+            add(info);
+        }
+    }
+
+    public ClassFileInfo get(String className) {
+        return classes.get(className);
+    }
+
+    public int size() {
+        return classes.size();
+    }
+
+    /**
+     * Finds the names of the indexed classes annotated with <code>annotationName</code>, together with
+     * all indexed classes extending or implementing one of them, the same way
+     * <code>Reflections.getTypesAnnotatedWith(annotation)</code> does.
+     */
+    public Set<String> getTypesAnnotatedWith(String annotationName) {
+        return getTypesAnnotatedWith(annotationName, "");
+    }
+
+    /**
+     * Same as {@link #getTypesAnnotatedWith(String)}, as if only the classes starting with
+     * <code>prefix</code> had been indexed.
+     */
+    public Set<String> getTypesAnnotatedWith(String annotationName, String prefix) {
+        Map<String, List<String>> subTypes = new HashMap<String, List<String>>();
+        Set<String> result = new TreeSet<String>();
+        LinkedList<String> queue = new LinkedList<String>();
+
+        for (ClassFileInfo info : classes.values()) {
+            if (!info.getClassName().startsWith(prefix)) {
+                continue;
+            }
+            if (info.isAnnotatedWith(annotationName)) {
+                result.add(info.getClassName());
+                queue.add(info.getClassName());
+            }
+            if (info.getSuperClassName() != null) {
+                addSubType(subTypes, info.getSuperClassName(), info.getClassName());
+            }
+            for (String interfaceName : info.getInterfaceNames()) {
+                addSubType(subTypes, interfaceName, info.getClassName());
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            List<String> children = subTypes.get(queue.removeFirst());
+            if (children != null) {
+                for (String child : children) {
+                    if (result.add(child)) {
+                        queue.add(child);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void addSubType(Map<String, List<String>> subTypes, String superType, String subType) {
+        List<String> children = subTypes.get(superType);
+        if (children == null) {
+            children = new ArrayList<String>();
+            subTypes.put(superType, children);
+        }
+        children.add(subType);
+    }
+}
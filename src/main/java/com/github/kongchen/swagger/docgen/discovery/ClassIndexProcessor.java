@@ -0,0 +1,135 @@
+package com.github.kongchen.swagger.docgen.discovery;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes the {@link CompiledIndex} of the compiled classes, so that class discovery can read it
+ * instead of scanning the output directory.
+ *
+ * Only the names javac knows are recorded: anonymous and local classes are left out.
+ * When only part of the sources are recompiled, the entries of the previous index are kept and
+ * the ones of deleted classes are skipped when the index is read.
+ */
+@SupportedAnnotationTypes("*")
+public class ClassIndexProcessor extends AbstractProcessor {
+    private final Map<String, ClassFileInfo> classes = new TreeMap<String, ClassFileInfo>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            addType(element);
+        }
+        if (roundEnv.processingOver()) {
+            try {
+                writeIndex();
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "Cannot write " + CompiledIndex.RESOURCE + ": " + e.getMessage());
+            }
+        }
+        // never claim the annotations, other processors may want them too
+        return false;
+    }
+
+    private void addType(Element element) {
+        if (!(element instanceof TypeElement)) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        ClassFileInfo info = new ClassFileInfo(binaryName(type));
+        if (type.getSuperclass().getKind() == TypeKind.DECLARED) {
+            info.setSuperClassName(binaryName(type.getSuperclass()));
+        } else if (!info.getClassName().equals(Object.class.getName())) {
+            // interfaces extend Object in their class file
+            info.setSuperClassName(Object.class.getName());
+        }
+        for (TypeMirror interfaceType : type.getInterfaces()) {
+            if (interfaceType.getKind() == TypeKind.DECLARED) {
+                info.getInterfaceNames().add(binaryName(interfaceType));
+            }
+        }
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            Retention retention = annotationType.getAnnotation(Retention.class);
+            if (retention != null && retention.value() == RetentionPolicy.RUNTIME) {
+                info.getAnnotationNames().add(binaryName(annotationType));
+            }
+        }
+        classes.put(info.getClassName(), info);
+
+        for (Element enclosed : type.getEnclosedElements()) {
+            addType(enclosed);
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        Map<String, ClassFileInfo> merged = new TreeMap<String, ClassFileInfo>();
+        for (ClassFileInfo info : readPreviousIndex()) {
+            merged.put(info.getClassName(), info);
+        }
+        merged.putAll(classes);
+
+        FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                CompiledIndex.RESOURCE);
+        Writer writer = new OutputStreamWriter(resource.openOutputStream(), "UTF-8");
+        try {
+            CompiledIndex.write(writer, merged.values());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private List<ClassFileInfo> readPreviousIndex() {
+        try {
+            FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    CompiledIndex.RESOURCE);
+            InputStream in = resource.openInputStream();
+            try {
+                return CompiledIndex.read(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // first compilation, or an index we cannot use anyway
+            return Collections.emptyList();
+        } catch (IllegalArgumentException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private String binaryName(TypeMirror type) {
+        return binaryName((TypeElement) ((DeclaredType) type).asElement());
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.kongchen.swagger.docgen.discovery;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The class index written by {@link ClassIndexProcessor} at compile time, next to the classes it describes.
+ *
+ * One line per class: name, super class, interfaces and runtime annotations, separated by tabs,
+ * lists separated by commas.
+ */
+public class CompiledIndex implements IndexFormat {
+    public static final String RESOURCE = "META-INF/swagger-maven-plugin/classes.idx";
+
+    private static final String HEADER = "# swagger-maven-plugin class index v1";
+    private static final String ENCODING = "UTF-8";
+
+    CompiledIndex() {
+    }
+
+    public String getResource() {
+        return RESOURCE;
+    }
+
+    public List<ClassFileInfo> readClasses(InputStream in) throws IOException {
+        return read(in);
+    }
+
+    public static List<ClassFileInfo> read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, ENCODING));
+        String line = reader.readLine();
+        if (!HEADER.equals(line)) {
+            throw new IOException("Unsupported class index format: " + line);
+        }
+        List<ClassFileInfo> classes = new ArrayList<ClassFileInfo>();
+        while ((line = reader.readLine()) != null) {
+            if (line.length() == 0) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 4) {
+                throw new IOException("Malformed class index line: " + line);
+            }
+            ClassFileInfo info = new ClassFileInfo(fields[0]);
+            info.setSuperClassName(fields[1].length() == 0 ? null : fields[1]);
+            info.setInterfaceNames(split(fields[2]));
+            info.setAnnotationNames(split(fields[3]));
+            classes.add(info);
+        }
+        return classes;
+    }
+
+    /**
+     * @param writer a UTF-8 writer
+     */
+    public static void write(Writer writer, Collection<ClassFileInfo> classes) throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (ClassFileInfo info : classes) {
+            writer.write(info.getClassName());
+            writer.write('\t');
+            writer.write(info.getSuperClassName() == null ? "" : info.getSuperClassName());
+            writer.write('\t');
+            writer.write(join(info.getInterfaceNames()));
+            writer.write('\t');
+            writer.write(join(info.getAnnotationNames()));
+            writer.write('\n');
+        }
+    }
+
+    private static List<String> split(String field) {
+        if (field.length() == 0) {
+            return new ArrayList<String>();
+        }
+        return new ArrayList<String>(Arrays.asList(field.split(",")));
+    }
+
+    private static String join(List<String> names) {
+        StringBuilder b = new StringBuilder();
+        for (String name : names) {
+            if (b.length() > 0) {
+                b.append(',');
+            }
+            b.append(name);
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,227 @@
+package com.github.kongchen.swagger.docgen.discovery;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.kongchen.swagger.docgen.LogAdapter;
+import com.github.kongchen.swagger.docgen.util.HashUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk index of what class discovery found in each jar and class file, so that unchanged
+ * classpath entries are not read again by the next build.
+ *
+ * An entry is reused as is when the size and timestamp of its file did not change, otherwise
+ * the content hash decides. Entries that were not used by a build are dropped when it is saved.
+ * Lookups are safe to make from several scanning threads.
+ */
+public class DiscoveryCache {
+    public static final String FILE_NAME = "scan.idx";
+
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Index previous = new Index();
+    private final Index next = new Index();
+    private final Map<String, String> jarHashes = new ConcurrentHashMap<String, String>();
+
+    private DiscoveryCache(File file) {
+        this.file = file;
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Loads the index stored in <code>directory</code>, or starts an empty one if there is none
+     * or it cannot be read.
+     */
+    public static DiscoveryCache load(File directory, LogAdapter log) {
+        DiscoveryCache cache = new DiscoveryCache(new File(directory, FILE_NAME));
+        if (cache.file.isFile()) {
+            try {
+                Index index = cache.mapper.readValue(cache.file, Index.class);
+                if (index.getVersion() == VERSION) {
+                    cache.previous = index;
+                }
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable discovery index " + cache.file + ": " + e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    public void save() throws IOException {
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        mapper.writeValue(file, next);
+    }
+
+    /**
+     * @return the classes matching <code>filter</code> in <code>jar</code> as recorded by a previous scan,
+     * or null if the jar is unknown or changed since
+     */
+    List<ClassFileInfo> getJarClasses(File jar, String filter) throws IOException {
+        String key = filter + "|" + jar.getAbsolutePath();
+        CachedJar cached = previous.getJars().get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (!cached.isUnchanged(jar)) {
+            if (!cached.getHash().equals(jarHash(jar))) {
+                return null;
+            }
+            cached.updateStat(jar);
+        }
+        next.getJars().put(key, cached);
+        return cached.getClasses();
+    }
+
+    void putJarClasses(File jar, String filter, List<ClassFileInfo> classes) throws IOException {
+        CachedJar cached = new CachedJar();
+        cached.updateStat(jar);
+        cached.setHash(jarHash(jar));
+        cached.setClasses(classes);
+        next.getJars().put(filter + "|" + jar.getAbsolutePath(), cached);
+    }
+
+    /**
+     * Reads a class file from a classpath directory, unless it did not change since the previous scan.
+     */
+    ClassFileInfo readClassFile(File classFile) throws IOException {
+        String key = classFile.getAbsolutePath();
+        CachedClassFile cached = previous.getClassFiles().get(key);
+        if (cached != null && cached.isUnchanged(classFile)) {
+            next.getClassFiles().put(key, cached);
+            return cached.getInfo();
+        }
+
+        byte[] bytes;
+        InputStream in = new FileInputStream(classFile);
+        try {
+            bytes = ClassFileParser.readFully(in);
+        } finally {
+            in.close();
+        }
+        String hash = HashUtils.md5Hex(bytes);
+        if (cached == null || !cached.getHash().equals(hash)) {
+            cached = new CachedClassFile();
+            cached.setHash(hash);
+            cached.setInfo(ClassFileParser.parse(bytes));
+        }
+        cached.updateStat(classFile);
+        next.getClassFiles().put(key, cached);
+        return cached.getInfo();
+    }
+
+    private String jarHash(File jar) throws IOException {
+        String key = jar.getAbsolutePath();
+        String hash = jarHashes.get(key);
+        if (hash == null) {
+            hash = HashUtils.md5Hex(jar);
+            jarHashes.put(key, hash);
+        }
+        return hash;
+    }
+
+    public static class Index {
+        private int version = VERSION;
+        private Map<String, CachedJar> jars = new ConcurrentHashMap<String, CachedJar>();
+        private Map<String, CachedClassFile> classFiles = new ConcurrentHashMap<String, CachedClassFile>();
+
+        public int getVersion() {
+            return version;
+        }
+
+        public void setVersion(int version) {
+            this.version = version;
+        }
+
+        public Map<String, CachedJar> getJars() {
+            return jars;
+        }
+
+        public void setJars(Map<String, CachedJar> jars) {
+            this.jars = jars;
+        }
+
+        public Map<String, CachedClassFile> getClassFiles() {
+            return classFiles;
+        }
+
+        public void setClassFiles(Map<String, CachedClassFile> classFiles) {
+            this.classFiles = classFiles;
+        }
+    }
+
+    public static class CachedFile {
+        private long length;
+        private long lastModified;
+        private String hash;
+
+        boolean isUnchanged(File file) {
+            return file.length() == length && file.lastModified() == lastModified;
+        }
+
+        void updateStat(File file) {
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public void setLength(long length) {
+            this.length = length;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public void setLastModified(long lastModified) {
+            this.lastModified = lastModified;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public void setHash(String hash) {
+            this.hash = hash;
+        }
+    }
+
+    public static class CachedJar extends CachedFile {
+        private List<ClassFileInfo> classes;
+
+        public List<ClassFileInfo> getClasses() {
+            return classes;
+        }
+
+        public void setClasses(List<ClassFileInfo> classes) {
+            this.classes = classes;
+        }
+    }
+
+    public static class CachedClassFile extends CachedFile {
+        private ClassFileInfo info;
+
+        public ClassFileInfo getInfo() {
+            return info;
+        }
+
+        public void setInfo(ClassFileInfo info) {
+            this.info = info;
+        }
+    }
+}
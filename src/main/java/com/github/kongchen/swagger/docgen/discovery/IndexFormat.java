@@ -0,0 +1,19 @@
+package com.github.kongchen.swagger.docgen.discovery;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * A class index built ahead of time and shipped as a resource of a jar or classpath directory,
+ * which class discovery can read instead of scanning the class files.
+ */
+interface IndexFormat {
+
+    /**
+     * @return the path of the index, relative to the root of its jar or directory
+     */
+    String getResource();
+
+    List<ClassFileInfo> readClasses(InputStream in) throws IOException;
+}
@@ -0,0 +1,49 @@
+package com.github.kongchen.swagger.docgen.discovery;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The <code>META-INF/jandex.idx</code> written by the Jandex indexer, which Quarkus and WildFly builds
+ * add to their jars. Indexes newer than this Jandex version can read are rejected, and the jar is scanned.
+ */
+class JandexIndex implements IndexFormat {
+    static final String RESOURCE = "META-INF/jandex.idx";
+
+    public String getResource() {
+        return RESOURCE;
+    }
+
+    public List<ClassFileInfo> readClasses(InputStream in) throws IOException {
+        Index index;
+        try {
+            index = new IndexReader(in).read();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Not a Jandex index: " + e.getMessage());
+        }
+
+        List<ClassFileInfo> classes = new ArrayList<ClassFileInfo>();
+        for (ClassInfo classInfo : index.getKnownClasses()) {
+            ClassFileInfo info = new ClassFileInfo(classInfo.name().toString());
+            if (classInfo.superName() != null) {
+                info.setSuperClassName(classInfo.superName().toString());
+            }
+            for (DotName interfaceName : classInfo.interfaceNames()) {
+                info.getInterfaceNames().add(interfaceName.toString());
+            }
+            for (AnnotationInstance annotation : classInfo.classAnnotations()) {
+                info.getAnnotationNames().add(annotation.name().toString());
+            }
+            classes.add(info);
+        }
+        return classes;
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.kongchen.swagger.docgen.discovery;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells whether a jar may contain classes matching a {@link PrefixFilter}, and whether it is a classpath
+ * root of a location, by reading the entry names of its central directory, without opening or inflating
+ * a single entry.
+ *
+ * Verdicts are kept for the lifetime of the prefilter, which is one class discovery. Any jar which cannot
+ * be checked this way (ZIP64, unexpected layout) is assumed to match, and scanned as usual.
+ */
+class JarPrefilter {
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ENTRY_SIGNATURE = 0x02014b50;
+    private static final int END_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xffff;
+    private static final int ENTRY_SIZE = 46;
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final Map<String, Boolean> verdicts = new ConcurrentHashMap<String, Boolean>();
+
+    /**
+     * @return false if none of the classes in <code>jar</code> matches <code>filter</code>
+     */
+    boolean mayContain(File jar, PrefixFilter filter) {
+        return verdict(jar, filter, null);
+    }
+
+    /**
+     * @return false unless <code>jar</code> has an entry for <code>location</code>, a package or a class, the same
+     * as a class loader resource lookup would find, and classes matching it
+     */
+    boolean isRoot(File jar, String location) {
+        return verdict(jar, new PrefixFilter(Collections.singletonList(location)), location.replace('.', '/'));
+    }
+
+    private boolean verdict(File jar, PrefixFilter filter, String resource) {
+        String key = jar.getAbsolutePath() + "|" + filter + "|" + resource;
+        Boolean verdict = verdicts.get(key);
+        if (verdict == null) {
+            try {
+                verdict = readCentralDirectory(jar, filter, resource);
+            } catch (IOException e) {
+                verdict = Boolean.TRUE;
+            }
+            verdicts.put(key, verdict);
+        }
+        return verdict;
+    }
+
+    private static boolean readCentralDirectory(File jar, PrefixFilter filter, String resource) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(jar, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            long size = channel.size();
+            if (size < END_SIZE) {
+                return true;
+            }
+
+            // the end record is followed by a comment of up to 64k
+            long tailStart = Math.max(0, size - END_SIZE - MAX_COMMENT_SIZE);
+            ByteBuffer tail = read(channel, tailStart, (int) (size - tailStart));
+            int end = -1;
+            for (int i = tail.limit() - END_SIZE; i >= 0; i--) {
+                if (tail.getInt(i) == END_SIGNATURE) {
+                    end = i;
+                    break;
+                }
+            }
+            if (end == -1) {
+                return true;
+            }
+            int entries = tail.getShort(end + 10) & 0xffff;
+            long directorySize = tail.getInt(end + 12) & 0xffffffffL;
+            long directoryOffset = tail.getInt(end + 16) & 0xffffffffL;
+            if (entries == 0xffff || directorySize == 0xffffffffL || directoryOffset == 0xffffffffL
+                    || directoryOffset + directorySize > size || directorySize > Integer.MAX_VALUE) {
+                // ZIP64, or data prepended to the archive
+                return true;
+            }
+
+            ByteBuffer directory = read(channel, directoryOffset, (int) directorySize);
+            byte[] name = new byte[256];
+            boolean classFound = false;
+            boolean resourceFound = resource == null;
+            int pos = 0;
+            for (int i = 0; i < entries; i++) {
+                if (pos + ENTRY_SIZE > directory.limit() || directory.getInt(pos) != ENTRY_SIGNATURE) {
+                    return true;
+                }
+                int nameLength = directory.getShort(pos + 28) & 0xffff;
+                int extraLength = directory.getShort(pos + 30) & 0xffff;
+                int commentLength = directory.getShort(pos + 32) & 0xffff;
+                if (pos + ENTRY_SIZE + nameLength > directory.limit()) {
+                    return true;
+                }
+                if (name.length < nameLength) {
+                    name = new byte[nameLength];
+                }
+                directory.position(pos + ENTRY_SIZE);
+                directory.get(name, 0, nameLength);
+                classFound = classFound || matches(name, nameLength, filter);
+                resourceFound = resourceFound || isResource(name, nameLength, resource);
+                if (classFound && resourceFound) {
+                    return true;
+                }
+                pos += ENTRY_SIZE + nameLength + extraLength + commentLength;
+            }
+            return false;
+        } finally {
+            file.close();
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static boolean matches(byte[] name, int length, PrefixFilter filter) throws UnsupportedEncodingException {
+        int suffixStart = length - CLASS_SUFFIX.length();
+        if (suffixStart <= 0) {
+            return false;
+        }
+        for (int i = 0; i < CLASS_SUFFIX.length(); i++) {
+            if (name[suffixStart + i] != CLASS_SUFFIX.charAt(i)) {
+                return false;
+            }
+        }
+        String className = new String(name, 0, suffixStart, "UTF-8").replace('/', '.');
+        return filter.matches(className);
+    }
+
+    /**
+     * @return whether the entry is the directory or the class file named by <code>resource</code>
+     */
+    private static boolean isResource(byte[] name, int length, String resource) throws UnsupportedEncodingException {
+        if (length < resource.length()) {
+            return false;
+        }
+        String entry = new String(name, 0, length, "UTF-8");
+        return entry.equals(resource) || entry.equals(resource + "/") || entry.equals(resource + CLASS_SUFFIX);
+    }
+}
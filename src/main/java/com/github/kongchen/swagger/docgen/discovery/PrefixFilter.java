@@ -0,0 +1,70 @@
+package com.github.kongchen.swagger.docgen.discovery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * All configured locations compiled into one class name prefix filter.
+ *
+ * Prefixes covered by a shorter one are dropped, so the remaining ones are never prefixes of each other.
+ * A name then matches if and only if it starts with the greatest prefix sorting before it,
+ * which a binary search finds.
+ */
+public class PrefixFilter {
+    private final String[] prefixes;
+
+    public PrefixFilter(Collection<String> locations) {
+        List<String> compiled = new ArrayList<String>();
+        for (String location : new TreeSet<String>(locations)) {
+            if (compiled.isEmpty() || !location.startsWith(compiled.get(compiled.size() - 1))) {
+                compiled.add(location);
+            }
+        }
+        this.prefixes = compiled.toArray(new String[compiled.size()]);
+    }
+
+    /**
+     * @return true if <code>className</code> starts with one of the prefixes
+     */
+    public boolean matches(String className) {
+        int index = Arrays.binarySearch(prefixes, className);
+        if (index >= 0) {
+            return true;
+        }
+        int floor = -index - 2;
+        return floor >= 0 && className.startsWith(prefixes[floor]);
+    }
+
+    /**
+     * @return true if <code>packageName</code> or one of its sub-packages may contain matching classes
+     */
+    public boolean mayContain(String packageName) {
+        if (matches(packageName)) {
+            return true;
+        }
+        // a prefix inside this package sorts right after it
+        String packagePrefix = packageName + ".";
+        int index = Arrays.binarySearch(prefixes, packagePrefix);
+        int ceiling = index >= 0 ? index : -index - 1;
+        return ceiling < prefixes.length && prefixes[ceiling].startsWith(packagePrefix);
+    }
+
+    public List<String> getPrefixes() {
+        return Arrays.asList(prefixes);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder b = new StringBuilder();
+        for (String prefix : prefixes) {
+            if (b.length() > 0) {
+                b.append(';');
+            }
+            b.append(prefix);
+        }
+        return b.toString();
+    }
+}
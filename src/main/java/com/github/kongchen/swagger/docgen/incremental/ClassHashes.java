@@ -0,0 +1,76 @@
+package com.github.kongchen.swagger.docgen.incremental;
+
+import com.github.kongchen.swagger.docgen.LogAdapter;
+import com.github.kongchen.swagger.docgen.util.HashUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The hashes of the class files on the context class loader, each one read once. Safe to use
+ * from several reading threads.
+ */
+public class ClassHashes {
+    private static final String MISSING = "-";
+
+    private final Map<String, String> hashes = new ConcurrentHashMap<String, String>();
+    private final LogAdapter log;
+
+    public ClassHashes(LogAdapter log) {
+        this.log = log;
+    }
+
+    /**
+     * @return the hash of the class file of <code>className</code>, or a placeholder if there is none
+     */
+    public String hash(String className) {
+        String hash = hashes.get(className);
+        if (hash == null) {
+            hash = MISSING;
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            URL resource = classLoader == null ? null : classLoader.getResource(className.replace('.', '/') + ".class");
+            if (resource != null) {
+                try {
+                    InputStream in = resource.openStream();
+                    try {
+                        hash = HashUtils.md5Hex(in);
+                    } finally {
+                        in.close();
+                    }
+                } catch (IOException e) {
+                    log.warn("Cannot read " + resource + ": " + e.getMessage());
+                }
+            }
+            hashes.put(className, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * @return the hashes of the class files of <code>classes</code>, by class name
+     */
+    public Map<String, String> hashAll(Collection<Class<?>> classes) {
+        Map<String, String> result = new TreeMap<String, String>();
+        for (Class<?> cls : classes) {
+            result.put(cls.getName(), hash(cls.getName()));
+        }
+        return result;
+    }
+
+    /**
+     * @return whether none of the class files changed since they had the given hashes
+     */
+    public boolean unchanged(Map<String, String> hashes) {
+        for (Map.Entry<String, String> entry : hashes.entrySet()) {
+            if (!entry.getValue().equals(hash(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
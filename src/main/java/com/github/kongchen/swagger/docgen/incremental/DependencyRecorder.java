@@ -0,0 +1,181 @@
+package com.github.kongchen.swagger.docgen.incremental;
+
+import com.fasterxml.jackson.databind.JavaType;
+import io.swagger.annotations.Api;
+import io.swagger.converter.ModelConverter;
+import io.swagger.converter.ModelConverterContext;
+import io.swagger.models.Model;
+import io.swagger.models.properties.Property;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Set;
+
+/**
+ * A model converter placed first in the chain, which records every type the readers resolve
+ * while a recording is started on the current thread, and hands it on unchanged.
+ *
+ * Recordings nest: the caches record what they resolve on their own, to replay it when it is reused,
+ * and whatever records it also goes to the recording around it.
+ */
+public class DependencyRecorder implements ModelConverter {
+    private static final ThreadLocal<LinkedList<Set<Class<?>>>> RECORDINGS =
+            new ThreadLocal<LinkedList<Set<Class<?>>>>();
+
+    /**
+     * Starts a recording on the current thread, within the one already started, if any.
+     */
+    public static void start() {
+        LinkedList<Set<Class<?>>> recordings = RECORDINGS.get();
+        if (recordings == null) {
+            recordings = new LinkedList<Set<Class<?>>>();
+            RECORDINGS.set(recordings);
+        }
+        recordings.addFirst(new HashSet<Class<?>>());
+    }
+
+    /**
+     * @return the classes recorded since the last {@link #start()}, which are also added to the recording
+     * it was started within
+     */
+    public static Set<Class<?>> stop() {
+        LinkedList<Set<Class<?>>> recordings = RECORDINGS.get();
+        if (recordings == null || recordings.isEmpty()) {
+            return new HashSet<Class<?>>();
+        }
+        Set<Class<?>> recorded = recordings.removeFirst();
+        if (recordings.isEmpty()) {
+            RECORDINGS.remove();
+        } else {
+            recordings.getFirst().addAll(recorded);
+        }
+        return recorded;
+    }
+
+    /**
+     * @return whether a recording is started on the current thread
+     */
+    public static boolean isRecording() {
+        return RECORDINGS.get() != null;
+    }
+
+    /**
+     * Records <code>classes</code>, recorded before by a recording which is stopped, if a recording is started
+     * on the current thread.
+     */
+    public static void recordAll(Collection<Class<?>> classes) {
+        LinkedList<Set<Class<?>>> recordings = RECORDINGS.get();
+        if (recordings != null && classes != null) {
+            recordings.getFirst().addAll(classes);
+        }
+    }
+
+    /**
+     * Records the types of the public methods of a resource class, which covers the bean parameters
+     * it declares, and those of the sub-resources its locators return, down to the last one.
+     */
+    public static void recordSignatures(Class<?> cls) {
+        Set<Class<?>> visited = new HashSet<Class<?>>();
+        LinkedList<Class<?>> queue = new LinkedList<Class<?>>();
+        queue.add(cls);
+        while (!queue.isEmpty()) {
+            Class<?> resource = queue.removeFirst();
+            if (!visited.add(resource)) {
+                continue;
+            }
+            record(resource);
+            for (Method method : resource.getMethods()) {
+                record(method.getGenericReturnType());
+                for (Type type : method.getGenericParameterTypes()) {
+                    record(type);
+                }
+                // the same classes the readers take for sub-resources
+                if (method.getReturnType().getAnnotation(Api.class) != null) {
+                    queue.add(method.getReturnType());
+                }
+            }
+        }
+    }
+
+    /**
+     * Records <code>type</code> if a recording is started on the current thread.
+     */
+    public static void record(Type type) {
+        LinkedList<Set<Class<?>>> recordings = RECORDINGS.get();
+        if (recordings != null && type != null) {
+            collect(type, recordings.getFirst());
+        }
+    }
+
+    /**
+     * @return the given classes with all their super classes and interfaces, leaving out the JDK classes
+     */
+    public static Set<Class<?>> withSuperTypes(Collection<Class<?>> classes) {
+        Set<Class<?>> result = new HashSet<Class<?>>();
+        LinkedList<Class<?>> queue = new LinkedList<Class<?>>(classes);
+        while (!queue.isEmpty()) {
+            Class<?> cls = queue.removeFirst();
+            while (cls.isArray()) {
+                cls = cls.getComponentType();
+            }
+            if (cls.isPrimitive() || cls.getClassLoader() == null || !result.add(cls)) {
+                continue;
+            }
+            if (cls.getSuperclass() != null) {
+                queue.add(cls.getSuperclass());
+            }
+            for (Class<?> interfaceClass : cls.getInterfaces()) {
+                queue.add(interfaceClass);
+            }
+        }
+        return result;
+    }
+
+    private static void collect(Type type, Set<Class<?>> classes) {
+        if (type instanceof Class) {
+            classes.add((Class<?>) type);
+        } else if (type instanceof JavaType) {
+            JavaType javaType = (JavaType) type;
+            classes.add(javaType.getRawClass());
+            for (int i = 0; i < javaType.containedTypeCount(); i++) {
+                collect(javaType.containedType(i), classes);
+            }
+            if (javaType.getContentType() != null) {
+                collect(javaType.getContentType(), classes);
+            }
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            collect(parameterizedType.getRawType(), classes);
+            for (Type argument : parameterizedType.getActualTypeArguments()) {
+                collect(argument, classes);
+            }
+        } else if (type instanceof GenericArrayType) {
+            collect(((GenericArrayType) type).getGenericComponentType(), classes);
+        } else if (type instanceof WildcardType) {
+            for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                collect(bound, classes);
+            }
+        }
+    }
+
+    @Override
+    public Property resolveProperty(Type type, ModelConverterContext context, Annotation[] annotations,
+                                    Iterator<ModelConverter> chain) {
+        record(type);
+        return chain.hasNext() ? chain.next().resolveProperty(type, context, annotations, chain) : null;
+    }
+
+    @Override
+    public Model resolve(Type type, ModelConverterContext context, Iterator<ModelConverter> chain) {
+        record(type);
+        return chain.hasNext() ? chain.next().resolve(type, context, chain) : null;
+    }
+}
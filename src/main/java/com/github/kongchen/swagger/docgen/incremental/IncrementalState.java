@@ -0,0 +1,174 @@
+package com.github.kongchen.swagger.docgen.incremental;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.kongchen.swagger.docgen.LogAdapter;
+import com.github.kongchen.swagger.docgen.Utils;
+import io.swagger.models.Model;
+import io.swagger.models.Swagger;
+import io.swagger.util.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * What each API class contributed to the Swagger document of an apiSource in the previous build,
+ * together with the hashes of the class files it was read from: the class itself, its super types,
+ * and every model and parameter type resolved while reading it.
+ *
+ * A fragment is reused as long as none of these class files changed. Fragments of classes which
+ * are not read by a build are dropped when it is saved, and all of them are dropped when the
+ * configuration fingerprint changes.
+ */
+public class IncrementalState {
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LogAdapter log;
+
+    private State previous = new State();
+    private final State next = new State();
+    private final ClassHashes classHashes;
+
+    private IncrementalState(File file, String fingerprint, LogAdapter log) {
+        this.file = file;
+        this.log = log;
+        this.classHashes = new ClassHashes(log);
+        next.setFingerprint(fingerprint);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Loads the state stored in <code>file</code>, or starts an empty one if there is none, it cannot
+     * be read, or it was written with a different configuration <code>fingerprint</code>.
+     */
+    public static IncrementalState load(File file, String fingerprint, LogAdapter log) {
+        IncrementalState state = new IncrementalState(file, fingerprint, log);
+        if (file.isFile()) {
+            try {
+                State stored = state.mapper.readValue(file, State.class);
+                if (stored.getVersion() == VERSION && fingerprint.equals(stored.getFingerprint())) {
+                    state.previous = stored;
+                } else {
+                    log.info("Configuration changed, reading all API classes again");
+                }
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable incremental state " + file + ": " + e.getMessage());
+            }
+        }
+        return state;
+    }
+
+    public void save() throws IOException {
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        mapper.writeValue(file, next);
+    }
+
+    /**
+     * @return what <code>className</code> contributed to the document in the previous build,
+     * or null if it has to be read again
+     */
+    public Swagger getFragment(String className) {
+        Fragment fragment = previous.getFragments().get(className);
+        if (fragment == null) {
+            return null;
+        }
+        if (!classHashes.unchanged(fragment.getDependencies())) {
+            return null;
+        }
+        try {
+            Swagger swagger = Json.mapper().treeToValue(fragment.getSwagger(), Swagger.class);
+            restoreProperties(swagger, fragment.getSwagger());
+            if (!fragment.getSwagger().equals(Json.mapper().valueToTree(swagger))) {
+                // the swagger deserializers drop some details, never reuse a fragment they changed
+                return null;
+            }
+            next.getFragments().put(className, fragment);
+            return swagger;
+        } catch (IOException e) {
+            log.warn("Reading " + className + " again, its previous result cannot be used: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Records what <code>className</code> contributed to the document, read from <code>dependencies</code>.
+     */
+    public void putFragment(String className, Swagger swagger, Collection<Class<?>> dependencies) {
+        Fragment fragment = new Fragment();
+        fragment.setSwagger(Json.mapper().<JsonNode>valueToTree(swagger));
+        fragment.setDependencies(classHashes.hashAll(dependencies));
+        next.getFragments().put(className, fragment);
+    }
+
+    /**
+     * Puts back the details of the model properties which the swagger deserializers leave out.
+     */
+    private static void restoreProperties(Swagger swagger, JsonNode node) throws IOException {
+        if (swagger.getDefinitions() == null) {
+            return;
+        }
+        for (Map.Entry<String, Model> definition : swagger.getDefinitions().entrySet()) {
+            Utils.restoreProperties(definition.getValue(), node.path("definitions").path(definition.getKey()));
+        }
+    }
+
+    public static class State {
+        private int version = VERSION;
+        private String fingerprint;
+        private Map<String, Fragment> fragments = new TreeMap<String, Fragment>();
+
+        public int getVersion() {
+            return version;
+        }
+
+        public void setVersion(int version) {
+            this.version = version;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public void setFingerprint(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public Map<String, Fragment> getFragments() {
+            return fragments;
+        }
+
+        public void setFragments(Map<String, Fragment> fragments) {
+            this.fragments = fragments;
+        }
+    }
+
+    public static class Fragment {
+        private Map<String, String> dependencies = new TreeMap<String, String>();
+        private JsonNode swagger;
+
+        public Map<String, String> getDependencies() {
+            return dependencies;
+        }
+
+        public void setDependencies(Map<String, String> dependencies) {
+            this.dependencies = dependencies;
+        }
+
+        public JsonNode getSwagger() {
+            return swagger;
+        }
+
+        public void setSwagger(JsonNode swagger) {
+            this.swagger = swagger;
+        }
+    }
+}
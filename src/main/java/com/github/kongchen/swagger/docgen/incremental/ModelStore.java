@@ -0,0 +1,166 @@
+package com.github.kongchen.swagger.docgen.incremental;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.kongchen.swagger.docgen.LogAdapter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The models resolved for each type by the previous build, as JSON, together with the hashes of the
+ * class files they were resolved from: the type itself, its super types, and every type resolved
+ * while resolving it.
+ *
+ * An entry is reused as long as none of these class files changed. Entries which are not used by a
+ * build are dropped when it is saved, and all of them are dropped when the fingerprint changes.
+ * Lookups are safe to make from several reading threads.
+ */
+public class ModelStore {
+    public static final String FILE_NAME = "models.json";
+
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ClassHashes classHashes;
+
+    private Store previous = new Store();
+    private final Store next = new Store();
+
+    private ModelStore(File file, String fingerprint, LogAdapter log) {
+        this.file = file;
+        this.classHashes = new ClassHashes(log);
+        next.setFingerprint(fingerprint);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Loads the models stored in <code>directory</code>, or starts with none if there are none, they
+     * cannot be read, or they were stored with a different <code>fingerprint</code>.
+     */
+    public static ModelStore load(File directory, String fingerprint, LogAdapter log) {
+        ModelStore store = new ModelStore(new File(directory, FILE_NAME), fingerprint, log);
+        if (store.file.isFile()) {
+            try {
+                Store stored = store.mapper.readValue(store.file, Store.class);
+                if (stored.getVersion() == VERSION && fingerprint.equals(stored.getFingerprint())) {
+                    store.previous = stored;
+                }
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable model store " + store.file + ": " + e.getMessage());
+            }
+        }
+        return store;
+    }
+
+    public void save() throws IOException {
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        mapper.writeValue(file, next);
+    }
+
+    /**
+     * @return the models stored for <code>key</code> by the previous build, or null if they have to be
+     * resolved again
+     */
+    public Entry get(String key) {
+        Entry entry = next.getEntries().get(key);
+        if (entry != null) {
+            return entry;
+        }
+        entry = previous.getEntries().get(key);
+        if (entry == null || entry.getModels() == null || entry.getAllModels() == null
+                || !classHashes.unchanged(entry.getDependencies())) {
+            return null;
+        }
+        next.getEntries().put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Stores the models resolved for <code>key</code> from <code>dependencies</code>.
+     */
+    public void put(String key, Map<String, JsonNode> models, Map<String, JsonNode> allModels,
+                    Collection<Class<?>> dependencies) {
+        Entry entry = new Entry();
+        entry.setModels(new LinkedHashMap<String, JsonNode>(models));
+        entry.setAllModels(new LinkedHashMap<String, JsonNode>(allModels));
+        entry.setDependencies(classHashes.hashAll(dependencies));
+        next.getEntries().put(key, entry);
+    }
+
+    public static class Store {
+        private int version = VERSION;
+        private String fingerprint;
+        private Map<String, Entry> entries = new ConcurrentSkipListMap<String, Entry>();
+
+        public int getVersion() {
+            return version;
+        }
+
+        public void setVersion(int version) {
+            this.version = version;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public void setFingerprint(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public Map<String, Entry> getEntries() {
+            return entries;
+        }
+
+        public void setEntries(Map<String, Entry> entries) {
+            this.entries = entries;
+        }
+    }
+
+    public static class Entry {
+        private Map<String, String> dependencies = new TreeMap<String, String>();
+        private Map<String, JsonNode> models;
+        private Map<String, JsonNode> allModels;
+
+        public Map<String, String> getDependencies() {
+            return dependencies;
+        }
+
+        public void setDependencies(Map<String, String> dependencies) {
+            this.dependencies = dependencies;
+        }
+
+        /**
+         * @return the model of the type itself, by name
+         */
+        public Map<String, JsonNode> getModels() {
+            return models;
+        }
+
+        public void setModels(Map<String, JsonNode> models) {
+            this.models = models;
+        }
+
+        /**
+         * @return the model of the type and all the models it refers to, by name
+         */
+        public Map<String, JsonNode> getAllModels() {
+            return allModels;
+        }
+
+        public void setAllModels(Map<String, JsonNode> allModels) {
+            this.allModels = allModels;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.github.kongchen.swagger.docgen.jaxrs;
 
+import com.github.kongchen.swagger.docgen.reader.BeanParameterCache;
+import com.github.kongchen.swagger.docgen.reader.ReaderCaches;
 import com.sun.jersey.api.core.InjectParam;
 
 import io.swagger.annotations.ApiParam;
@@ -26,6 +28,13 @@ import org.apache.commons.lang3.reflect.TypeUtils;
  */
 public class BeanParamInjectParamExtention extends AbstractSwaggerExtension implements SwaggerExtension {
 
+    private static final BeanParameterCache.Extractor BEAN_PARAMETERS = new BeanParameterCache.Extractor() {
+        @Override
+        public List<Parameter> extractParameters(Class<?> bean) {
+            return BeanParamInjectParamExtention.extractParameters(bean);
+        }
+    };
+
     public List<Parameter> extractParameters(List<Annotation> annotations, Type type, Set<Type> typesToSkip, Iterator<SwaggerExtension> chain) {
         Class<?> cls = TypeUtils.getRawType(type, type);
         
@@ -37,7 +46,8 @@ public class BeanParamInjectParamExtention extends AbstractSwaggerExtension impl
         }
         for(Annotation annotation : annotations) {
             if(annotation instanceof BeanParam || annotation instanceof InjectParam) {
-                return extractParameters(cls);
+                // beans are read the same way whichever of the annotations marks them
+                return ReaderCaches.getBeanParameters(BeanParam.class, cls, BEAN_PARAMETERS);
 
             }
         }
@@ -46,33 +56,35 @@ public class BeanParamInjectParamExtention extends AbstractSwaggerExtension impl
         return null;
     }
 
-    private List<Parameter> extractParameters(Class<?> cls) {
+    /**
+     * Extracts the parameters of the fields of <code>cls</code> and of its superclasses.
+     */
+    private static List<Parameter> extractParameters(Class<?> cls) {
         List<Parameter> parameters = new ArrayList<Parameter>();
         
-        for (Field f : cls.getDeclaredFields()) {
-            Parameter parameter = null;
-
-            int i = 0, apiParaIdx = -1;
+        for (Class<?> c = cls; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                Parameter parameter = null;
+                ApiParam param = null;
+
+                for(Annotation annotation : f.getAnnotations()) {
+                    if(annotation instanceof ApiParam) {
+                        param = (ApiParam) annotation;
+                    }
+                    parameter = JaxrsParameterExtension.getParameter(cls, parameter, annotation);
 
-            for(Annotation annotation : f.getAnnotations()) {
-                if(annotation instanceof ApiParam) {
-                    apiParaIdx = i;
                 }
-                i++;
-                parameter = JaxrsParameterExtension.getParameter(cls, parameter, annotation);
-
-            }
-            if (parameter != null) {
-                if(apiParaIdx != -1) {
-                    ApiParam param = (ApiParam) f.getAnnotations()[apiParaIdx];
-                    parameter.setDescription(param.value());
-                    parameter.setRequired(param.required());
-                    parameter.setAccess(param.access());
-                    if(!Utils.isEmpty(param.name())) {
-                        parameter.setName(param.name());
+                if (parameter != null) {
+                    if(param != null) {
+                        parameter.setDescription(param.value());
+                        parameter.setRequired(param.required());
+                        parameter.setAccess(param.access());
+                        if(!Utils.isEmpty(param.name())) {
+                            parameter.setName(param.name());
+                        }
                     }
+                    parameters.add(parameter);
                 }
-                parameters.add(parameter);
             }
         }
 
@@ -1,6 +1,6 @@
 package com.github.kongchen.swagger.docgen.jaxrs;
 
-import io.swagger.converter.ModelConverters;
+import com.github.kongchen.swagger.docgen.reader.ReaderCaches;
 import io.swagger.jaxrs.ext.AbstractSwaggerExtension;
 import io.swagger.jaxrs.ext.SwaggerExtension;
 import io.swagger.models.parameters.CookieParameter;
@@ -64,7 +64,7 @@ public class JaxrsParameterExtension extends AbstractSwaggerExtension implements
             if(!defaultValue.isEmpty()) {
                 qp.setDefaultValue(defaultValue);
             }
-            Property schema = ModelConverters.getInstance().readAsProperty(type);
+            Property schema = ReaderCaches.readAsProperty(type);
             if(schema != null)
                 qp.setProperty(schema);
             
@@ -79,7 +79,7 @@ public class JaxrsParameterExtension extends AbstractSwaggerExtension implements
                     .name(param.value());
             if(!defaultValue.isEmpty())
                 pp.setDefaultValue(defaultValue);
-            Property schema = ModelConverters.getInstance().readAsProperty(type);
+            Property schema = ReaderCaches.readAsProperty(type);
             if(schema != null)
                 pp.setProperty(schema);
 
@@ -93,7 +93,7 @@ public class JaxrsParameterExtension extends AbstractSwaggerExtension implements
             HeaderParameter hp = new HeaderParameter()
                     .name(param.value());
             hp.setDefaultValue(defaultValue);
-            Property schema = ModelConverters.getInstance().readAsProperty(type);
+            Property schema = ReaderCaches.readAsProperty(type);
             if(schema != null)
                 hp.setProperty(schema);
 
@@ -108,7 +108,7 @@ public class JaxrsParameterExtension extends AbstractSwaggerExtension implements
                     .name(param.value());
             if(!defaultValue.isEmpty())
                 cp.setDefaultValue(defaultValue);
-            Property schema = ModelConverters.getInstance().readAsProperty(type);
+            Property schema = ReaderCaches.readAsProperty(type);
             if(schema != null)
                 cp.setProperty(schema);
 
@@ -123,7 +123,7 @@ public class JaxrsParameterExtension extends AbstractSwaggerExtension implements
                     .name(param.value());
             if(!defaultValue.isEmpty())
                 fp.setDefaultValue(defaultValue);
-            Property schema = ModelConverters.getInstance().readAsProperty(type);
+            Property schema = ReaderCaches.readAsProperty(type);
             if(schema != null)
                 fp.setProperty(schema);
 
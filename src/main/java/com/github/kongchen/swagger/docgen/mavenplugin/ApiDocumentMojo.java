@@ -1,10 +1,31 @@
 package com.github.kongchen.swagger.docgen.mavenplugin;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.github.kongchen.swagger.docgen.AbstractDocumentSource;
 import com.github.kongchen.swagger.docgen.GenerateException;
+import com.github.kongchen.swagger.docgen.LogAdapter;
+import com.github.kongchen.swagger.docgen.classfile.ClassFileRepository;
+import com.github.kongchen.swagger.docgen.discovery.ClassDiscovery;
+import com.github.kongchen.swagger.docgen.discovery.DiscoveryCache;
+import com.github.kongchen.swagger.docgen.incremental.IncrementalState;
+import com.github.kongchen.swagger.docgen.incremental.ModelStore;
+import com.github.kongchen.swagger.docgen.reader.ReaderCaches;
+import com.github.kongchen.swagger.docgen.util.HashUtils;
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -12,6 +33,7 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
 
 /**
  * Created with IntelliJ IDEA.
@@ -21,6 +43,8 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 @Mojo( name = "generate", defaultPhase = LifecyclePhase.COMPILE, configurator = "include-project-dependencies", 
        requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME)
 public class ApiDocumentMojo extends AbstractMojo {
+    private static final String[] SERVICES = {
+            "io.swagger.converter.ModelConverter", "com.fasterxml.jackson.databind.Module"};
 
     /**
      * A set of apiSources.
@@ -30,6 +54,93 @@ public class ApiDocumentMojo extends AbstractMojo {
     @Parameter
     private List<ApiSource> apiSources;
 
+    /**
+     * Directory where the plugin keeps what it can reuse in the next build.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/swagger-maven-plugin")
+    private File cacheDirectory;
+
+    /**
+     * Keep an index of the scanned classpath in <code>cacheDirectory</code>,
+     * so that unchanged jars and class files are not scanned again by the next build.
+     */
+    @Parameter(defaultValue = "true")
+    private boolean useDiscoveryCache;
+
+    /**
+     * Number of classpath jars and directories scanned at the same time when looking for API classes.
+     */
+    @Parameter(defaultValue = "1")
+    private int scanParallelism;
+
+    /**
+     * Number of API classes, or Spring MVC request mappings, read at the same time, each into its own
+     * part of the document. Ignored when <code>incremental</code>, which reads the API classes
+     * one by one.
+     */
+    @Parameter(defaultValue = "1")
+    private int readParallelism;
+
+    /**
+     * Read the class index written at compile time by
+     * {@link com.github.kongchen.swagger.docgen.discovery.ClassIndexProcessor}
+     * instead of scanning the jars containing one. In directories, only the class files missing from the index
+     * or newer than it are read.
+     */
+    @Parameter(defaultValue = "true")
+    private boolean useCompiledIndex;
+
+    /**
+     * Read the <code>META-INF/jandex.idx</code> found in jars and directories instead of scanning them.
+     */
+    @Parameter(defaultValue = "false")
+    private boolean useJandexIndex;
+
+    /**
+     * Dependencies, as <code>groupId:artifactId</code>, also searched for API classes
+     * by the apiSources without <code>locations</code>.
+     */
+    @Parameter
+    private List<String> scanDependencies;
+
+    /**
+     * Read again only the API classes whose class files, or the class files of the models and parameters
+     * they use, changed since the previous build. What was read is kept in <code>cacheDirectory</code>.
+     */
+    @Parameter(defaultValue = "false")
+    private boolean incremental;
+
+    /**
+     * Keep the models resolved from each type in <code>cacheDirectory</code>, and load those whose class files,
+     * or the class files of the types they refer to, did not change instead of resolving them again.
+     */
+    @Parameter(defaultValue = "false")
+    private boolean useModelStore;
+
+    /**
+     * Read the API classes and the models from their class files instead of loading them: the compile classpath
+     * of the project is not added to the plugin, and none of its classes are loaded or initialized. Only JAX-RS
+     * apiSources are supported, and the model converters, swagger extensions and Jackson modules of the project
+     * are not used. <code>incremental</code> and <code>useModelStore</code> are ignored.
+     */
+    @Parameter(defaultValue = "false")
+    private boolean readClassFiles;
+
+    @Parameter(defaultValue = "${project.compileClasspathElements}", readonly = true)
+    private List<String> compileClasspathElements;
+
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    private String pluginVersion;
+
+    @Parameter(defaultValue = "${plugin.artifacts}", readonly = true)
+    private List<Artifact> pluginArtifacts;
+
+    @Parameter(defaultValue = "${project}", readonly = true)
+    private MavenProject project;
+
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true)
+    private List<MavenProject> reactorProjects;
+
     public List<ApiSource> getApiSources() {
         return apiSources;
     }
@@ -53,23 +164,89 @@ public class ApiDocumentMojo extends AbstractMojo {
                     "swagger-maven-plugin 3.0+ only supports swagger spec 2.0");
         }
 
+        ClassFileRepository classFiles = null;
+        ClassDiscovery classDiscovery;
+        if (readClassFiles) {
+            if (incremental || useModelStore) {
+                getLog().warn("incremental and useModelStore are ignored when reading class files");
+                incremental = false;
+                useModelStore = false;
+            }
+            // the classes are only looked up as resources, the plugin classes are not visible to the project ones
+            ClassLoader classLoader = new URLClassLoader(getCompileClasspath(), null);
+            classFiles = new ClassFileRepository(classLoader);
+            classDiscovery = new ClassDiscovery(new LogAdapter(getLog()), classLoader);
+        } else {
+            classDiscovery = new ClassDiscovery(new LogAdapter(getLog()));
+        }
+        classDiscovery.setParallelism(scanParallelism);
+        classDiscovery.setUseCompiledIndex(useCompiledIndex);
+        classDiscovery.setUseJandexIndex(useJandexIndex);
+        classDiscovery.setDefaultScope(getDefaultScope());
+        if (useDiscoveryCache && cacheDirectory != null) {
+            classDiscovery.setCache(DiscoveryCache.load(cacheDirectory, new LogAdapter(getLog())));
+        }
+        String classpathFingerprint = null;
+        if ((useModelStore || incremental) && cacheDirectory != null) {
+            classpathFingerprint = getClasspathFingerprint();
+        }
+        ModelStore modelStore = null;
+        if (useModelStore && cacheDirectory != null) {
+            modelStore = ModelStore.load(cacheDirectory, classpathFingerprint, new LogAdapter(getLog()));
+        }
+
+        // what the apiSources resolve is shared within this execution only
+        ReaderCaches caches = new ReaderCaches();
         try {
             getLog().debug(apiSources.toString());
+            List<String> locations = new ArrayList<String>();
             for (ApiSource apiSource : apiSources) {
-
                 validateConfiguration(apiSource);
+                if (apiSource.getLocationList() != null) {
+                    locations.addAll(apiSource.getLocationList());
+                }
+            }
+            if (apiSources.size() > 1 && !locations.isEmpty()) {
+                // one classpath scan for all apiSources, each of them then picks its own locations
+                classDiscovery.prepare(locations);
+            }
+
+            for (ApiSource apiSource : apiSources) {
+                apiSource.setClassDiscovery(classDiscovery);
 
                 AbstractDocumentSource documentSource;
 
+                if (classFiles != null && apiSource.isSpringmvc()) {
+                    throw new GenerateException("Spring MVC apiSources cannot be read from class files, set readClassFiles to false");
+                }
                 if(apiSource.isSpringmvc()){
                 	documentSource = new SpringMavenDocumentSource(apiSource, getLog());
                 }else{
                 	documentSource = new MavenDocumentSource(apiSource, getLog());
                 }
                 
-                documentSource.loadTypesToSkip();
-                documentSource.loadOverridingModels();
+                documentSource.setCaches(caches);
+                documentSource.setReadParallelism(Math.max(1, readParallelism));
+                if (classFiles != null) {
+                    // the types to skip and the model substitutes are then taken by name
+                    documentSource.setClassFiles(classFiles);
+                } else {
+                    documentSource.loadTypesToSkip();
+                    documentSource.loadOverridingModels();
+                }
+                if (incremental && cacheDirectory != null) {
+                    documentSource.setIncrementalState(IncrementalState.load(getIncrementalStateFile(apiSource),
+                            getIncrementalFingerprint(apiSource, classpathFingerprint), new LogAdapter(getLog())));
+                }
+                documentSource.setModelStore(modelStore);
                 documentSource.loadDocuments();
+                if (documentSource.getIncrementalState() != null) {
+                    try {
+                        documentSource.getIncrementalState().save();
+                    } catch (IOException e) {
+                        getLog().warn("Could not save the incremental state: " + e.getMessage());
+                    }
+                }
 				if (apiSource.getOutputPath() != null){
 					File outputDirectory = new File(apiSource.getOutputPath()).getParentFile();
 					if (outputDirectory != null && !outputDirectory.exists()) {
@@ -88,6 +265,20 @@ public class ApiDocumentMojo extends AbstractMojo {
                                 : apiSource.getSwaggerUIDocBasePath());
             }
 
+            if (classDiscovery.getCache() != null) {
+                try {
+                    classDiscovery.getCache().save();
+                } catch (IOException e) {
+                    getLog().warn("Could not save the discovery index: " + e.getMessage());
+                }
+            }
+            if (modelStore != null) {
+                try {
+                    modelStore.save();
+                } catch (IOException e) {
+                    getLog().warn("Could not save the model store: " + e.getMessage());
+                }
+            }
         } catch (GenerateException e) {
             throw new MojoFailureException(e.getMessage(), e);
         } catch (Exception e) {
@@ -95,6 +286,166 @@ public class ApiDocumentMojo extends AbstractMojo {
         }
     }
 
+    private URL[] getCompileClasspath() throws MojoExecutionException {
+        List<URL> urls = new ArrayList<URL>();
+        if (compileClasspathElements != null) {
+            for (String element : compileClasspathElements) {
+                try {
+                    urls.add(new File(element).toURI().toURL());
+                } catch (MalformedURLException e) {
+                    throw new MojoExecutionException("Unable to access project dependency: " + element, e);
+                }
+            }
+        }
+        return urls.toArray(new URL[urls.size()]);
+    }
+
+    /**
+     * The classes searched by the apiSources without locations: the ones of this project, of the reactor
+     * modules it depends on and of the configured <code>scanDependencies</code>, rather than the whole
+     * classpath of the plugin.
+     */
+    private Set<File> getDefaultScope() {
+        if (project == null) {
+            return null;
+        }
+        Set<String> coordinates = new HashSet<String>();
+        if (reactorProjects != null) {
+            for (MavenProject reactorProject : reactorProjects) {
+                coordinates.add(reactorProject.getGroupId() + ":" + reactorProject.getArtifactId());
+            }
+        }
+        Set<String> dependencies = new HashSet<String>();
+        if (scanDependencies != null) {
+            dependencies.addAll(scanDependencies);
+        }
+
+        Set<File> scope = new LinkedHashSet<File>();
+        scope.add(new File(project.getBuild().getOutputDirectory()));
+        for (Object o : project.getArtifacts()) {
+            Artifact artifact = (Artifact) o;
+            String coordinate = artifact.getGroupId() + ":" + artifact.getArtifactId();
+            boolean requested = dependencies.remove(coordinate);
+            if (artifact.getFile() != null && (requested || coordinates.contains(coordinate))) {
+                scope.add(artifact.getFile());
+            }
+        }
+        for (String dependency : dependencies) {
+            getLog().warn("Dependency " + dependency + " of scanDependencies is not a dependency of the project");
+        }
+        return scope;
+    }
+
+    private File getIncrementalStateFile(ApiSource apiSource) {
+        String key = HashUtils.md5Hex(apiSource.getLocations() + "|" + apiSource.isSpringmvc() + "|"
+                + apiSource.getSwaggerDirectory() + "|" + apiSource.getOutputPath());
+        return new File(cacheDirectory, "incremental-" + key + ".json");
+    }
+
+    /**
+     * Everything besides the class files which changes what the readers produce.
+     */
+    private String getIncrementalFingerprint(ApiSource apiSource, String classpathFingerprint) throws GenerateException {
+        return HashUtils.md5Hex(classpathFingerprint + "|" + apiSource.isSpringmvc() + "|" + apiSource.getTypesToSkip()
+                + "|" + getModelSubstituteHash(apiSource));
+    }
+
+    /**
+     * Everything besides the recorded class files which changes the models: the build of the plugin, which a
+     * snapshot rebuild changes without changing its version, the artifacts of the plugin and of the project,
+     * such as the Jackson and swagger-core versions, and the model converters and Jackson modules registered
+     * as services on the classpath.
+     */
+    private String getClasspathFingerprint() throws MojoExecutionException {
+        List<String> parts = new ArrayList<String>();
+        parts.add(String.valueOf(pluginVersion));
+        try {
+            parts.add(describeFile(new File(getClass().getProtectionDomain().getCodeSource().getLocation().toURI())));
+        } catch (Exception e) {
+            getLog().debug("Cannot locate the plugin: " + e.getMessage());
+        }
+        parts.addAll(describeArtifacts(pluginArtifacts));
+        parts.addAll(describeArtifacts(project == null ? null : project.getArtifacts()));
+        try {
+            for (String service : SERVICES) {
+                parts.add(service + "=" + getServicesHash(service));
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Cannot read the registered services", e);
+        }
+        return HashUtils.md5Hex(parts.toString());
+    }
+
+    /**
+     * @return the coordinates of <code>artifacts</code>, with the size and the date of the files of the snapshots,
+     * which change while their coordinates do not
+     */
+    private static List<String> describeArtifacts(Collection<?> artifacts) {
+        List<String> descriptions = new ArrayList<String>();
+        if (artifacts == null) {
+            return descriptions;
+        }
+        for (Object o : artifacts) {
+            Artifact artifact = (Artifact) o;
+            String description = artifact.getId();
+            if (artifact.isSnapshot() && artifact.getFile() != null) {
+                description += "@" + describeFile(artifact.getFile());
+            }
+            descriptions.add(description);
+        }
+        Collections.sort(descriptions);
+        return descriptions;
+    }
+
+    private static String describeFile(File file) {
+        return file.isFile() ? file.length() + ":" + file.lastModified() : file.getPath();
+    }
+
+    /**
+     * @return the hash of the service files registering implementations of <code>service</code>, as swagger-core
+     * and Jackson look them up
+     */
+    private String getServicesHash(String service) throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = getClass().getClassLoader();
+        }
+        List<String> hashes = new ArrayList<String>();
+        Enumeration<URL> resources = classLoader.getResources("META-INF/services/" + service);
+        while (resources.hasMoreElements()) {
+            InputStream in = resources.nextElement().openStream();
+            try {
+                hashes.add(HashUtils.md5Hex(in));
+            } finally {
+                in.close();
+            }
+        }
+        Collections.sort(hashes);
+        return HashUtils.md5Hex(hashes.toString());
+    }
+
+    /**
+     * @return the hash of the content of the model substitution file, which may change while its path does not
+     */
+    private String getModelSubstituteHash(ApiSource apiSource) throws GenerateException {
+        if (apiSource.getModelSubstitute() == null) {
+            return "";
+        }
+        InputStream in = getClass().getResourceAsStream(apiSource.getModelSubstitute());
+        if (in == null) {
+            throw new GenerateException("Cannot find the model substitution file " + apiSource.getModelSubstitute());
+        }
+        try {
+            try {
+                return HashUtils.md5Hex(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new GenerateException(e);
+        }
+    }
+
     /**
      * validate configuration according to swagger spec and plugin requirement
      *
@@ -119,10 +470,6 @@ public class ApiDocumentMojo extends AbstractMojo {
             throw new GenerateException("`<info><license><name>` is required by Swagger Spec.");
         }
 
-        if (apiSource.getLocations() == null) {
-            throw new GenerateException("<locations> is required by this plugin.");
-        }
-
     }
 
     private boolean useSwaggerSpec11() {
@@ -1,16 +1,16 @@
 package com.github.kongchen.swagger.docgen.mavenplugin;
 
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
 import com.github.kongchen.swagger.docgen.GenerateException;
+import com.github.kongchen.swagger.docgen.discovery.ClassDiscovery;
 import io.swagger.annotations.Api;
 import io.swagger.models.Info;
 import java.util.ArrayList;
 import java.util.Iterator;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.reflections.Reflections;
 
 /**
  * Created with IntelliJ IDEA.
@@ -22,8 +22,9 @@ public class ApiSource {
     /**
      * Java classes containing Swagger's annotation <code>@Api</code>, or Java packages containing those classes
      * can be configured here, use ; as the delimiter if you have more than one location.
+     * If not set, the default scope of the class discovery is searched.
      */
-    @Parameter(required = true)
+    @Parameter
     private String locations;
 
     @Parameter(name = "info", required = true)
@@ -92,25 +93,42 @@ public class ApiSource {
 
     @Parameter
     private List<String> typesToSkip = new ArrayList<String>();
+
+    private ClassDiscovery classDiscovery;
     
     public Set<Class<?>> getValidClasses() throws GenerateException {
-        Set<Class<?>> classes = new HashSet<Class<?>>();
         if (getLocations() == null) {
-            Set<Class<?>> c = new Reflections("").getTypesAnnotatedWith(Api.class);
-            classes.addAll(c);
-        } else {
-            if (locations.contains(";")) {
-                String[] sources = locations.split(";");
-                for (String source : sources) {
-                    Set<Class<?>> c = new Reflections(source).getTypesAnnotatedWith(Api.class);
-                    classes.addAll(c);
-                }
-            } else {
-                classes.addAll(new Reflections(locations).getTypesAnnotatedWith(Api.class));
-            }
+            return getClassDiscovery().getTypesAnnotatedWith(Api.class);
+        }
+        return getClassDiscovery().getTypesAnnotatedWith(getLocationList(), Api.class);
+    }
+
+    /**
+     * Same as {@link #getValidClasses()}, but gives the names of the classes without loading them.
+     */
+    public Set<String> getValidClassNames() throws GenerateException {
+        if (getLocations() == null) {
+            return getClassDiscovery().getTypeNamesAnnotatedWith(Api.class.getName());
         }
-        
-        return classes;
+        return getClassDiscovery().getTypeNamesAnnotatedWith(getLocationList(), Api.class.getName());
+    }
+
+    /**
+     * @return the configured locations, or null if there are none
+     */
+    public List<String> getLocationList() {
+        return locations == null ? null : Arrays.asList(locations.split(";"));
+    }
+
+    public ClassDiscovery getClassDiscovery() {
+        if (classDiscovery == null) {
+            classDiscovery = new ClassDiscovery();
+        }
+        return classDiscovery;
+    }
+
+    public void setClassDiscovery(ClassDiscovery classDiscovery) {
+        this.classDiscovery = classDiscovery;
     }
 
     public List<SecurityDefinition> getSecurityDefinitions() {
@@ -36,7 +36,10 @@ public class IncludeProjectDependenciesComponentConfigurator extends AbstractCom
                                     ConfigurationListener listener )
             throws ComponentConfigurationException {
 
-        addProjectDependenciesToClassRealm(expressionEvaluator, containerRealm);
+        // the classes are then read from their class files, outside of the realm
+        if (!isReadClassFiles(configuration, expressionEvaluator)) {
+            addProjectDependenciesToClassRealm(expressionEvaluator, containerRealm);
+        }
 
         ObjectWithFieldsConverter converter = new ObjectWithFieldsConverter();
 
@@ -45,6 +48,19 @@ public class IncludeProjectDependenciesComponentConfigurator extends AbstractCom
 
     }
 
+    private boolean isReadClassFiles(PlexusConfiguration configuration, ExpressionEvaluator expressionEvaluator) throws ComponentConfigurationException {
+        PlexusConfiguration readClassFiles = configuration.getChild("readClassFiles", false);
+        if (readClassFiles == null) {
+            return false;
+        }
+        try {
+            Object value = expressionEvaluator.evaluate(readClassFiles.getValue(readClassFiles.getAttribute("default-value", null)));
+            return value != null && Boolean.parseBoolean(value.toString());
+        } catch (ExpressionEvaluationException e) {
+            throw new ComponentConfigurationException("There was a problem evaluating: readClassFiles", e);
+        }
+    }
+
     private void addProjectDependenciesToClassRealm(ExpressionEvaluator expressionEvaluator, ClassRealm containerRealm) throws ComponentConfigurationException {
         List<String> compileClasspathElements;
         try {
@@ -3,19 +3,14 @@ package com.github.kongchen.swagger.docgen.mavenplugin;
 import com.github.kongchen.swagger.docgen.AbstractDocumentSource;
 import com.github.kongchen.swagger.docgen.GenerateException;
 import com.github.kongchen.swagger.docgen.LogAdapter;
+import com.github.kongchen.swagger.docgen.reader.ClassSwaggerReader;
 import com.github.kongchen.swagger.docgen.reader.SpringMvcApiReader;
 import io.swagger.config.FilterFactory;
 import io.swagger.core.filter.SpecFilter;
 import io.swagger.core.filter.SwaggerSpecFilter;
-import io.swagger.models.auth.SecuritySchemeDefinition;
+import io.swagger.models.Swagger;
 import org.apache.maven.plugin.logging.Log;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-
 /**
  * @author tedleman
  *         01/21/15
@@ -31,6 +26,15 @@ public class SpringMavenDocumentSource extends AbstractDocumentSource {
 
     }
 
+    @Override
+    protected ClassSwaggerReader createReader(Swagger swagger) {
+        SpringMvcApiReader reader = new SpringMvcApiReader(swagger, LOG);
+        reader.setTypesToSkip(this.typesToSkip);
+        reader.setParallelism(this.readParallelism);
+        reader.setInterner(this.interner);
+        return reader;
+    }
+
     @Override
     public void loadDocuments() throws GenerateException {
         if (apiSource.getSwaggerInternalFilter() != null) {
@@ -42,33 +46,12 @@ public class SpringMavenDocumentSource extends AbstractDocumentSource {
             }
         }
         
-        SpringMvcApiReader reader = new SpringMvcApiReader(swagger, LOG);
-        reader.setTypesToSkip(this.typesToSkip);
-        swagger = reader.read(apiSource.getValidClasses());
-        
-        if(apiSource.getSecurityDefinitions() != null) {
-            for (SecurityDefinition sd : apiSource.getSecurityDefinitions()) {
-                if(sd.getDefinitions().isEmpty()) {
-                    continue;
-                }
-                Iterator<Map.Entry<String, SecuritySchemeDefinition>> it = sd.getDefinitions().entrySet().iterator();
-                while (it.hasNext()) {
-                    Map.Entry<String, SecuritySchemeDefinition> entry = it.next();
-                    swagger.addSecurityDefinition(entry.getKey(), entry.getValue());
-                }
-            }
-            // sort security defs to make output consistent
-            Map<String, SecuritySchemeDefinition> defs = swagger.getSecurityDefinitions();
-            Map<String, SecuritySchemeDefinition> sortedDefs = new TreeMap<String, SecuritySchemeDefinition>();
-            sortedDefs.putAll(defs);
-            swagger.setSecurityDefinitions(sortedDefs);
+        swagger = read(apiSource.getValidClasses());
 
-        }
+        addSecurityDefinitions();
 
         if (FilterFactory.getFilter() != null) {
-            swagger = new SpecFilter().filter(swagger, FilterFactory.getFilter(),
-                    new HashMap<String, List<String>>(), new HashMap<String, String>(),
-                    new HashMap<String, List<String>>());
+            filter(FilterFactory.getFilter());
         }
 
 
@@ -1,12 +1,15 @@
 package com.github.kongchen.swagger.docgen.reader;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.kongchen.swagger.docgen.GenerateException;
 import com.github.kongchen.swagger.docgen.LogAdapter;
+import com.github.kongchen.swagger.docgen.Utils;
+import com.github.kongchen.swagger.docgen.incremental.DependencyRecorder;
 import com.github.kongchen.swagger.docgen.jaxrs.BeanParamInjectParamExtention;
 import com.github.kongchen.swagger.docgen.jaxrs.JaxrsParameterExtension;
 import com.github.kongchen.swagger.docgen.spring.SpringSwaggerExtension;
+import com.github.kongchen.swagger.docgen.util.SwaggerInterner;
 import io.swagger.annotations.*;
-import io.swagger.converter.ModelConverters;
 import io.swagger.jaxrs.ParameterProcessor;
 import io.swagger.jaxrs.ext.SwaggerExtension;
 import io.swagger.jaxrs.ext.SwaggerExtensions;
@@ -41,10 +44,17 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.commons.lang3.reflect.TypeUtils;
 import org.springframework.core.annotation.AnnotationUtils;
 
@@ -55,6 +65,11 @@ public abstract class AbstractReader {
     protected final LogAdapter LOG;
     protected Swagger swagger;
     protected Set<Type> typesToSkip = new HashSet<Type>();
+    protected int parallelism = 1;
+    protected SwaggerInterner interner;
+    protected Map<Class<?>, ClassDescriptor> classDescriptors = new ConcurrentHashMap<Class<?>, ClassDescriptor>();
+    protected Map<ParameterTemplate.Signature, ParameterTemplate> parameterTemplates =
+            new ConcurrentHashMap<ParameterTemplate.Signature, ParameterTemplate>();
 
     public Set<Type> getTypesToSkip() {
         return typesToSkip;
@@ -72,6 +87,30 @@ public abstract class AbstractReader {
         this.typesToSkip.add(type);
     }
        
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Number of threads reading at the same time, each into its own Swagger fragment.
+     * The fragments are merged in the order the sequential read would have used.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public SwaggerInterner getInterner() {
+        return interner;
+    }
+
+    /**
+     * Makes the properties and inline schemas of the document that are the same share one instance, see
+     * {@link SwaggerInterner}. Each API class is then read into its own fragment, interned as it is merged.
+     */
+    public void setInterner(SwaggerInterner interner) {
+        this.interner = interner;
+    }
+
     public AbstractReader(Swagger swagger, LogAdapter LOG) {
         this.swagger = swagger;
         this.LOG = LOG;
@@ -141,6 +180,44 @@ public abstract class AbstractReader {
         return operationPath;
     }
 
+    /**
+     * @return the path of an operation from the values of the JAX-RS <code>@Path</code> of its class and of its
+     * method under <code>parentPath</code>, or null if it has neither
+     */
+    protected String getPath(String classLevelPath, String methodLevelPath, String parentPath) {
+        if (classLevelPath == null && methodLevelPath == null)
+            return null;
+        StringBuilder b = new StringBuilder();
+        if (parentPath != null && !"".equals(parentPath) && !"/".equals(parentPath)) {
+            if (!parentPath.startsWith("/"))
+                parentPath = "/" + parentPath;
+            if (parentPath.endsWith("/"))
+                parentPath = parentPath.substring(0, parentPath.length() - 1);
+
+            b.append(parentPath);
+        }
+        if (classLevelPath != null) {
+            b.append(classLevelPath);
+        }
+        if (methodLevelPath != null && !"/".equals(methodLevelPath)) {
+            String methodPath = methodLevelPath;
+            if (!methodPath.startsWith("/") && !b.toString().endsWith("/")) {
+                b.append("/");
+            }
+            if (methodPath.endsWith("/")) {
+                methodPath = methodPath.substring(0, methodPath.length() - 1);
+            }
+            b.append(methodPath);
+        }
+        String output = b.toString();
+        if (!output.startsWith("/"))
+            output = "/" + output;
+        if (output.endsWith("/") && output.length() > 1)
+            return output.substring(0, output.length() - 1);
+        else
+            return output;
+    }
+
     protected void updateOperationParameters(List<Parameter> parentParameters, Map<String, String> regexMap, Operation operation) {
         if (parentParameters != null) {
             for (Parameter param : parentParameters) {
@@ -169,7 +246,7 @@ public abstract class AbstractReader {
 
                     if (!cls.equals(Void.class) && !"void".equals(cls.toString())) {
                         Property responseProperty = null;
-                        Property property = ModelConverters.getInstance().readAsProperty(cls);
+                        Property property = ReaderCaches.readAsProperty(cls);
                         if (property != null) {
                             if ("list".equalsIgnoreCase(container))
                                 responseProperty = new ArrayProperty(property);
@@ -200,6 +277,117 @@ public abstract class AbstractReader {
         path.set(httpMethod, operation);
     }
 
+    /**
+     * @return the descriptor of <code>method</code> read from <code>cls</code>, which declares or inherits it,
+     * resolved the first time it is asked for
+     */
+    protected MethodDescriptor describe(Class<?> cls, Method method) {
+        return describe(cls).describe(method);
+    }
+
+    /**
+     * @return the descriptor of <code>method</code> read from the class declaring it
+     */
+    protected MethodDescriptor describe(Method method) {
+        return describe(method.getDeclaringClass(), method);
+    }
+
+    /**
+     * @return the descriptor of <code>cls</code>, resolved the first time it is asked for
+     */
+    protected ClassDescriptor describe(Class<?> cls) {
+        ClassDescriptor descriptor = classDescriptors.get(cls);
+        if (descriptor == null) {
+            descriptor = new ClassDescriptor(cls);
+            classDescriptors.put(cls, descriptor);
+        }
+        return descriptor;
+    }
+
+    /**
+     * Lets <code>reader</code>, reading part of the same document, use what this reader resolved.
+     */
+    protected void shareCaches(AbstractReader reader) {
+        reader.classDescriptors = classDescriptors;
+        reader.parameterTemplates = parameterTemplates;
+    }
+
+    /**
+     * Runs <code>tasks</code>, each reading part of the document into its own fragment, on <code>parallelism</code>
+     * threads with the {@link ReaderCaches} of the calling thread, or on the calling thread itself. The fragments
+     * are merged in the order of <code>tasks</code>, each one as soon as it is read, and the tasks removed, so
+     * none is kept once merged.
+     *
+     * @param tasks keyed by what they read, for the error messages
+     */
+    protected void mergeAll(Map<String, Callable<Swagger>> tasks) throws GenerateException {
+        if (parallelism <= 1) {
+            for (Iterator<Map.Entry<String, Callable<Swagger>>> it = tasks.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Callable<Swagger>> task = it.next();
+                it.remove();
+                try {
+                    mergeFragment(task.getValue().call(), task.getKey());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new GenerateException("Cannot read " + task.getKey(), e);
+                }
+            }
+            return;
+        }
+        final ReaderCaches caches = ReaderCaches.current();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()));
+        try {
+            Map<String, Future<Swagger>> futures = new LinkedHashMap<String, Future<Swagger>>();
+            for (Iterator<Map.Entry<String, Callable<Swagger>>> it = tasks.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Callable<Swagger>> task = it.next();
+                it.remove();
+                final Callable<Swagger> callable = task.getValue();
+                futures.put(task.getKey(), executor.submit(new Callable<Swagger>() {
+                    @Override
+                    public Swagger call() throws Exception {
+                        ReaderCaches.setCurrent(caches);
+                        try {
+                            return callable.call();
+                        } finally {
+                            ReaderCaches.setCurrent(null);
+                        }
+                    }
+                }));
+            }
+            for (Iterator<Map.Entry<String, Future<Swagger>>> it = futures.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Future<Swagger>> future = it.next();
+                it.remove();
+                Swagger fragment;
+                try {
+                    fragment = future.getValue().get();
+                } catch (ExecutionException e) {
+                    throw new GenerateException("Cannot read " + future.getKey(), e.getCause());
+                }
+                mergeFragment(fragment, future.getKey());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerateException("Interrupted while reading the API classes", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds a fragment read on its own to {@link #swagger}, warning about the operations and
+     * definitions it replaces with different ones. The fragment is interned first, so what it
+     * holds twice is dropped with it.
+     */
+    protected void mergeFragment(Swagger fragment, String source) {
+        if (interner != null) {
+            interner.intern(fragment);
+        }
+        for (String conflict : Utils.mergeSwagger(swagger, fragment)) {
+            LOG.warn("Conflicting " + conflict + " read from " + source + ", replacing the one read before");
+        }
+    }
+
     protected void updateTagsForOperation(Operation operation, ApiOperation op) {
         if (op != null) {
             boolean hasExplicitTag = false;
@@ -266,20 +454,20 @@ public abstract class AbstractReader {
     boolean isPrimitive(Class<?> cls) {
         boolean out = false;
 
-        Property property = ModelConverters.getInstance().readAsProperty(cls);
-        if (property == null)
+        String type = ReaderCaches.getPropertyType(cls);
+        if (type == null)
             out = false;
-        else if ("integer".equals(property.getType()))
+        else if ("integer".equals(type))
             out = true;
-        else if ("string".equals(property.getType()))
+        else if ("string".equals(type))
             out = true;
-        else if ("number".equals(property.getType()))
+        else if ("number".equals(type))
             out = true;
-        else if ("boolean".equals(property.getType()))
+        else if ("boolean".equals(type))
             out = true;
-        else if ("array".equals(property.getType()))
+        else if ("array".equals(type))
             out = true;
-        else if ("file".equals(property.getType()))
+        else if ("file".equals(type))
             out = true;
         return out;
     }
@@ -309,8 +497,58 @@ public abstract class AbstractReader {
         }
     }
 
+    /**
+     * Extracts the parameters of a method parameter, once for all method parameters with the same
+     * type and annotations, and the same types to skip. Those of a primitive or a string are extracted
+     * every time, which is about as fast as copying them.
+     */
     protected List<Parameter> getParameters(Type type, List<Annotation> annotations) {
-                
+        if (PropertyCache.isTrivial(type)) {
+            return extractParameters(swagger, type, annotations);
+        }
+        ParameterTemplate.Signature signature = new ParameterTemplate.Signature(type, annotations, typesToSkip);
+        ParameterTemplate template = parameterTemplates.get(signature);
+        if (template == null || !template.isReusable()) {
+            Swagger definitions = new Swagger();
+            List<Parameter> parameters;
+            Set<Class<?>> dependencies = null;
+            boolean recording = DependencyRecorder.isRecording();
+            if (recording) {
+                DependencyRecorder.start();
+            }
+            try {
+                parameters = extractParameters(definitions, type, annotations);
+            } finally {
+                if (recording) {
+                    dependencies = DependencyRecorder.stop();
+                }
+            }
+            template = new ParameterTemplate(parameters, definitions.getDefinitions()).dependencies(dependencies);
+            parameterTemplates.put(signature, template);
+            if (!template.isCopyable()) {
+                addDefinitions(template.getDefinitions());
+                return parameters;
+            }
+        } else if (!template.isCopyable()) {
+            return extractParameters(swagger, type, annotations);
+        } else {
+            DependencyRecorder.recordAll(template.getDependencies());
+        }
+        addDefinitions(template.getDefinitions());
+        return template.getParameters();
+    }
+
+    private void addDefinitions(Map<String, Model> definitions) {
+        for (Map.Entry<String, Model> definition : definitions.entrySet()) {
+            swagger.addDefinition(definition.getKey(), definition.getValue());
+        }
+    }
+
+    /**
+     * Runs the swagger extensions on a method parameter, adding the models of body parameters to
+     * <code>definitions</code>.
+     */
+    private List<Parameter> extractParameters(Swagger definitions, Type type, List<Annotation> annotations) {
         Iterator<SwaggerExtension> chain = SwaggerExtensions.chain();
         List<Parameter> parameters = new ArrayList<Parameter>();
         Class<?> cls = TypeUtils.getRawType(type, type);
@@ -324,13 +562,13 @@ public abstract class AbstractReader {
 
         if (parameters.size() > 0) {
             for (Parameter parameter : parameters) {
-                ParameterProcessor.applyAnnotations(swagger, parameter, type, annotations);
+                ParameterProcessor.applyAnnotations(definitions, parameter, type, annotations);
             }
         } else {
             // look for body parameters
             LOG.info("Looking for body params in " + cls);
             if (typesToSkip.contains(type) == false) {
-                Parameter param = ParameterProcessor.applyAnnotations(swagger, null, type, annotations);
+                Parameter param = ParameterProcessor.applyAnnotations(definitions, null, type, annotations);
                 if (param != null) {
                     parameters.add(param);
                 }
@@ -363,12 +601,12 @@ public abstract class AbstractReader {
                 operation.response(apiResponse.code(), response);
             
             if (responseClass != null && !responseClass.equals(Void.class)) {
-                Map<String, Model> models = ModelConverters.getInstance().read(responseClass);
+                Map<String, Model> models = ReaderCaches.read(responseClass);
                 for (String key : models.keySet()) {
                     response.schema(new RefProperty().asDefault(key));
                     swagger.model(key, models.get(key));
                 }
-                models = ModelConverters.getInstance().readAll(responseClass);
+                models = ReaderCaches.readAll(responseClass);
                 for (String key : models.keySet()) {
                     swagger.model(key, models.get(key));
                 }
@@ -400,14 +638,15 @@ public abstract class AbstractReader {
         return apiConsumes;
     }
 
-        protected void readImplicitParameters(Method method, Operation operation) {
-        ApiImplicitParams implicitParams = method.getAnnotation(ApiImplicitParams.class);
+        protected void readImplicitParameters(MethodDescriptor descriptor, Operation operation) {
+        Method method = descriptor.getMethod();
+        ApiImplicitParams implicitParams = descriptor.getApiImplicitParams();
         if (implicitParams != null && implicitParams.value().length > 0) {
             for (ApiImplicitParam param : implicitParams.value()) {
                 
                 Class<?> cls = null;
                 try {
-                    cls = Class.forName(param.dataType());
+                    cls = Class.forName(param.dataType(), false, AbstractReader.class.getClassLoader());
                 } catch (ClassNotFoundException e) {
                     cls = method.getDeclaringClass();
                 }               
@@ -0,0 +1,70 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import com.github.kongchen.swagger.docgen.incremental.DependencyRecorder;
+import io.swagger.models.parameters.Parameter;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The parameters the swagger extensions extract from the fields or properties of a bean parameter,
+ * such as a JAX-RS <code>@BeanParam</code> or a Spring <code>@ModelAttribute</code>, so each bean is
+ * introspected once however many methods take it.
+ *
+ * Each caller gets its own copy of the parameters, see {@link ParameterTemplate}. Beans whose
+ * parameters are not copyable are introspected every time. While the dependencies of an API class
+ * are being recorded, a bean is introspected under its own {@link DependencyRecorder} recording, which
+ * is recorded again each time its parameters are reused.
+ *
+ * The parameters depend on the model converters, so the cache is cleared whenever they may change.
+ * It is one of the {@link ReaderCaches} of a document source.
+ */
+public final class BeanParameterCache {
+    private final Map<List<Class<?>>, ParameterTemplate> templates =
+            new ConcurrentHashMap<List<Class<?>>, ParameterTemplate>();
+
+    public void clear() {
+        templates.clear();
+    }
+
+    /**
+     * @param kind the annotation marking the bean parameter, as beans are read differently for each
+     * @return copies of the parameters <code>extractor</code> extracts from <code>bean</code>
+     */
+    public List<Parameter> getParameters(Class<? extends Annotation> kind, Class<?> bean, Extractor extractor) {
+        List<Class<?>> key = Arrays.<Class<?>>asList(kind, bean);
+        ParameterTemplate template = templates.get(key);
+        if (template == null || !template.isReusable()) {
+            return extract(key, bean, extractor);
+        }
+        DependencyRecorder.recordAll(template.getDependencies());
+        return template.isCopyable() ? template.getParameters() : extractor.extractParameters(bean);
+    }
+
+    private List<Parameter> extract(List<Class<?>> key, Class<?> bean, Extractor extractor) {
+        if (!DependencyRecorder.isRecording()) {
+            List<Parameter> parameters = extractor.extractParameters(bean);
+            templates.put(key, new ParameterTemplate(parameters, null));
+            return parameters;
+        }
+        List<Parameter> parameters;
+        Set<Class<?>> dependencies;
+        DependencyRecorder.start();
+        try {
+            DependencyRecorder.record(bean);
+            parameters = extractor.extractParameters(bean);
+        } finally {
+            dependencies = DependencyRecorder.stop();
+        }
+        templates.put(key, new ParameterTemplate(parameters, null).dependencies(dependencies));
+        return parameters;
+    }
+
+    public interface Extractor {
+        List<Parameter> extractParameters(Class<?> bean);
+    }
+}
@@ -0,0 +1,246 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import io.swagger.annotations.Api;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The annotations of a resource class the readers look at, resolved once over the class, its
+ * superclasses and then the interfaces they implement, the first one found being used.
+ *
+ * It also indexes the methods of these super types by their parameter types as seen from the class,
+ * with the type arguments it gives them, so the annotations of a method can be looked up on the
+ * methods it overrides or implements without walking the hierarchy again. The descriptors of the
+ * methods of the class are kept here, as they depend on the class they are read from.
+ */
+public final class ClassDescriptor {
+    private final Class<?> cls;
+    private final List<Class<?>> hierarchy;
+    private final Map<TypeVariable<?>, Type> typeArguments;
+    private final Map<String, List<Method>> superMethods;
+    private final Map<Method, MethodDescriptor> methodDescriptors = new ConcurrentHashMap<Method, MethodDescriptor>();
+    private final Api api;
+    private final Path path;
+    private final Consumes consumes;
+    private final Produces produces;
+    private final RequestMapping requestMapping;
+
+    public ClassDescriptor(Class<?> cls) {
+        this.cls = cls;
+        this.hierarchy = Collections.unmodifiableList(readHierarchy(cls));
+        this.typeArguments = readTypeArguments(cls);
+        this.superMethods = indexSuperMethods();
+        this.api = find(Api.class);
+        this.path = find(Path.class);
+        this.consumes = find(Consumes.class);
+        this.produces = find(Produces.class);
+        this.requestMapping = find(RequestMapping.class);
+    }
+
+    private static List<Class<?>> readHierarchy(Class<?> cls) {
+        Set<Class<?>> types = new LinkedHashSet<Class<?>>();
+        types.add(cls);
+        for (Class<?> c = cls.getSuperclass(); c != null && c != Object.class; c = c.getSuperclass()) {
+            types.add(c);
+        }
+        LinkedList<Class<?>> queue = new LinkedList<Class<?>>(types);
+        while (!queue.isEmpty()) {
+            for (Class<?> interfaceClass : queue.removeFirst().getInterfaces()) {
+                if (types.add(interfaceClass)) {
+                    queue.add(interfaceClass);
+                }
+            }
+        }
+        return new ArrayList<Class<?>>(types);
+    }
+
+    /**
+     * @return the type arguments the class gives to the type parameters of its super types, directly
+     * or through those of the super types in between
+     */
+    private static Map<TypeVariable<?>, Type> readTypeArguments(Class<?> cls) {
+        Map<TypeVariable<?>, Type> arguments = new HashMap<TypeVariable<?>, Type>();
+        Set<Class<?>> visited = new HashSet<Class<?>>();
+        LinkedList<Type> queue = new LinkedList<Type>();
+        queue.add(cls);
+        while (!queue.isEmpty()) {
+            Type type = queue.removeFirst();
+            Class<?> raw;
+            if (type instanceof ParameterizedType) {
+                ParameterizedType parameterizedType = (ParameterizedType) type;
+                raw = (Class<?>) parameterizedType.getRawType();
+                TypeVariable<?>[] variables = raw.getTypeParameters();
+                Type[] actual = parameterizedType.getActualTypeArguments();
+                for (int i = 0; i < variables.length && i < actual.length; i++) {
+                    if (!arguments.containsKey(variables[i])) {
+                        arguments.put(variables[i], actual[i]);
+                    }
+                }
+            } else if (type instanceof Class) {
+                raw = (Class<?>) type;
+            } else {
+                continue;
+            }
+            if (!visited.add(raw)) {
+                continue;
+            }
+            if (raw.getGenericSuperclass() != null) {
+                queue.add(raw.getGenericSuperclass());
+            }
+            queue.addAll(Arrays.asList(raw.getGenericInterfaces()));
+        }
+        return arguments;
+    }
+
+    private Map<String, List<Method>> indexSuperMethods() {
+        Map<String, List<Method>> index = new HashMap<String, List<Method>>();
+        for (Class<?> type : hierarchy.subList(1, hierarchy.size())) {
+            for (Method method : type.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isPrivate(modifiers) || method.isSynthetic()) {
+                    continue;
+                }
+                String signature = signature(method);
+                List<Method> methods = index.get(signature);
+                if (methods == null) {
+                    methods = new ArrayList<Method>();
+                    index.put(signature, methods);
+                }
+                methods.add(method);
+            }
+        }
+        for (Map.Entry<String, List<Method>> entry : index.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return index;
+    }
+
+    /**
+     * @return the name and the erased parameter types of <code>method</code> once the type parameters of
+     * its declaring class are replaced by the type arguments of this class, the same for a generic method
+     * and the method of this class implementing it
+     */
+    private String signature(Method method) {
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        for (Type type : method.getGenericParameterTypes()) {
+            signature.append(erase(type).getName()).append(',');
+        }
+        return signature.append(')').toString();
+    }
+
+    private Class<?> erase(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        } else if (type instanceof GenericArrayType) {
+            return Array.newInstance(erase(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        } else if (type instanceof TypeVariable) {
+            Type argument = typeArguments.get(type);
+            return erase(argument != null ? argument : ((TypeVariable<?>) type).getBounds()[0]);
+        } else if (type instanceof WildcardType) {
+            return erase(((WildcardType) type).getUpperBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    private <A extends Annotation> A find(Class<A> annotationClass) {
+        for (Class<?> type : hierarchy) {
+            A annotation = type.getAnnotation(annotationClass);
+            if (annotation != null) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    public Class<?> getDescribedClass() {
+        return cls;
+    }
+
+    /**
+     * @return the class, its superclasses and the interfaces they implement, leaving out <code>Object</code>
+     * unless it is the class itself
+     */
+    public List<Class<?>> getHierarchy() {
+        return hierarchy;
+    }
+
+    /**
+     * @return the methods of the super types which <code>method</code>, one of the methods of the class,
+     * overrides or implements, nearest first; none for bridge methods, which only repeat the method they
+     * bridge to
+     */
+    public List<Method> getOverriddenMethods(Method method) {
+        List<Method> methods = method.isBridge() ? null : superMethods.get(signature(method));
+        if (methods == null) {
+            return Collections.emptyList();
+        }
+        if (!methods.contains(method)) {
+            return methods;
+        }
+        // inherited from a super type, which is indexed as well
+        List<Method> others = new ArrayList<Method>(methods);
+        others.remove(method);
+        return others;
+    }
+
+    /**
+     * @return the descriptor of <code>method</code>, one of the methods of the class, resolved the first
+     * time it is asked for
+     */
+    public MethodDescriptor describe(Method method) {
+        MethodDescriptor descriptor = methodDescriptors.get(method);
+        if (descriptor == null) {
+            descriptor = new MethodDescriptor(method, this);
+            methodDescriptors.put(method, descriptor);
+        }
+        return descriptor;
+    }
+
+    public Api getApi() {
+        return api;
+    }
+
+    /**
+     * @return the JAX-RS <code>@Path</code> of the class
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    public Consumes getConsumes() {
+        return consumes;
+    }
+
+    public Produces getProduces() {
+        return produces;
+    }
+
+    public RequestMapping getRequestMapping() {
+        return requestMapping;
+    }
+}
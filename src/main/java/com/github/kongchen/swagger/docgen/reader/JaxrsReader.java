@@ -1,16 +1,16 @@
 package com.github.kongchen.swagger.docgen.reader;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.kongchen.swagger.docgen.GenerateException;
 import com.github.kongchen.swagger.docgen.LogAdapter;
 import com.github.kongchen.swagger.docgen.jaxrs.BeanParamInjectParamExtention;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
-import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import io.swagger.annotations.Authorization;
 import io.swagger.annotations.AuthorizationScope;
-import io.swagger.converter.ModelConverters;
-import io.swagger.jaxrs.PATCH;
 import io.swagger.jaxrs.ext.SwaggerExtension;
 import io.swagger.jaxrs.ext.SwaggerExtensions;
 import io.swagger.models.Model;
@@ -29,34 +29,63 @@ import io.swagger.util.Json;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.ws.rs.Consumes;
-import javax.ws.rs.HttpMethod;
-import javax.ws.rs.Produces;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
 
 public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
     Logger LOGGER = LoggerFactory.getLogger(JaxrsReader.class);
 
     static ObjectMapper m = Json.mapper();
 
+    // sub-resources are read once under this parent path, which is replaced by the path of each parent reaching them
+    private static final String PARENT_PATH = "/\u0000";
+
+    private final Map<String, List<SubResourceOperation>> subResources = new HashMap<String, List<SubResourceOperation>>();
+    private final LinkedList<Class<?>> reading = new LinkedList<Class<?>>();
+    private List<SubResourceOperation> recording;
+    private int cyclesCut;
+
     public JaxrsReader(Swagger swagger, LogAdapter LOG) {
         super(swagger, LOG);
 
     }
 
     @Override
-    public Swagger read(Set<Class<?>> classes) {
-        for (Class cls : classes)
-            read(cls);
+    public Swagger read(Set<Class<?>> classes) throws GenerateException {
+        if (interner == null && (parallelism <= 1 || classes.size() <= 1)) {
+            for (Class cls : classes)
+                read(cls);
+            return swagger;
+        }
+
+        // each class is read into its own fragment, interned as it is merged, the readers are created here as
+        // they reset the extensions
+        Map<String, Callable<Swagger>> tasks = new LinkedHashMap<String, Callable<Swagger>>();
+        for (final Class<?> cls : classes) {
+            final JaxrsReader reader = new JaxrsReader(new Swagger(), LOG);
+            reader.setTypesToSkip(new HashSet<Type>(typesToSkip));
+            shareCaches(reader);
+            tasks.put(cls.getName(), new Callable<Swagger>() {
+                @Override
+                public Swagger call() {
+                    return reader.read(cls);
+                }
+            });
+        }
+        mergeAll(tasks);
         return swagger;
     }
 
@@ -65,16 +94,22 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
     }
 
     public Swagger read(Class cls) {
-        return read(cls, "", null, false, new String[0], new String[0], new HashMap<String, Tag>(), new ArrayList<Parameter>());
+        reading.addLast(cls);
+        try {
+            return read(cls, "", null, false, new String[0], new String[0], new HashMap<String, Tag>(), new ArrayList<Parameter>());
+        } finally {
+            reading.removeLast();
+        }
     }
 
     protected Swagger read(Class<?> cls, String parentPath, String parentMethod, boolean readHidden, String[] parentConsumes, String[] parentProduces, Map<String, Tag> parentTags, List<Parameter> parentParameters) {
         if (swagger == null)
             swagger = new Swagger();
-        Api api = cls.getAnnotation(Api.class);
+        ClassDescriptor classDescriptor = describe(cls);
+        Api api = classDescriptor.getApi();
         Map<String, SecurityScope> globalScopes = new HashMap<String, SecurityScope>();
 
-        javax.ws.rs.Path apiPath = cls.getAnnotation(javax.ws.rs.Path.class);
+        javax.ws.rs.Path apiPath = classDescriptor.getPath();
 
         // only read if allowing hidden apis OR api is not marked as hidden
         if (!canReadApi(readHidden, api)) {
@@ -94,18 +129,19 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
         // parse the method
         Method methods[] = cls.getMethods();
         for (Method method : methods) {
+            MethodDescriptor descriptor = describe(cls, method);
 
-            ApiOperation apiOperation = method.getAnnotation(ApiOperation.class);
-            javax.ws.rs.Path methodPath = method.getAnnotation(javax.ws.rs.Path.class);
+            ApiOperation apiOperation = descriptor.getApiOperation();
+            javax.ws.rs.Path methodPath = descriptor.getPath();
 
             String operationPath = getPath(apiPath, methodPath, parentPath);
             if (operationPath != null && apiOperation != null) {
                 Map<String, String> regexMap = new HashMap<String, String>();
                 operationPath = parseOperationPath(operationPath, regexMap);
 
-                String httpMethod = extractOperationMethod(apiOperation, method, SwaggerExtensions.chain());
+                String httpMethod = extractOperationMethod(apiOperation, descriptor);
 
-                Operation operation = parseMethod(method);
+                Operation operation = parseMethod(descriptor);
 
                 updateOperationParameters(parentParameters, regexMap, operation);
 
@@ -114,12 +150,10 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
                 String[] apiConsumes = new String[0];
                 String[] apiProduces = new String[0];
 
-                Annotation annotation = cls.getAnnotation(Consumes.class);
-                if (annotation != null)
-                    apiConsumes = ((Consumes) annotation).value();
-                annotation = cls.getAnnotation(Produces.class);
-                if (annotation != null)
-                    apiProduces = ((Produces) annotation).value();
+                if (classDescriptor.getConsumes() != null)
+                    apiConsumes = classDescriptor.getConsumes().value();
+                if (classDescriptor.getProduces() != null)
+                    apiProduces = classDescriptor.getProduces().value();
 
                 apiConsumes = updateOperationConsumes(parentConsumes, apiConsumes, operation);
                 apiProduces = updateOperationProduces(parentProduces, apiProduces, operation);
@@ -141,9 +175,83 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
 
     private void handleSubResource(String[] apiConsumes, String httpMethod, String[] apiProduces, Map<String, Tag> tags, Method method, String operationPath, Operation operation) {
         if (isSubResource(method)) {
-            Type t = method.getGenericReturnType();
             Class<?> responseClass = method.getReturnType();
-            Swagger subSwagger = read(responseClass, operationPath, httpMethod, true, apiConsumes, apiProduces, tags, operation.getParameters());
+            if (reading.contains(responseClass)) {
+                LOG.warn("Not reading sub-resource " + responseClass.getName() + " of " + method
+                        + " again, it is already being read: " + reading);
+                cyclesCut++;
+                return;
+            }
+            if ("".equals(operationPath)) {
+                // under the root path the sub-resource path is parsed on its own, it cannot be re-rooted
+                readSubResource(responseClass, operationPath, httpMethod, apiConsumes, apiProduces, tags, operation.getParameters());
+                return;
+            }
+
+            String key = subResourceKey(responseClass, httpMethod, apiConsumes, apiProduces, tags, operation.getParameters());
+            List<SubResourceOperation> operations = subResources.get(key);
+            boolean cached = operations != null;
+            if (!cached) {
+                List<SubResourceOperation> outerRecording = recording;
+                int outerCyclesCut = cyclesCut;
+                recording = new ArrayList<SubResourceOperation>();
+                try {
+                    readSubResource(responseClass, PARENT_PATH, httpMethod, apiConsumes, apiProduces, tags, operation.getParameters());
+                    operations = recording;
+                } finally {
+                    recording = outerRecording;
+                }
+                // what is read while a cycle is cut depends on where the sub-resource is reached from
+                if (cyclesCut == outerCyclesCut && isCopyable(operations)) {
+                    subResources.put(key, operations);
+                }
+            }
+            // the operations are changed per path afterwards, so every other parent gets its own copies
+            for (SubResourceOperation subResourceOperation : operations) {
+                updatePath(subResourceOperation.reroot(operationPath), subResourceOperation.httpMethod,
+                        cached ? subResourceOperation.copy() : subResourceOperation.operation);
+            }
+        }
+    }
+
+    private void readSubResource(Class<?> cls, String parentPath, String parentMethod, String[] parentConsumes, String[] parentProduces, Map<String, Tag> parentTags, List<Parameter> parentParameters) {
+        reading.addLast(cls);
+        try {
+            read(cls, parentPath, parentMethod, true, parentConsumes, parentProduces, parentTags, parentParameters);
+        } finally {
+            reading.removeLast();
+        }
+    }
+
+    /**
+     * Everything besides the parent path that what is read from a sub-resource depends on.
+     */
+    private static boolean isCopyable(List<SubResourceOperation> operations) {
+        for (SubResourceOperation operation : operations) {
+            if (!operation.copyable) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String subResourceKey(Class<?> cls, String parentMethod, String[] parentConsumes, String[] parentProduces, Map<String, Tag> parentTags, List<Parameter> parentParameters) {
+        try {
+            return cls.getName() + "|" + parentMethod + "|" + Arrays.asList(parentConsumes) + "|"
+                    + Arrays.asList(parentProduces) + "|" + new TreeSet<String>(parentTags.keySet()) + "|"
+                    + m.writeValueAsString(parentParameters);
+        } catch (JsonProcessingException e) {
+            // not expected from swagger models, just read the sub-resource again
+            return cls.getName() + "|" + System.identityHashCode(parentParameters);
+        }
+    }
+
+    @Override
+    protected void updatePath(String operationPath, String httpMethod, Operation operation) {
+        if (recording == null) {
+            super.updatePath(operationPath, httpMethod, operation);
+        } else if (httpMethod != null) {
+            recording.add(new SubResourceOperation(operationPath, httpMethod, operation));
         }
     }
 
@@ -157,44 +265,20 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
     }
 
     String getPath(javax.ws.rs.Path classLevelPath, javax.ws.rs.Path methodLevelPath, String parentPath) {
-        if (classLevelPath == null && methodLevelPath == null)
-            return null;
-        StringBuilder b = new StringBuilder();
-        if (parentPath != null && !"".equals(parentPath) && !"/".equals(parentPath)) {
-            if (!parentPath.startsWith("/"))
-                parentPath = "/" + parentPath;
-            if (parentPath.endsWith("/"))
-                parentPath = parentPath.substring(0, parentPath.length() - 1);
-
-            b.append(parentPath);
-        }
-        if (classLevelPath != null) {
-            b.append(classLevelPath.value());
-        }
-        if (methodLevelPath != null && !"/".equals(methodLevelPath.value())) {
-            String methodPath = methodLevelPath.value();
-            if (!methodPath.startsWith("/") && !b.toString().endsWith("/")) {
-                b.append("/");
-            }
-            if (methodPath.endsWith("/")) {
-                methodPath = methodPath.substring(0, methodPath.length() - 1);
-            }
-            b.append(methodPath);
-        }
-        String output = b.toString();
-        if (!output.startsWith("/"))
-            output = "/" + output;
-        if (output.endsWith("/") && output.length() > 1)
-            return output.substring(0, output.length() - 1);
-        else
-            return output;
+        return getPath(classLevelPath == null ? null : classLevelPath.value(),
+                methodLevelPath == null ? null : methodLevelPath.value(), parentPath);
     }
 
 
     public Operation parseMethod(Method method) {
+        return parseMethod(describe(method));
+    }
+
+    protected Operation parseMethod(MethodDescriptor descriptor) {
         Operation operation = new Operation();
+        Method method = descriptor.getMethod();
 
-        ApiOperation apiOperation = (ApiOperation) method.getAnnotation(ApiOperation.class);
+        ApiOperation apiOperation = descriptor.getApiOperation();
 
 
         String operationId = method.getName();
@@ -244,12 +328,7 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
         if (responseClass == null) {
             // pick out response from method declaration
             LOGGER.debug("picking up response class from method " + method);
-            Type t = method.getGenericReturnType();
-            responseClass = method.getReturnType();
-            if (!responseClass.equals(java.lang.Void.class) && !"void".equals(responseClass.toString()) && responseClass.getAnnotation(Api.class) == null) {
-                LOGGER.debug("reading model " + responseClass);
-                Map<String, Model> models = ModelConverters.getInstance().readAll(t);
-            }
+            responseClass = descriptor.getReturnType();
         }
         if (responseClass != null
                 && !responseClass.equals(java.lang.Void.class)
@@ -257,7 +336,7 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
                 && responseClass.getAnnotation(Api.class) == null) {
             if (isPrimitive(responseClass)) {
                 Property responseProperty = null;
-                Property property = ModelConverters.getInstance().readAsProperty(responseClass);
+                Property property = ReaderCaches.readAsProperty(responseClass);
                 if (property != null) {
                     if ("list".equalsIgnoreCase(responseContainer))
                         responseProperty = new ArrayProperty(property);
@@ -271,9 +350,9 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
                             .headers(defaultResponseHeaders));
                 }
             } else if (!responseClass.equals(java.lang.Void.class) && !"void".equals(responseClass.toString())) {
-                Map<String, Model> models = ModelConverters.getInstance().read(responseClass);
+                Map<String, Model> models = ReaderCaches.read(responseClass);
                 if (models.size() == 0) {
-                    Property p = ModelConverters.getInstance().readAsProperty(responseClass);
+                    Property p = ReaderCaches.readAsProperty(responseClass);
                     operation.response(200, new Response()
                             .description("successful operation")
                             .schema(p)
@@ -294,7 +373,7 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
                             .headers(defaultResponseHeaders));
                     swagger.model(key, models.get(key));
                 }
-                models = ModelConverters.getInstance().readAll(responseClass);
+                models = ReaderCaches.readAll(responseClass);
                 for (String key : models.keySet()) {
                     swagger.model(key, models.get(key));
                 }
@@ -303,45 +382,34 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
 
         operation.operationId(operationId);
 
-        Annotation annotation;
-        annotation = method.getAnnotation(Consumes.class);
-        if (annotation != null) {
-            String[] apiConsumes = ((Consumes) annotation).value();
+        if (descriptor.getConsumes() != null) {
+            String[] apiConsumes = descriptor.getConsumes().value();
             for (String mediaType : apiConsumes)
                 operation.consumes(mediaType);
         }
 
-        annotation = method.getAnnotation(Produces.class);
-        if (annotation != null) {
-            String[] apiProduces = ((Produces) annotation).value();
+        if (descriptor.getProduces() != null) {
+            String[] apiProduces = descriptor.getProduces().value();
             for (String mediaType : apiProduces)
                 operation.produces(mediaType);
         }
 
-        List<ApiResponse> apiResponses = new ArrayList<ApiResponse>();
-        ApiResponses responseAnnotation = method.getAnnotation(ApiResponses.class);
+        ApiResponses responseAnnotation = descriptor.getApiResponses();
         if (responseAnnotation != null) {
             updateApiResponse(operation, responseAnnotation);
         }
-        boolean isDeprecated = false;
-        annotation = method.getAnnotation(Deprecated.class);
-        if (annotation != null)
-            isDeprecated = true;
+        boolean isDeprecated = descriptor.isDeprecated();
 
         boolean hidden = false;
         if (apiOperation != null)
             hidden = apiOperation.hidden();
 
         // process parameters
-        Class[] parameterTypes = method.getParameterTypes();
-        Type[] genericParameterTypes = method.getGenericParameterTypes();
-        Annotation[][] paramAnnotations = method.getParameterAnnotations();
-        
-        // paramTypes = method.getParameterTypes
-        // genericParamTypes = method.getGenericParameterTypes
-        for (int i = 0; i < parameterTypes.length; i++) {
-            Type type = genericParameterTypes[i];
-            List<Annotation> annotations = Arrays.asList(paramAnnotations[i]);
+        List<Type> genericParameterTypes = descriptor.getGenericParameterTypes();
+        List<List<Annotation>> paramAnnotations = descriptor.getParameterAnnotations();
+        for (int i = 0; i < genericParameterTypes.size(); i++) {
+            Type type = genericParameterTypes.get(i);
+            List<Annotation> annotations = paramAnnotations.get(i);
             List<Parameter> parameters = getParameters(type, annotations);
 
             for (Parameter parameter : parameters) {
@@ -353,37 +421,74 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
         }
         
         // Process @ApiImplicitParams
-        this.readImplicitParameters(method, operation);
+        this.readImplicitParameters(descriptor, operation);
         
         return operation;
     }
 
+    private String extractOperationMethod(ApiOperation apiOperation, MethodDescriptor descriptor) {
+        if ("".equals(apiOperation.httpMethod()) && descriptor.getHttpMethod() != null)
+            return descriptor.getHttpMethod();
+        return extractOperationMethod(apiOperation, descriptor.getMethod(), SwaggerExtensions.chain());
+    }
+
 
     public String extractOperationMethod(ApiOperation apiOperation, Method method, Iterator<SwaggerExtension> chain) {
         if (apiOperation.httpMethod() != null && !"".equals(apiOperation.httpMethod()))
             return apiOperation.httpMethod().toLowerCase();
-        else if (method.getAnnotation(javax.ws.rs.GET.class) != null)
-            return "get";
-        else if (method.getAnnotation(javax.ws.rs.PUT.class) != null)
-            return "put";
-        else if (method.getAnnotation(javax.ws.rs.POST.class) != null)
-            return "post";
-        else if (method.getAnnotation(javax.ws.rs.DELETE.class) != null)
-            return "delete";
-        else if (method.getAnnotation(javax.ws.rs.OPTIONS.class) != null)
-            return "options";
-        else if (method.getAnnotation(javax.ws.rs.HEAD.class) != null)
-            return "head";
-        else if (method.getAnnotation(PATCH.class) != null)
-            return "patch";
-        else if (method.getAnnotation(HttpMethod.class) != null) {
-            HttpMethod httpMethod = (HttpMethod) method.getAnnotation(HttpMethod.class);
-            return httpMethod.value().toLowerCase();
-        } else if (chain.hasNext())
+        else if (describe(method).getHttpMethod() != null)
+            return describe(method).getHttpMethod();
+        else if (chain.hasNext())
             return chain.next().extractOperationMethod(apiOperation, method, chain);
         else
             return null;
     }
 
 
+    /**
+     * An operation read from a sub-resource, with its path under {@link #PARENT_PATH} and the JSON its copies
+     * are made from. Operations which do not survive that round trip are not copyable, and their sub-resource
+     * is read again for every parent.
+     */
+    private static class SubResourceOperation {
+        private final String path;
+        private final String httpMethod;
+        private final Operation operation;
+        private final JsonNode json;
+        private final boolean copyable;
+
+        SubResourceOperation(String path, String httpMethod, Operation operation) {
+            this.path = path;
+            this.httpMethod = httpMethod;
+            this.operation = operation;
+            this.json = m.valueToTree(operation);
+            Operation copy = read(json);
+            this.copyable = copy != null && copy.equals(operation) && json.equals(m.valueToTree(copy));
+        }
+
+        /**
+         * @return a new copy of the operation
+         */
+        Operation copy() {
+            return read(json);
+        }
+
+        private static Operation read(JsonNode json) {
+            try {
+                return m.convertValue(json, Operation.class);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        /**
+         * @return the path of the operation under <code>parentPath</code>, as if it had been read there
+         */
+        String reroot(String parentPath) {
+            String output = parentPath + path.substring(PARENT_PATH.length());
+            if (!output.startsWith("/") && output.length() > 0)
+                return "/" + output;
+            return output;
+        }
+    }
 }
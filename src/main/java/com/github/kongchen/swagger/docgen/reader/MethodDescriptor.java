@@ -0,0 +1,205 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import io.swagger.annotations.ApiImplicitParams;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponses;
+import io.swagger.jaxrs.PATCH;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The annotations and types of a resource method the readers look at, resolved once for the class it
+ * is read from. Annotations the method does not declare are taken from the nearest method of the super
+ * types of that class it overrides or implements declaring them.
+ *
+ * Every getter returns the same, unmodifiable, value each time, so a descriptor can be shared
+ * by the readers working on different threads.
+ */
+public final class MethodDescriptor {
+    private final Method method;
+    private final ApiOperation apiOperation;
+    private final ApiResponses apiResponses;
+    private final ApiImplicitParams apiImplicitParams;
+    private final boolean deprecated;
+    private final Path path;
+    private final Consumes consumes;
+    private final Produces produces;
+    private final String httpMethod;
+    private final RequestMapping requestMapping;
+    private final ResponseStatus responseStatus;
+    private final Class<?> returnType;
+    private final Type genericReturnType;
+    private final List<Type> genericParameterTypes;
+    private final List<List<Annotation>> parameterAnnotations;
+
+    public MethodDescriptor(Method method) {
+        this(method, new ClassDescriptor(method.getDeclaringClass()));
+    }
+
+    /**
+     * @param resourceClass the descriptor of the class <code>method</code> is read from, which may inherit it,
+     *                      whose overridden methods give the annotations <code>method</code> does not declare
+     *                      itself
+     */
+    public MethodDescriptor(Method method, ClassDescriptor resourceClass) {
+        List<Method> hierarchy = new ArrayList<Method>();
+        hierarchy.add(method);
+        hierarchy.addAll(resourceClass.getOverriddenMethods(method));
+
+        this.method = method;
+        this.apiOperation = find(hierarchy, ApiOperation.class);
+        this.apiResponses = find(hierarchy, ApiResponses.class);
+        this.apiImplicitParams = find(hierarchy, ApiImplicitParams.class);
+        this.deprecated = find(hierarchy, Deprecated.class) != null;
+        this.path = find(hierarchy, Path.class);
+        this.consumes = find(hierarchy, Consumes.class);
+        this.produces = find(hierarchy, Produces.class);
+        this.httpMethod = readHttpMethod(hierarchy);
+        this.requestMapping = find(hierarchy, RequestMapping.class);
+        this.responseStatus = find(hierarchy, ResponseStatus.class);
+        this.returnType = method.getReturnType();
+        this.genericReturnType = method.getGenericReturnType();
+        this.genericParameterTypes = Collections.unmodifiableList(Arrays.asList(method.getGenericParameterTypes()));
+        this.parameterAnnotations = readParameterAnnotations(hierarchy);
+    }
+
+    private static <A extends Annotation> A find(List<Method> hierarchy, Class<A> annotationClass) {
+        for (Method method : hierarchy) {
+            A annotation = method.getAnnotation(annotationClass);
+            if (annotation != null) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static String readHttpMethod(List<Method> hierarchy) {
+        for (Method method : hierarchy) {
+            String httpMethod = readHttpMethod(method);
+            if (httpMethod != null) {
+                return httpMethod;
+            }
+        }
+        return null;
+    }
+
+    private static String readHttpMethod(Method method) {
+        if (method.getAnnotation(javax.ws.rs.GET.class) != null)
+            return "get";
+        else if (method.getAnnotation(javax.ws.rs.PUT.class) != null)
+            return "put";
+        else if (method.getAnnotation(javax.ws.rs.POST.class) != null)
+            return "post";
+        else if (method.getAnnotation(javax.ws.rs.DELETE.class) != null)
+            return "delete";
+        else if (method.getAnnotation(javax.ws.rs.OPTIONS.class) != null)
+            return "options";
+        else if (method.getAnnotation(javax.ws.rs.HEAD.class) != null)
+            return "head";
+        else if (method.getAnnotation(PATCH.class) != null)
+            return "patch";
+        else if (method.getAnnotation(HttpMethod.class) != null)
+            return method.getAnnotation(HttpMethod.class).value().toLowerCase();
+        return null;
+    }
+
+    /**
+     * Each parameter gets the annotations of the nearest method annotating it.
+     */
+    private static List<List<Annotation>> readParameterAnnotations(List<Method> hierarchy) {
+        List<Annotation[][]> annotations = new ArrayList<Annotation[][]>();
+        for (Method method : hierarchy) {
+            annotations.add(method.getParameterAnnotations());
+        }
+        List<List<Annotation>> result = new ArrayList<List<Annotation>>();
+        for (int i = 0; i < annotations.get(0).length; i++) {
+            Annotation[] parameter = annotations.get(0)[i];
+            for (int j = 1; parameter.length == 0 && j < annotations.size(); j++) {
+                parameter = annotations.get(j)[i];
+            }
+            result.add(Collections.unmodifiableList(Arrays.asList(parameter)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public ApiOperation getApiOperation() {
+        return apiOperation;
+    }
+
+    public ApiResponses getApiResponses() {
+        return apiResponses;
+    }
+
+    public ApiImplicitParams getApiImplicitParams() {
+        return apiImplicitParams;
+    }
+
+    public boolean isDeprecated() {
+        return deprecated;
+    }
+
+    /**
+     * @return the JAX-RS <code>@Path</code> of the method
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    public Consumes getConsumes() {
+        return consumes;
+    }
+
+    public Produces getProduces() {
+        return produces;
+    }
+
+    /**
+     * @return the lower case HTTP method given by the JAX-RS annotations, or null
+     */
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public RequestMapping getRequestMapping() {
+        return requestMapping;
+    }
+
+    public ResponseStatus getResponseStatus() {
+        return responseStatus;
+    }
+
+    public Class<?> getReturnType() {
+        return returnType;
+    }
+
+    public Type getGenericReturnType() {
+        return genericReturnType;
+    }
+
+    public List<Type> getGenericParameterTypes() {
+        return genericParameterTypes;
+    }
+
+    /**
+     * @return the annotations of each parameter, as handed to the swagger extensions
+     */
+    public List<List<Annotation>> getParameterAnnotations() {
+        return parameterAnnotations;
+    }
+}
@@ -0,0 +1,318 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.kongchen.swagger.docgen.Utils;
+import com.github.kongchen.swagger.docgen.incremental.DependencyRecorder;
+import com.github.kongchen.swagger.docgen.incremental.ModelStore;
+import io.swagger.converter.ModelConverters;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.util.Json;
+
+import java.io.IOException;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The models {@link ModelConverters} defines for each type, resolved once and served as both the
+ * {@link ModelConverters#read(Type)} and the {@link ModelConverters#readAll(Type)} view.
+ *
+ * The models are shared by the documents of all apiSources, which may change them, the swagger filters
+ * do, so each caller gets its own copies, made from their JSON. Types whose models do not survive that
+ * round trip are resolved again every time, as are the {@link PropertyCache#isTrivial(Type)} ones, which
+ * have no models.
+ *
+ * While the dependencies of an API class are being recorded, a graph is resolved under its own
+ * {@link DependencyRecorder} recording, and what it recorded, or what the store kept for it, is recorded
+ * again each time it is reused. Graphs resolved while nothing was recorded are resolved again then.
+ *
+ * The models depend on the model converters, so the cache is cleared whenever they may change.
+ * It is one of the {@link ReaderCaches} of a document source.
+ * With a {@link ModelStore}, the graphs resolved by the previous build are loaded from it as long as
+ * the class files they were resolved from did not change, and those resolved again are put into it.
+ */
+public final class ModelCache {
+    private final Map<Type, Graph> graphs = new ConcurrentHashMap<Type, Graph>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final PropertyCache properties;
+
+    private volatile ModelStore store;
+    private volatile String storeScope;
+
+    /**
+     * @param properties the cache the model of a type is picked out of its graph with
+     */
+    public ModelCache(PropertyCache properties) {
+        this.properties = properties;
+    }
+
+    public void clear() {
+        graphs.clear();
+        hits.set(0);
+        misses.set(0);
+        loads.set(0);
+    }
+
+    /**
+     * Loads the graphs from <code>store</code> and puts them into it, or stops doing so if it is null.
+     * The store has to be used while a {@link DependencyRecorder} is added to the model converters.
+     *
+     * @param scope what the model converters resolve the types with, such as the model substitutions,
+     *              which the stored graphs are kept apart by
+     */
+    public void setStore(ModelStore store, String scope) {
+        this.storeScope = scope;
+        this.store = store;
+    }
+
+    /**
+     * @return the model of <code>type</code> itself, by name
+     */
+    public Map<String, Model> read(Type type) {
+        if (PropertyCache.isTrivial(type)) {
+            return ModelConverters.getInstance().read(type);
+        }
+        Graph graph = getGraph(type);
+        return graph.copyable ? graph.copy(graph.models) : ModelConverters.getInstance().read(type);
+    }
+
+    /**
+     * @return the model of <code>type</code> and all the models it refers to, by name
+     */
+    public Map<String, Model> readAll(Type type) {
+        if (PropertyCache.isTrivial(type)) {
+            return ModelConverters.getInstance().readAll(type);
+        }
+        Graph graph = getGraph(type);
+        return graph.copyable ? graph.copy(graph.allModels) : ModelConverters.getInstance().readAll(type);
+    }
+
+    /**
+     * @return how many times a type was found resolved since the cache was cleared
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return how many times a type was resolved since the cache was cleared
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return how many times a type was loaded from the store since the cache was cleared
+     */
+    public int getLoads() {
+        return loads.get();
+    }
+
+    private Graph getGraph(Type type) {
+        Graph graph = graphs.get(type);
+        if (graph != null && (graph.dependencies != null || !DependencyRecorder.isRecording())) {
+            hits.incrementAndGet();
+            DependencyRecorder.recordAll(graph.dependencies);
+            return graph;
+        }
+        ModelStore store = this.store;
+        String key = store == null ? null : storeKey(type);
+        if (key != null) {
+            graph = getStoredGraph(type, store, storeScope + "|" + key);
+        } else if (DependencyRecorder.isRecording()) {
+            misses.incrementAndGet();
+            graph = resolveRecorded(type);
+        } else {
+            misses.incrementAndGet();
+            graph = new Graph(type, properties);
+        }
+        graphs.put(type, graph);
+        return graph;
+    }
+
+    private Graph getStoredGraph(Type type, ModelStore store, String key) {
+        ModelStore.Entry entry = store.get(key);
+        if (entry != null) {
+            loads.incrementAndGet();
+            Graph graph = new Graph(entry.getModels(), entry.getAllModels());
+            graph.dependencies = loadClasses(entry.getDependencies().keySet());
+            DependencyRecorder.recordAll(graph.dependencies);
+            return graph;
+        }
+        misses.incrementAndGet();
+        Graph graph = resolveRecorded(type);
+        if (graph.copyable) {
+            store.put(key, graph.models, graph.allModels, DependencyRecorder.withSuperTypes(graph.dependencies));
+        }
+        return graph;
+    }
+
+    /**
+     * Resolves the graph of <code>type</code> under its own recording, which the recording around it, if any,
+     * gets as well.
+     */
+    private Graph resolveRecorded(Type type) {
+        Graph graph;
+        Set<Class<?>> dependencies;
+        DependencyRecorder.start();
+        try {
+            DependencyRecorder.record(type);
+            graph = new Graph(type, properties);
+        } finally {
+            dependencies = DependencyRecorder.stop();
+        }
+        graph.dependencies = dependencies;
+        return graph;
+    }
+
+    /**
+     * @return the classes named by a stored graph, which are still there as their class files did not change
+     */
+    private static Set<Class<?>> loadClasses(Collection<String> classNames) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Set<Class<?>> classes = new HashSet<Class<?>>();
+        for (String className : classNames) {
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                // recorded as missing, and still missing
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * @return a name for <code>type</code> which stays the same from one build to the next, or null if
+     * it has none, such as type variables
+     */
+    private static String storeKey(Type type) {
+        if (type instanceof Class) {
+            return ((Class<?>) type).getName();
+        } else if (type instanceof JavaType) {
+            return ((JavaType) type).toCanonical();
+        } else if (type instanceof GenericArrayType) {
+            String component = storeKey(((GenericArrayType) type).getGenericComponentType());
+            return component == null ? null : component + "[]";
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            StringBuilder key = new StringBuilder(storeKey(parameterizedType.getRawType())).append('<');
+            for (Type argument : parameterizedType.getActualTypeArguments()) {
+                String argumentKey = storeKey(argument);
+                if (argumentKey == null) {
+                    return null;
+                }
+                key.append(argumentKey).append(',');
+            }
+            return key.append('>').toString();
+        }
+        return null;
+    }
+
+    private static class Graph {
+        private final Map<String, JsonNode> models;
+        private final Map<String, JsonNode> allModels;
+        private final boolean copyable;
+        // what the graph was resolved from, or null if nothing was recorded while it was resolved
+        private Set<Class<?>> dependencies;
+
+        Graph(Type type, PropertyCache properties) {
+            Map<String, Model> allModels = ModelConverters.getInstance().readAll(type);
+            Map<String, Model> models = readModels(type, allModels, properties);
+            this.allModels = toJson(allModels);
+            this.models = toJson(models);
+            this.copyable = isCopyable(allModels, this.allModels) && isCopyable(models, this.models);
+        }
+
+        /**
+         * A graph stored by a previous build, which was only stored if copyable.
+         */
+        Graph(Map<String, JsonNode> models, Map<String, JsonNode> allModels) {
+            this.models = Collections.unmodifiableMap(models);
+            this.allModels = Collections.unmodifiableMap(allModels);
+            this.copyable = true;
+        }
+
+        /**
+         * Picks the model of the type out of all its models, by the name its property refers to.
+         * Falls back to resolving the type again if that name is not among them.
+         */
+        private static Map<String, Model> readModels(Type type, Map<String, Model> allModels,
+                                                     PropertyCache properties) {
+            Map<String, Model> models = new LinkedHashMap<String, Model>();
+            if (allModels.isEmpty()) {
+                return models;
+            }
+            Property property = properties.readAsProperty(type);
+            Model model = property instanceof RefProperty ? allModels.get(((RefProperty) property).getSimpleRef()) : null;
+            if (model == null) {
+                models.putAll(ModelConverters.getInstance().read(type));
+                return models;
+            }
+            for (Map.Entry<String, Model> entry : allModels.entrySet()) {
+                if (entry.getValue().equals(model)) {
+                    models.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return models;
+        }
+
+        private static Map<String, JsonNode> toJson(Map<String, Model> models) {
+            Map<String, JsonNode> json = new LinkedHashMap<String, JsonNode>();
+            for (Map.Entry<String, Model> entry : models.entrySet()) {
+                json.put(entry.getKey(), Json.mapper().<JsonNode>valueToTree(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(json);
+        }
+
+        private static boolean isCopyable(Map<String, Model> models, Map<String, JsonNode> json) {
+            for (Map.Entry<String, Model> entry : models.entrySet()) {
+                Model copy = read(entry.getKey(), json.get(entry.getKey()));
+                if (copy == null || copy.getClass() != entry.getValue().getClass() || !copy.equals(entry.getValue())
+                        || !json.get(entry.getKey()).equals(Json.mapper().valueToTree(copy))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Map<String, Model> copy(Map<String, JsonNode> json) {
+            Map<String, Model> models = new LinkedHashMap<String, Model>();
+            for (Map.Entry<String, JsonNode> entry : json.entrySet()) {
+                models.put(entry.getKey(), read(entry.getKey(), entry.getValue()));
+            }
+            return models;
+        }
+
+        /**
+         * Reads the model defined as <code>name</code>, which is not part of its JSON.
+         */
+        private static Model read(String name, JsonNode json) {
+            try {
+                Model model = Json.mapper().treeToValue(json, Model.class);
+                Utils.restoreProperties(model, json);
+                if (model instanceof ModelImpl) {
+                    ((ModelImpl) model).setName(name);
+                }
+                return model;
+            } catch (IOException e) {
+                return null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.github.kongchen.swagger.docgen.reader;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.kongchen.swagger.docgen.GenerateException;
+import com.github.kongchen.swagger.docgen.incremental.DependencyRecorder;
 import io.swagger.converter.ModelConverter;
 import io.swagger.converter.ModelConverterContext;
 import io.swagger.jackson.ModelResolver;
@@ -10,6 +11,7 @@ import io.swagger.models.properties.Property;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -26,8 +28,10 @@ public class ModelSubstitute extends ModelResolver {
 
     public void substitute(String fromClass, String toClass) throws GenerateException {
         try {
-            Type type = _mapper.constructType(Class.forName(fromClass));
-            Type toType = _mapper.constructType(Class.forName(toClass));
+            // loaded without running their static initializers, only their structure is read
+            ClassLoader classLoader = ModelSubstitute.class.getClassLoader();
+            Type type = _mapper.constructType(Class.forName(fromClass, false, classLoader));
+            Type toType = _mapper.constructType(Class.forName(toClass, false, classLoader));
 
             types.put(type, toType);
 
@@ -36,9 +40,18 @@ public class ModelSubstitute extends ModelResolver {
         }
     }
 
+    /**
+     * @return the types substituted, by the type they replace
+     */
+    public Map<Type, Type> getSubstitutions() {
+        return Collections.unmodifiableMap(types);
+    }
+
     @Override
     public Property resolveProperty(Type type, ModelConverterContext context, Annotation[] annotations, Iterator<ModelConverter> chain) {
         if(types.containsKey(type)) {
+            // resolved here rather than through the chain, which would record it
+            DependencyRecorder.record(types.get(type));
             return super.resolveProperty(types.get(type), context, annotations, chain);
         } else {
             return super.resolveProperty(type, context, annotations, chain);
@@ -49,6 +62,7 @@ public class ModelSubstitute extends ModelResolver {
     @Override
     public Model resolve(Type type, ModelConverterContext context, Iterator<ModelConverter> chain) {
         if(types.containsKey(type)) {
+            DependencyRecorder.record(types.get(type));
             return super.resolve(types.get(type), context, chain);
         } else {
             return super.resolve(type, context, chain);
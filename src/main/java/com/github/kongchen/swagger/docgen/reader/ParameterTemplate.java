@@ -0,0 +1,140 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.kongchen.swagger.docgen.incremental.DependencyRecorder;
+import io.swagger.models.Model;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.util.Json;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The parameters the swagger extensions make of a method parameter, together with the models they
+ * define, kept for the other method parameters with the same {@link Signature}.
+ *
+ * The readers change the parameters they put into an operation, so each one gets its own copy, made
+ * from the JSON of the first ones. Parameters which do not survive that round trip are not copyable,
+ * and have to be extracted again every time.
+ *
+ * A template extracted while the dependencies of an API class were being recorded keeps what was
+ * recorded, for the caller to record again when it reuses it.
+ */
+public final class ParameterTemplate {
+    private final List<JsonNode> parameters;
+    private final Map<String, Model> definitions;
+    private final boolean copyable;
+    private Set<Class<?>> dependencies;
+
+    public ParameterTemplate(List<Parameter> parameters, Map<String, Model> definitions) {
+        List<JsonNode> json = new ArrayList<JsonNode>();
+        boolean copyable = true;
+        for (Parameter parameter : parameters) {
+            JsonNode node = Json.mapper().valueToTree(parameter);
+            Parameter copy = read(node);
+            copyable &= copy != null && copy.getClass() == parameter.getClass() && copy.equals(parameter)
+                    && node.equals(Json.mapper().valueToTree(copy));
+            json.add(node);
+        }
+        this.parameters = Collections.unmodifiableList(json);
+        this.definitions = definitions == null ? Collections.<String, Model>emptyMap()
+                : Collections.unmodifiableMap(new LinkedHashMap<String, Model>(definitions));
+        this.copyable = copyable;
+    }
+
+    public boolean isCopyable() {
+        return copyable;
+    }
+
+    /**
+     * @return what was recorded while extracting the parameters, or null if nothing was
+     */
+    public Set<Class<?>> getDependencies() {
+        return dependencies;
+    }
+
+    public ParameterTemplate dependencies(Set<Class<?>> dependencies) {
+        this.dependencies = dependencies;
+        return this;
+    }
+
+    /**
+     * @return whether the template can be used now, which it cannot while recording if nothing was
+     * recorded when its parameters were extracted
+     */
+    public boolean isReusable() {
+        return dependencies != null || !DependencyRecorder.isRecording();
+    }
+
+    /**
+     * @return a new copy of the parameters
+     */
+    public List<Parameter> getParameters() {
+        List<Parameter> copies = new ArrayList<Parameter>();
+        for (JsonNode node : parameters) {
+            copies.add(read(node));
+        }
+        return copies;
+    }
+
+    /**
+     * @return the models defined while extracting the parameters, which are shared rather than copied
+     */
+    public Map<String, Model> getDefinitions() {
+        return definitions;
+    }
+
+    private static Parameter read(JsonNode json) {
+        try {
+            return Json.mapper().convertValue(json, Parameter.class);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The type and annotations of a method parameter, and the types to skip, which are all the extensions
+     * look at. The extensions add to the types to skip, so the signature keeps a copy of them.
+     */
+    public static final class Signature {
+        private final Type type;
+        private final List<Annotation> annotations;
+        private final Set<Type> typesToSkip;
+
+        public Signature(Type type, List<Annotation> annotations, Set<Type> typesToSkip) {
+            this.type = type;
+            this.annotations = annotations;
+            this.typesToSkip = new HashSet<Type>(typesToSkip);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Signature)) {
+                return false;
+            }
+            Signature other = (Signature) o;
+            return type.equals(other.type) && annotations.equals(other.annotations)
+                    && typesToSkip.equals(other.typesToSkip);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * type.hashCode() + annotations.hashCode()) + typesToSkip.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return annotations + " " + type;
+        }
+    }
+}
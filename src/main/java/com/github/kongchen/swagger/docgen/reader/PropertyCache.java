@@ -0,0 +1,143 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.kongchen.swagger.docgen.incremental.DependencyRecorder;
+import io.swagger.converter.ModelConverters;
+import io.swagger.models.properties.Property;
+import io.swagger.util.Json;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What {@link ModelConverters#readAsProperty(Type)} returns for each type, shared by the readers and
+ * the parameter extensions.
+ *
+ * Callers change the properties they get, so each one gets its own copy, made from the JSON of the
+ * first one. Types whose property does not survive that round trip are read again every time, as are
+ * the {@link #isTrivial(Type)} ones, whose property is read about as fast as it would be copied.
+ *
+ * While the dependencies of an API class are being recorded, a property is read under its own
+ * {@link DependencyRecorder} recording, and what it recorded is recorded again each time it is reused.
+ * Properties read while nothing was recorded are read again then.
+ *
+ * The properties depend on the model converters, so the cache is cleared whenever they may change.
+ * It is one of the {@link ReaderCaches} of a document source.
+ */
+public final class PropertyCache {
+    private final Map<Type, Entry> entries = new ConcurrentHashMap<Type, Entry>();
+    private static final Set<Class<?>> TRIVIAL = new HashSet<Class<?>>(Arrays.<Class<?>>asList(String.class,
+            Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class,
+            Double.class, Void.class));
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return whether <code>type</code> is a primitive, its wrapper or a string, which the model converters map
+     * straight to a property without a model, and which are not worth caching anywhere
+     */
+    static boolean isTrivial(Type type) {
+        return type instanceof Class && (((Class<?>) type).isPrimitive() || TRIVIAL.contains(type));
+    }
+
+    public Property readAsProperty(Type type) {
+        if (isTrivial(type)) {
+            return ModelConverters.getInstance().readAsProperty(type);
+        }
+        Entry entry = entries.get(type);
+        if (entry == null || !entry.isReusable()) {
+            return read(type);
+        }
+        DependencyRecorder.recordAll(entry.dependencies);
+        return entry.copyable ? entry.copy() : ModelConverters.getInstance().readAsProperty(type);
+    }
+
+    /**
+     * @return the type of the property of <code>type</code>, or null if there is none
+     */
+    public String getPropertyType(Type type) {
+        if (isTrivial(type)) {
+            Property property = ModelConverters.getInstance().readAsProperty(type);
+            return property == null ? null : property.getType();
+        }
+        Entry entry = entries.get(type);
+        if (entry == null || !entry.isReusable()) {
+            Property property = read(type);
+            return property == null ? null : property.getType();
+        }
+        DependencyRecorder.recordAll(entry.dependencies);
+        return entry.type;
+    }
+
+    /**
+     * Reads the property of <code>type</code> and keeps it, with what it depends on while recording.
+     */
+    private Property read(Type type) {
+        if (!DependencyRecorder.isRecording()) {
+            Property property = ModelConverters.getInstance().readAsProperty(type);
+            entries.put(type, new Entry(property, null));
+            return property;
+        }
+        Property property;
+        Set<Class<?>> dependencies;
+        DependencyRecorder.start();
+        try {
+            property = ModelConverters.getInstance().readAsProperty(type);
+        } finally {
+            dependencies = DependencyRecorder.stop();
+        }
+        entries.put(type, new Entry(property, dependencies));
+        return property;
+    }
+
+    private static class Entry {
+        private final JsonNode json;
+        private final String type;
+        private final boolean copyable;
+        private final Set<Class<?>> dependencies;
+
+        /**
+         * @param dependencies what was recorded while reading <code>property</code>, or null if nothing was
+         */
+        Entry(Property property, Set<Class<?>> dependencies) {
+            this.dependencies = dependencies;
+            if (property == null) {
+                json = null;
+                type = null;
+                copyable = true;
+            } else {
+                json = Json.mapper().valueToTree(property);
+                type = property.getType();
+                Property copy = read(json);
+                copyable = copy != null && copy.getClass() == property.getClass() && copy.equals(property)
+                        && json.equals(Json.mapper().valueToTree(copy));
+            }
+        }
+
+        /**
+         * @return whether the entry can be used now, which it cannot while recording if nothing was
+         * recorded when it was read
+         */
+        boolean isReusable() {
+            return dependencies != null || !DependencyRecorder.isRecording();
+        }
+
+        Property copy() {
+            return json == null ? null : read(json);
+        }
+
+        private static Property read(JsonNode json) {
+            try {
+                return Json.mapper().convertValue(json, Property.class);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import io.swagger.converter.ModelConverters;
+import io.swagger.models.Model;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.properties.Property;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The properties, models and bean parameters resolved for the documents of one plugin execution,
+ * kept apart from those of other executions running in the same JVM.
+ *
+ * The readers and their swagger extensions use the caches made current on their thread, and resolve
+ * everything again when there are none.
+ */
+public final class ReaderCaches {
+    private static final ThreadLocal<ReaderCaches> CURRENT = new ThreadLocal<ReaderCaches>();
+
+    private final PropertyCache properties = new PropertyCache();
+    private final ModelCache models = new ModelCache(properties);
+    private final BeanParameterCache beanParameters = new BeanParameterCache();
+    private Map<Type, Type> substitutions;
+
+    /**
+     * @return the caches used on the current thread, or null if there are none
+     */
+    public static ReaderCaches current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes <code>caches</code> the ones used on the current thread, or none if it is null.
+     */
+    public static void setCurrent(ReaderCaches caches) {
+        if (caches == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(caches);
+        }
+    }
+
+    public PropertyCache getProperties() {
+        return properties;
+    }
+
+    public ModelCache getModels() {
+        return models;
+    }
+
+    public BeanParameterCache getBeanParameters() {
+        return beanParameters;
+    }
+
+    /**
+     * Clears the caches unless what they hold was resolved with the same model <code>substitutions</code>,
+     * a model substitute resolving every type itself.
+     */
+    public synchronized void resolveWith(Map<Type, Type> substitutions) {
+        if (!substitutions.equals(this.substitutions)) {
+            clear();
+            this.substitutions = substitutions;
+        }
+    }
+
+    public synchronized void clear() {
+        properties.clear();
+        models.clear();
+        beanParameters.clear();
+        substitutions = null;
+    }
+
+    /**
+     * @see PropertyCache#readAsProperty(Type)
+     */
+    public static Property readAsProperty(Type type) {
+        ReaderCaches caches = CURRENT.get();
+        return caches == null ? ModelConverters.getInstance().readAsProperty(type)
+                : caches.properties.readAsProperty(type);
+    }
+
+    /**
+     * @see PropertyCache#getPropertyType(Type)
+     */
+    public static String getPropertyType(Type type) {
+        ReaderCaches caches = CURRENT.get();
+        if (caches != null) {
+            return caches.properties.getPropertyType(type);
+        }
+        Property property = ModelConverters.getInstance().readAsProperty(type);
+        return property == null ? null : property.getType();
+    }
+
+    /**
+     * @see ModelCache#read(Type)
+     */
+    public static Map<String, Model> read(Type type) {
+        ReaderCaches caches = CURRENT.get();
+        return caches == null ? ModelConverters.getInstance().read(type) : caches.models.read(type);
+    }
+
+    /**
+     * @see ModelCache#readAll(Type)
+     */
+    public static Map<String, Model> readAll(Type type) {
+        ReaderCaches caches = CURRENT.get();
+        return caches == null ? ModelConverters.getInstance().readAll(type) : caches.models.readAll(type);
+    }
+
+    /**
+     * @see BeanParameterCache#getParameters(Class, Class, BeanParameterCache.Extractor)
+     */
+    public static List<Parameter> getBeanParameters(Class<? extends Annotation> kind, Class<?> bean,
+                                                    BeanParameterCache.Extractor extractor) {
+        ReaderCaches caches = CURRENT.get();
+        return caches == null ? extractor.extractParameters(bean)
+                : caches.beanParameters.getParameters(kind, bean, extractor);
+    }
+}
@@ -3,15 +3,16 @@ package com.github.kongchen.swagger.docgen.reader;
 import com.github.kongchen.swagger.docgen.GenerateException;
 import com.github.kongchen.swagger.docgen.LogAdapter;
 import com.github.kongchen.swagger.docgen.spring.SpringResource;
+import com.github.kongchen.swagger.docgen.spring.SpringResourceKey;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponses;
 import io.swagger.annotations.Authorization;
 import io.swagger.annotations.AuthorizationScope;
-import io.swagger.converter.ModelConverters;
 import io.swagger.models.Model;
 import io.swagger.models.Operation;
 import io.swagger.models.Response;
+import io.swagger.models.Scheme;
 import io.swagger.models.SecurityRequirement;
 import io.swagger.models.Swagger;
 import io.swagger.models.Tag;
@@ -32,9 +33,14 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerReader {
@@ -51,12 +57,29 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         //relate all methods to one base request mapping if multiple controllers exist for that mapping
         //get all methods from each controller & find their request mapping
         //create map - resource string (after first slash) as key, new SpringResource as value
-        Map<String, SpringResource> resourceMap = generateResourceMap(classes);
-        for (String str : resourceMap.keySet()) {
-            SpringResource resource = resourceMap.get(str);
-            read(resource);
+        Map<SpringResourceKey, SpringResource> resourceMap = generateResourceMap(classes);
+        if (interner == null && (parallelism <= 1 || resourceMap.size() <= 1)) {
+            for (SpringResource resource : resourceMap.values()) {
+                read(resource);
+            }
+            return swagger;
         }
 
+        // each resource is read into its own fragment, interned as it is merged, the readers are created here as
+        // they reset the extensions
+        Map<String, Callable<Swagger>> tasks = new LinkedHashMap<String, Callable<Swagger>>();
+        for (final SpringResource resource : resourceMap.values()) {
+            final SpringMvcApiReader reader = new SpringMvcApiReader(new Swagger(), LOG);
+            reader.setTypesToSkip(new HashSet<Type>(typesToSkip));
+            shareCaches(reader);
+            tasks.put(resource.getResourceKey(), new Callable<Swagger>() {
+                @Override
+                public Swagger call() {
+                    return reader.read(resource);
+                }
+            });
+        }
+        mergeAll(tasks);
         return swagger;
     }
 
@@ -73,7 +96,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
 
         // Add the description from the controller api
         Class<?> controller = resource.getControllerClass();
-        RequestMapping controllerRM = controller.getAnnotation(RequestMapping.class);
+        RequestMapping controllerRM = describe(controller).getRequestMapping();
 
 
         String[] controllerProduces = new String[0];
@@ -83,8 +106,8 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
             controllerProduces = controllerRM.produces();
         }
 
-        if (controller != null && controller.isAnnotationPresent(Api.class)) {
-            Api api = controller.getAnnotation(Api.class);
+        if (controller != null && describe(controller).getApi() != null) {
+            Api api = describe(controller).getApi();
             if (!canReadApi(false, api)) {
                 return swagger;
             }
@@ -96,16 +119,17 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         resourcePath = resource.getControllerMapping();
 
         //collect api from method with @RequestMapping
-        Map<String, List<Method>> apiMethodMap = collectApisByRequestMapping(methods);
+        Map<String, List<Method>> apiMethodMap = collectApisByRequestMapping(controller, methods);
 
         for (String path : apiMethodMap.keySet()) {
             for (Method method : apiMethodMap.get(path)) {
+                MethodDescriptor descriptor = describe(controller, method);
 
-                RequestMapping requestMapping = method.getAnnotation(RequestMapping.class);
+                RequestMapping requestMapping = descriptor.getRequestMapping();
                 if (requestMapping == null) {
                     continue;
                 }
-                ApiOperation apiOperation = method.getAnnotation(ApiOperation.class);
+                ApiOperation apiOperation = descriptor.getApiOperation();
                 if (apiOperation == null) {
                     continue;
                 }
@@ -115,10 +139,16 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
                 Map<String, String> regexMap = new HashMap<String, String>();
                 String operationPath = parseOperationPath(path, regexMap);
 
+                // parsed once for all the http methods of the handler, each of them gets its own copy to complete
+                Operation parsedOperation = requestMapping.method().length == 0 ? null : parseMethod(descriptor);
+                if (parsedOperation == null) {
+                    continue;
+                }
+
                 //http method
                 for(RequestMethod requestMethod : requestMapping.method()) {
                     httpMethod = requestMethod.toString().toLowerCase();
-                    Operation operation = parseMethod(method);
+                    Operation operation = copyOperation(parsedOperation);
 
                     updateOperationParameters(new ArrayList<Parameter>(), regexMap, operation);
 
@@ -143,10 +173,14 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         return swagger;
     }
 
-    private Operation parseMethod(Method method) {
+    /**
+     * @return the operation of a handler method, without what depends on its path and HTTP verb
+     */
+    protected Operation parseMethod(MethodDescriptor descriptor) {
         Operation operation = new Operation();
+        Method method = descriptor.getMethod();
 
-        RequestMapping requestMapping = method.getAnnotation(RequestMapping.class);
+        RequestMapping requestMapping = descriptor.getRequestMapping();
         Class<?> responseClass = null;
         List<String> produces = new ArrayList<String>();
         List<String> consumes = new ArrayList<String>();
@@ -154,7 +188,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         String operationId = method.getName();
         Map<String, Property> defaultResponseHeaders;
 
-        ApiOperation apiOperation = method.getAnnotation(ApiOperation.class);
+        ApiOperation apiOperation = descriptor.getApiOperation();
 
         if (apiOperation.hidden())
             return null;
@@ -195,14 +229,9 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         if (responseClass == null) {
             // pick out response from method declaration
             LOG.info("picking up response class from method " + method);
-            Type t = method.getGenericReturnType();
-            responseClass = method.getReturnType();
+            responseClass = descriptor.getReturnType();
             if (responseClass.equals(ResponseEntity.class)) {
-                responseClass = getGenericSubtype(method.getReturnType(), method.getGenericReturnType());
-            }
-            if (!responseClass.equals(Void.class) && !"void".equals(responseClass.toString()) && responseClass.getAnnotation(Api.class) == null) {
-                LOG.info("reading model " + responseClass);
-                Map<String, Model> models = ModelConverters.getInstance().readAll(t);
+                responseClass = getGenericSubtype(descriptor.getReturnType(), descriptor.getGenericReturnType());
             }
         }
         if (responseClass != null
@@ -211,7 +240,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
                 && responseClass.getAnnotation(Api.class) == null) {
             if (isPrimitive(responseClass)) {
                 Property responseProperty = null;
-                Property property = ModelConverters.getInstance().readAsProperty(responseClass);
+                Property property = ReaderCaches.readAsProperty(responseClass);
                 if (property != null) {
                     if ("list".equalsIgnoreCase(responseContainer))
                         responseProperty = new ArrayProperty(property);
@@ -225,9 +254,9 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
                             .headers(defaultResponseHeaders));
                 }
             } else if (!responseClass.equals(Void.class) && !"void".equals(responseClass.toString())) {
-                Map<String, Model> models = ModelConverters.getInstance().read(responseClass);
+                Map<String, Model> models = ReaderCaches.read(responseClass);
                 if (models.size() == 0) {
-                    Property pp = ModelConverters.getInstance().readAsProperty(responseClass);
+                    Property pp = ReaderCaches.readAsProperty(responseClass);
                     operation.response(200, new Response()
                             .description("successful operation")
                             .schema(pp)
@@ -248,7 +277,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
                             .headers(defaultResponseHeaders));
                     swagger.model(key, models.get(key));
                 }
-                models = ModelConverters.getInstance().readAll(responseClass);
+                models = ReaderCaches.readAll(responseClass);
                 for (String key : models.keySet()) {
                     swagger.model(key, models.get(key));
                 }
@@ -272,34 +301,28 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
             }
         }
 
-        ApiResponses responseAnnotation = method.getAnnotation(ApiResponses.class);
+        ApiResponses responseAnnotation = descriptor.getApiResponses();
         if (responseAnnotation != null) {
             updateApiResponse(operation, responseAnnotation);
         } else {
-            ResponseStatus responseStatus = method.getAnnotation(ResponseStatus.class);
+            ResponseStatus responseStatus = descriptor.getResponseStatus();
             if (responseStatus != null) {
                 operation.response(responseStatus.value().value(), new Response().description(responseStatus.reason()));
             }
         }
 
-        boolean isDeprecated = false;
-        Deprecated annotation = method.getAnnotation(Deprecated.class);
-        if (annotation != null)
-            isDeprecated = true;
+        boolean isDeprecated = descriptor.isDeprecated();
 
         boolean hidden = false;
         if (apiOperation != null)
             hidden = apiOperation.hidden();
 
         // process parameters
-        Class[] parameterTypes = method.getParameterTypes();
-        Type[] genericParameterTypes = method.getGenericParameterTypes();
-        Annotation[][] paramAnnotations = method.getParameterAnnotations();
-        // paramTypes = method.getParameterTypes
-        // genericParamTypes = method.getGenericParameterTypes
-        for (int i = 0; i < parameterTypes.length; i++) {
-            Type type = genericParameterTypes[i];
-            List<Annotation> annotations = Arrays.asList(paramAnnotations[i]);
+        List<Type> genericParameterTypes = descriptor.getGenericParameterTypes();
+        List<List<Annotation>> paramAnnotations = descriptor.getParameterAnnotations();
+        for (int i = 0; i < genericParameterTypes.size(); i++) {
+            Type type = genericParameterTypes.get(i);
+            List<Annotation> annotations = paramAnnotations.get(i);
             List<Parameter> parameters = getParameters(type, annotations);
 
             for (Parameter parameter : parameters) {
@@ -312,18 +335,43 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         }
 
         // Process @ApiImplicitParams
-        this.readImplicitParameters(method, operation);
+        this.readImplicitParameters(descriptor, operation);
         
         return operation;
 
     }
 
 
-    private Map<String, List<Method>> collectApisByRequestMapping(List<Method> methods) {
+    /**
+     * @return a copy of <code>operation</code> which can be completed without changing it, sharing its
+     * parameters and responses
+     */
+    private Operation copyOperation(Operation operation) {
+        Operation copy = new Operation();
+        copy.setTags(operation.getTags() == null ? null : new ArrayList<String>(operation.getTags()));
+        copy.setSummary(operation.getSummary());
+        copy.setDescription(operation.getDescription());
+        copy.setOperationId(operation.getOperationId());
+        copy.setSchemes(operation.getSchemes() == null ? null : new ArrayList<Scheme>(operation.getSchemes()));
+        copy.setConsumes(operation.getConsumes() == null ? null : new ArrayList<String>(operation.getConsumes()));
+        copy.setProduces(operation.getProduces() == null ? null : new ArrayList<String>(operation.getProduces()));
+        copy.setParameters(new ArrayList<Parameter>(operation.getParameters()));
+        copy.setResponses(operation.getResponses() == null ? null : new HashMap<String, Response>(operation.getResponses()));
+        copy.setSecurity(operation.getSecurity() == null ? null
+                : new ArrayList<Map<String, List<String>>>(operation.getSecurity()));
+        copy.setExternalDocs(operation.getExternalDocs());
+        copy.setDeprecated(operation.isDeprecated());
+        for (Map.Entry<String, Object> extension : operation.getVendorExtensions().entrySet()) {
+            copy.setVendorExtension(extension.getKey(), extension.getValue());
+        }
+        return copy;
+    }
+
+    private Map<String, List<Method>> collectApisByRequestMapping(Class<?> controller, List<Method> methods) {
         Map<String, List<Method>> apiMethodMap = new HashMap<String, List<Method>>();
         for (Method method : methods) {
-            if (method.isAnnotationPresent(RequestMapping.class)) {
-                RequestMapping requestMapping = method.getAnnotation(RequestMapping.class);
+            RequestMapping requestMapping = describe(controller, method).getRequestMapping();
+            if (requestMapping != null) {
                 String path = "";
                 if (requestMapping.value() != null && requestMapping.value().length != 0) {
                     path = generateFullPath(requestMapping.value()[0]);
@@ -368,63 +416,49 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
     }
 
     //Helper method for loadDocuments()
-    private Map<String, SpringResource> analyzeController(Class<?> clazz, Map<String, SpringResource> resourceMap, String description) throws ClassNotFoundException {
-        String controllerCanonicalName = clazz.getCanonicalName();
-
-        // Iterate over all value attributes of the class-level RequestMapping annotation
-        for (int i = 0; i < clazz.getAnnotation(RequestMapping.class).value().length; i++) {
-            String controllerRequestMappingValue = clazz.getAnnotation(RequestMapping.class).value()[i];
-            
-            // Iterate over all methods inside the controller
-            Method[] methods = clazz.getMethods();
-            for (Method method : methods) {
-                RequestMapping methodRequestMapping = method.getAnnotation(RequestMapping.class);
-                
-                // Look for method-level @RequestMapping annotation
-                if (methodRequestMapping instanceof RequestMapping){
-                    RequestMethod[] requestMappingRequestMethods = methodRequestMapping.method();
-                    
-                    // For each method-level @RequestMapping annotation, iterate over HTTP Verb
-                    for (RequestMethod requestMappingRequestMethod : requestMappingRequestMethods) {
-                        String[] methodRequestMappingValues = methodRequestMapping.value();
-                        
-                        // Check for cases where method-level @RequestMapping#value is not set, and use the controllers @RequestMapping
-                        if (methodRequestMappingValues == null || methodRequestMappingValues.length == 0) {
-                            // The map key is a concat of the following: 
-                            //   1. The controller package
-                            //   2. The controller class name
-                            //   3. The controller-level @RequestMapping#value
-                            String resourceKey = controllerCanonicalName + controllerRequestMappingValue + requestMappingRequestMethod;
-                            if ((!(resourceMap.containsKey(resourceKey)))) {
-                                resourceMap.put(
-                                    resourceKey,
-                                    new SpringResource(clazz, controllerRequestMappingValue, resourceKey, description));
-                            }
-                            resourceMap.get(resourceKey).addMethod(method);
-                        } else {
-                            // Here we know that method-level @RequestMapping#value is populated, so
-                            // iterate over all the @RequestMapping#value attributes, and add them to the resource map.
-                            for (String methodRequestMappingValue : methodRequestMappingValues) {
-                                String resourceName = methodRequestMappingValue;
-                                // The map key is a concat of the following: 
-                                //   1. The controller package
-                                //   2. The controller class name
-                                //   3. The controller-level @RequestMapping#value
-                                //   4. The method-level @RequestMapping#value
-                                //   5. The method-level @RequestMapping#method
-                                String resourceKey = controllerCanonicalName + controllerRequestMappingValue + resourceName + requestMappingRequestMethod;
-                                if (!(resourceName.equals(""))) {
-                                    if ((!(resourceMap.containsKey(resourceKey)))) {
-                                        resourceMap.put(resourceKey, new SpringResource(clazz, resourceName, resourceKey, description));
-                                    }
-                                    resourceMap.get(resourceKey).addMethod(method);
-                                }
-                            }
-                        }
+    private Map<SpringResourceKey, SpringResource> analyzeController(Class<?> clazz, Map<SpringResourceKey, SpringResource> resourceMap, String description) throws ClassNotFoundException {
+        // Index the handler methods once: each method-level @RequestMapping#value (null when it is not set,
+        // and the controller's @RequestMapping applies) of each method mapped to HTTP verbs. A handler is read
+        // once for all its verbs, so the verbs are not part of the key
+        List<SpringResourceKey> handlerKeys = new ArrayList<SpringResourceKey>();
+        List<Method> handlers = new ArrayList<Method>();
+        for (Method method : clazz.getMethods()) {
+            RequestMapping methodRequestMapping = describe(clazz, method).getRequestMapping();
+            if (methodRequestMapping == null || methodRequestMapping.method().length == 0) {
+                continue;
+            }
+            String[] methodRequestMappingValues = methodRequestMapping.value();
+            if (methodRequestMappingValues == null || methodRequestMappingValues.length == 0) {
+                handlerKeys.add(new SpringResourceKey(clazz, "", null));
+                handlers.add(method);
+            } else {
+                for (String methodRequestMappingValue : methodRequestMappingValues) {
+                    if (!methodRequestMappingValue.equals("")) {
+                        handlerKeys.add(new SpringResourceKey(clazz, "", methodRequestMappingValue));
+                        handlers.add(method);
                     }
                 }
             }
         }
+
+        // then expand them across all value attributes of the class-level RequestMapping annotation
+        RequestMapping controllerRequestMapping = describe(clazz).getRequestMapping();
+        for (String controllerRequestMappingValue : controllerRequestMapping.value()) {
+            for (int i = 0; i < handlers.size(); i++) {
+                SpringResourceKey handlerKey = handlerKeys.get(i);
+                SpringResourceKey resourceKey = new SpringResourceKey(clazz, controllerRequestMappingValue,
+                        handlerKey.getMethodMapping());
+                SpringResource resource = resourceMap.get(resourceKey);
+                if (resource == null) {
+                    String resourceName = resourceKey.getMethodMapping() == null
+                            ? controllerRequestMappingValue : resourceKey.getMethodMapping();
+                    resource = new SpringResource(clazz, resourceName, resourceKey.toString(), description,
+                            controllerRequestMapping);
+                    resourceMap.put(resourceKey, resource);
+                }
+                resource.addMethod(handlers.get(i));
+            }
+        }
         clazz.getFields();
         clazz.getDeclaredFields(); //<--In case developer declares a field without an associated getter/setter.
         //this will allow NoClassDefFoundError to be caught before it triggers bamboo failure.
@@ -432,21 +466,16 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         return resourceMap;
     }
 
-    private Map<String, SpringResource> generateResourceMap(Set<Class<?>> validClasses) throws GenerateException {
-        Map<String, SpringResource> resourceMap = new HashMap<String, SpringResource>();
+    private Map<SpringResourceKey, SpringResource> generateResourceMap(Set<Class<?>> validClasses) throws GenerateException {
+        Map<SpringResourceKey, SpringResource> resourceMap = new TreeMap<SpringResourceKey, SpringResource>();
         for (Class<?> c : validClasses) {
-            RequestMapping requestMapping = c.getAnnotation(RequestMapping.class);
+            RequestMapping requestMapping = describe(c).getRequestMapping();
             String description = "";
             if (requestMapping != null && requestMapping.value().length != 0) {
                 //This try/catch block is to stop a bamboo build from failing due to NoClassDefFoundError
                 //This occurs when a class or method loaded by reflections contains a type that has no dependency
                 try {
                     resourceMap = analyzeController(c, resourceMap, description);
-                    List<Method> mList = new ArrayList<Method>(Arrays.asList(c.getMethods()));
-                    if (c.getSuperclass() != null) {
-                        mList.addAll(Arrays.asList(c.getSuperclass().getMethods()));
-                    }
-
                 } catch (NoClassDefFoundError e) {
                     LOG.error(e.getMessage());
                     LOG.info(c.getName());
@@ -23,13 +23,19 @@ public class SpringResource {
 	 * @param res (String) Resource Name
 	 */
 	public SpringResource(Class<?> clazz, String resourceName, String resourceKey, String description){
+            this(clazz, resourceName, resourceKey, description, clazz.getAnnotation(RequestMapping.class));
+	}
+
+	/**
+	 * @param req the controller's RequestMapping, which may be declared on one of its super types
+	 */
+	public SpringResource(Class<?> clazz, String resourceName, String resourceKey, String description, RequestMapping req){
             this.controllerClass = clazz;
             this.resourceName = resourceName;
             this.resourceKey = resourceKey;
             this.description = description;
             methods = new ArrayList<Method>();
 
-            RequestMapping req = controllerClass.getAnnotation(RequestMapping.class);
             String fullPath = req.value()[0];
             if(fullPath.endsWith("/")){
                 fullPath = fullPath.substring(0,fullPath.length()-1);
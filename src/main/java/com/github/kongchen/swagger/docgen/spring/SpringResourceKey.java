@@ -0,0 +1,79 @@
+package com.github.kongchen.swagger.docgen.spring;
+
+/**
+ * Identifies a {@link SpringResource}: the controller, one of its class-level mappings and the method-level
+ * mapping (null for handlers mapped to the class-level one). The HTTP methods of the handlers are left out,
+ * a handler mapped to several of them is read once for all.
+ *
+ * Keys are ordered by these fields, so resources are read in the same order on every build.
+ */
+public final class SpringResourceKey implements Comparable<SpringResourceKey> {
+    private final Class<?> controllerClass;
+    private final String controllerMapping;
+    private final String methodMapping;
+
+    public SpringResourceKey(Class<?> controllerClass, String controllerMapping, String methodMapping) {
+        this.controllerClass = controllerClass;
+        this.controllerMapping = controllerMapping;
+        this.methodMapping = methodMapping;
+    }
+
+    public Class<?> getControllerClass() {
+        return controllerClass;
+    }
+
+    public String getControllerMapping() {
+        return controllerMapping;
+    }
+
+    public String getMethodMapping() {
+        return methodMapping;
+    }
+
+    @Override
+    public int compareTo(SpringResourceKey other) {
+        int result = controllerClass.getName().compareTo(other.controllerClass.getName());
+        if (result == 0) {
+            result = controllerMapping.compareTo(other.controllerMapping);
+        }
+        if (result == 0 && methodMapping != other.methodMapping) {
+            if (methodMapping == null) {
+                return -1;
+            } else if (other.methodMapping == null) {
+                return 1;
+            }
+            result = methodMapping.compareTo(other.methodMapping);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SpringResourceKey)) {
+            return false;
+        }
+        SpringResourceKey other = (SpringResourceKey) o;
+        return controllerClass.equals(other.controllerClass)
+                && controllerMapping.equals(other.controllerMapping)
+                && (methodMapping == null ? other.methodMapping == null : methodMapping.equals(other.methodMapping));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = controllerClass.hashCode();
+        result = 31 * result + controllerMapping.hashCode();
+        result = 31 * result + (methodMapping == null ? 0 : methodMapping.hashCode());
+        return result;
+    }
+
+    /**
+     * @return the controller and its mappings concatenated
+     */
+    @Override
+    public String toString() {
+        return controllerClass.getCanonicalName() + controllerMapping + (methodMapping == null ? "" : methodMapping);
+    }
+}
@@ -1,7 +1,8 @@
 package com.github.kongchen.swagger.docgen.spring;
 
 import io.swagger.annotations.ApiParam;
-import io.swagger.converter.ModelConverters;
+import com.github.kongchen.swagger.docgen.reader.BeanParameterCache;
+import com.github.kongchen.swagger.docgen.reader.ReaderCaches;
 import io.swagger.jaxrs.ext.AbstractSwaggerExtension;
 import io.swagger.jaxrs.ext.SwaggerExtension;
 import io.swagger.models.parameters.CookieParameter;
@@ -36,6 +37,13 @@ import org.springframework.web.bind.annotation.RequestParam;
  */
 public class SpringSwaggerExtension extends AbstractSwaggerExtension implements SwaggerExtension {
 
+    private final BeanParameterCache.Extractor modelAttributeParameters = new BeanParameterCache.Extractor() {
+        @Override
+        public List<Parameter> extractParameters(Class<?> bean) {
+            return extractParametersFromModelAttribute(bean);
+        }
+    };
+
     @Override
     public List<Parameter> extractParameters(List<Annotation> annotations, Type type, Set<Type> typesToSkip, Iterator<SwaggerExtension> chain) {
         String defaultValue = "";
@@ -48,7 +56,8 @@ public class SpringSwaggerExtension extends AbstractSwaggerExtension implements
         Parameter parameter = null;
         for (Annotation annotation : annotations) {
             if (annotation instanceof ModelAttribute) {
-                parameters.addAll(this.extractParametersFromModelAttributeAnnotation(annotation, type));
+                parameters.addAll(ReaderCaches.getBeanParameters(ModelAttribute.class,
+                        TypeUtils.getRawType(type, type), modelAttributeParameters));
             } else {
                 parameter = this.extractParameterFromAnnotation(annotation, defaultValue, type);
             }
@@ -72,7 +81,7 @@ public class SpringSwaggerExtension extends AbstractSwaggerExtension implements
             if (!defaultValue.isEmpty()) {
                 qp.setDefaultValue(defaultValue);
             }
-            Property schema = ModelConverters.getInstance().readAsProperty(type);
+            Property schema = ReaderCaches.readAsProperty(type);
             if (schema != null) {
                 qp.setProperty(schema);
             }
@@ -87,7 +96,7 @@ public class SpringSwaggerExtension extends AbstractSwaggerExtension implements
             if (!defaultValue.isEmpty()) {
                 pp.setDefaultValue(defaultValue);
             }
-            Property schema = ModelConverters.getInstance().readAsProperty(type);
+            Property schema = ReaderCaches.readAsProperty(type);
             if (schema != null) {
                 pp.setProperty(schema);
             }
@@ -97,7 +106,7 @@ public class SpringSwaggerExtension extends AbstractSwaggerExtension implements
             HeaderParameter hp = new HeaderParameter()
                 .name(param.value());
             hp.setDefaultValue(defaultValue);
-            Property schema = ModelConverters.getInstance().readAsProperty(type);
+            Property schema = ReaderCaches.readAsProperty(type);
             if (schema != null) {
                 hp.setProperty(schema);
             }
@@ -112,7 +121,7 @@ public class SpringSwaggerExtension extends AbstractSwaggerExtension implements
             if (!defaultValue.isEmpty()) {
                 cp.setDefaultValue(defaultValue);
             }
-            Property schema = ModelConverters.getInstance().readAsProperty(type);
+            Property schema = ReaderCaches.readAsProperty(type);
             if (schema != null) {
                 cp.setProperty(schema);
             }
@@ -125,13 +134,7 @@ public class SpringSwaggerExtension extends AbstractSwaggerExtension implements
         return parameter;
     }
 
-    private List<Parameter> extractParametersFromModelAttributeAnnotation(Annotation annotation, Type type) {
-        if (false == (annotation instanceof ModelAttribute)) {
-            return null;
-        }
-        
-        Class<?> cls = TypeUtils.getRawType(type, type);
-        
+    private List<Parameter> extractParametersFromModelAttribute(Class<?> cls) {
         List<Parameter> parameters = new ArrayList<Parameter>();
         // If ModelAttribute annotation is present, check for possible APIparam annotation in beans
         for (PropertyDescriptor propertyDescriptor : BeanUtils.getPropertyDescriptors(cls)) {
@@ -168,7 +171,7 @@ public class SpringSwaggerExtension extends AbstractSwaggerExtension implements
 
                 if (false == (propertySetterExtractedParameter instanceof Parameter)) {
                     QueryParameter qp = new QueryParameter().name(propertyDescriptor.getDisplayName());
-                    Property schema = ModelConverters.getInstance().readAsProperty(propertyDescriptor.getPropertyType());
+                    Property schema = ReaderCaches.readAsProperty(propertyDescriptor.getPropertyType());
                     if (schema != null) {
                         qp.setProperty(schema);
                     }
@@ -0,0 +1,91 @@
+package com.github.kongchen.swagger.docgen.util;
+
+import io.swagger.core.filter.SpecFilter;
+import io.swagger.core.filter.SwaggerSpecFilter;
+import io.swagger.models.ArrayModel;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.properties.Property;
+import io.swagger.util.Json;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link SpecFilter} which leaves the document it filters as it is, as its properties and inline schemas
+ * may be shared, see {@link SwaggerInterner}.
+ *
+ * The operations are already copied by the swagger filter, but not the definitions: it empties the properties
+ * of the clone of each one, which shares them with the definition, and puts back those the filter allows,
+ * marking them required again. Here a definition which loses properties is copied from its JSON instead, and
+ * keeps the property instances of the definition. The others are kept as they are.
+ */
+public class CopyingSpecFilter extends SpecFilter {
+
+    @Override
+    public Map<String, Model> filterDefinitions(SwaggerSpecFilter filter, Map<String, Model> definitions,
+                                                Map<String, List<String>> params, Map<String, String> cookies,
+                                                Map<String, List<String>> headers) {
+        if (definitions == null) {
+            return null;
+        }
+        Map<String, Model> filtered = new LinkedHashMap<String, Model>();
+        for (Map.Entry<String, Model> definition : definitions.entrySet()) {
+            Model model = definition.getValue();
+            Map<String, Property> properties = model.getProperties();
+            if (properties == null) {
+                filtered.put(definition.getKey(), model);
+                continue;
+            }
+            Map<String, Property> allowed = new LinkedHashMap<String, Property>();
+            for (Map.Entry<String, Property> property : properties.entrySet()) {
+                if (filter.isPropertyAllowed(model, property.getValue(), property.getKey(), params, cookies, headers)) {
+                    allowed.put(property.getKey(), property.getValue());
+                }
+            }
+            if (allowed.size() == properties.size()) {
+                filtered.put(definition.getKey(), model);
+                continue;
+            }
+            Model copy = copy(model, allowed);
+            if (copy == null) {
+                // left to the swagger filter, which changes it
+                copy = super.filterDefinitions(filter, Collections.singletonMap(definition.getKey(), model),
+                        params, cookies, headers).get(definition.getKey());
+            }
+            filtered.put(definition.getKey(), copy);
+        }
+        return filtered;
+    }
+
+    /**
+     * @return a copy of <code>model</code> holding <code>properties</code> only, and what else it holds
+     * rather than copies of it, or null if it cannot be copied from its JSON
+     */
+    private static Model copy(Model model, Map<String, Property> properties) {
+        Model copy;
+        try {
+            copy = Json.mapper().treeToValue(Json.mapper().valueToTree(model), Model.class);
+        } catch (IOException e) {
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (copy == null || copy.getClass() != model.getClass() || copy.getProperties() == null) {
+            return null;
+        }
+        copy.getProperties().clear();
+        copy.getProperties().putAll(properties);
+        if (model instanceof ModelImpl) {
+            ModelImpl modelImpl = (ModelImpl) model;
+            ((ModelImpl) copy).setName(modelImpl.getName());
+            ((ModelImpl) copy).setAdditionalProperties(modelImpl.getAdditionalProperties());
+        } else if (model instanceof ArrayModel) {
+            ((ArrayModel) copy).setItems(((ArrayModel) model).getItems());
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.kongchen.swagger.docgen.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Content hashes used to tell whether cached build results are still valid.
+ */
+public class HashUtils {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public static String md5Hex(byte[] bytes) {
+        MessageDigest digest = newDigest();
+        digest.update(bytes);
+        return toHex(digest.digest());
+    }
+
+    public static String md5Hex(String s) {
+        try {
+            return md5Hex(s.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            // every JRE is required to support UTF-8
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String md5Hex(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            return md5Hex(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    public static String md5Hex(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, n);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            // every JRE is required to provide MD5
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
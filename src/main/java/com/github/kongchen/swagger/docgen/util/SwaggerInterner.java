@@ -0,0 +1,179 @@
+package com.github.kongchen.swagger.docgen.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.models.ArrayModel;
+import io.swagger.models.ComposedModel;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.AbstractSerializableParameter;
+import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.MapProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.util.Json;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the properties and inline schemas of a Swagger document by the first one read with the
+ * same structure, so the document holds each distinct one once however often it occurs.
+ *
+ * Two of them are the same if they have the same class and JSON, the same details left out of the JSON,
+ * such as the name and whether a property is required, and are equal. The nested ones are interned
+ * first, so their parents compare the same as well.
+ *
+ * A document is interned a fragment at a time, each API class being read into its own fragment which is
+ * interned as it is merged, so the duplicates of a fragment are dropped with it rather than piling up until
+ * the document is complete. The shared instances must not be changed anymore: what the document source
+ * still changes afterwards, the security definitions and what the swagger filter removes, is replaced rather
+ * than changed, see {@link CopyingSpecFilter}.
+ */
+public class SwaggerInterner {
+    private final Map<List<Object>, Object> canonical = new HashMap<List<Object>, Object>();
+    private int occurrences;
+
+    /**
+     * @return how many properties and inline schemas were looked at
+     */
+    public int getOccurrences() {
+        return occurrences;
+    }
+
+    /**
+     * @return how many different ones were kept
+     */
+    public int getDistinct() {
+        return canonical.size();
+    }
+
+    public void intern(Swagger swagger) {
+        if (swagger.getDefinitions() != null) {
+            for (Model model : swagger.getDefinitions().values()) {
+                internNested(model);
+            }
+        }
+        if (swagger.getParameters() != null) {
+            for (Parameter parameter : swagger.getParameters().values()) {
+                intern(parameter);
+            }
+        }
+        if (swagger.getPaths() != null) {
+            for (Path path : swagger.getPaths().values()) {
+                for (Operation operation : path.getOperations()) {
+                    intern(operation);
+                }
+            }
+        }
+    }
+
+    private void intern(Operation operation) {
+        if (operation.getParameters() != null) {
+            for (Parameter parameter : operation.getParameters()) {
+                intern(parameter);
+            }
+        }
+        if (operation.getResponses() != null) {
+            for (Response response : operation.getResponses().values()) {
+                response.setSchema(intern(response.getSchema()));
+                internValues(response.getHeaders());
+            }
+        }
+    }
+
+    private void intern(Parameter parameter) {
+        if (parameter instanceof BodyParameter) {
+            BodyParameter bodyParameter = (BodyParameter) parameter;
+            bodyParameter.setSchema(intern(bodyParameter.getSchema()));
+        } else if (parameter instanceof AbstractSerializableParameter) {
+            AbstractSerializableParameter<?> serializableParameter = (AbstractSerializableParameter<?>) parameter;
+            serializableParameter.setItems(intern(serializableParameter.getItems()));
+        }
+    }
+
+    private Model intern(Model model) {
+        if (model == null) {
+            return null;
+        }
+        internNested(model);
+        String name = model instanceof ModelImpl ? ((ModelImpl) model).getName() : null;
+        return canonical(model, Arrays.<Object>asList(model.getClass(), name, toJson(model)));
+    }
+
+    /**
+     * Interns what <code>model</code> holds, but not the model itself, as definitions are only held once.
+     */
+    private void internNested(Model model) {
+        internValues(model.getProperties());
+        if (model instanceof ModelImpl) {
+            ModelImpl modelImpl = (ModelImpl) model;
+            modelImpl.setAdditionalProperties(intern(modelImpl.getAdditionalProperties()));
+        } else if (model instanceof ArrayModel) {
+            ArrayModel arrayModel = (ArrayModel) model;
+            arrayModel.setItems(intern(arrayModel.getItems()));
+        } else if (model instanceof ComposedModel && ((ComposedModel) model).getAllOf() != null) {
+            // the parent and the child of a composed model are also part of allOf, they keep their identity
+            for (Model part : ((ComposedModel) model).getAllOf()) {
+                internNested(part);
+            }
+        }
+    }
+
+    private Property intern(Property property) {
+        if (property == null) {
+            return null;
+        }
+        if (property instanceof ArrayProperty) {
+            ArrayProperty arrayProperty = (ArrayProperty) property;
+            arrayProperty.setItems(intern(arrayProperty.getItems()));
+        } else if (property instanceof MapProperty) {
+            MapProperty mapProperty = (MapProperty) property;
+            mapProperty.setAdditionalProperties(intern(mapProperty.getAdditionalProperties()));
+        }
+        // the properties only compare the details of their own class
+        return canonical(property, Arrays.<Object>asList(property.getClass(), property.getName(), property.getRequired(),
+                property.getPosition(), property.getAccess(), toJson(property)));
+    }
+
+    private void internValues(Map<String, Property> properties) {
+        if (properties == null) {
+            return;
+        }
+        for (Map.Entry<String, Property> entry : properties.entrySet()) {
+            entry.setValue(intern(entry.getValue()));
+        }
+    }
+
+    /**
+     * @param key the class and the details left out of the JSON of <code>value</code>, followed by its JSON
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T canonical(T value, List<Object> key) {
+        occurrences++;
+        if (key.get(key.size() - 1) == null) {
+            // cannot be serialized, kept as is
+            return value;
+        }
+        Object found = canonical.get(key);
+        if (found == null) {
+            canonical.put(key, value);
+            return value;
+        }
+        return found.equals(value) ? (T) found : value;
+    }
+
+    private static JsonNode toJson(Object value) {
+        try {
+            return Json.mapper().valueToTree(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.kongchen.smp.integration;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the info messages of a mojo. Public, as the {@link com.github.kongchen.swagger.docgen.LogAdapter}
+ * calls it reflectively.
+ */
+public class InfoLog extends SystemStreamLog {
+    final List<String> messages = new ArrayList<String>();
+
+    @Override
+    public void info(CharSequence content) {
+        messages.add(content.toString());
+        super.info(content);
+    }
+}
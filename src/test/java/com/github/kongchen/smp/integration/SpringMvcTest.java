@@ -76,6 +76,35 @@ public class SpringMvcTest extends AbstractMojoTestCase {
 
     }
 
+    @Test
+    public void testIncrementalGeneration() throws Exception {
+        File cacheDirectory = (File) getVariableValueFromObject(mojo, "cacheDirectory");
+        FileUtils.deleteDirectory(cacheDirectory);
+        setVariableValueToObject(mojo, "incremental", true);
+
+        mojo.execute();
+        String swaggerJson = FileUtils.readFileToString(new File(swaggerOutputDir, "swagger.json"));
+        String document = FileUtils.readFileToString(docOutput);
+
+        // the second build reuses what the first one read
+        mojo.execute();
+        Assert.assertEquals(FileUtils.readFileToString(new File(swaggerOutputDir, "swagger.json")), swaggerJson);
+        Assert.assertEquals(FileUtils.readFileToString(docOutput), document);
+    }
+
+    @Test
+    public void testParallelRead() throws Exception {
+        setVariableValueToObject(mojo, "readParallelism", 1);
+        mojo.execute();
+        String swaggerJson = FileUtils.readFileToString(new File(swaggerOutputDir, "swagger.json"));
+        String document = FileUtils.readFileToString(docOutput);
+
+        setVariableValueToObject(mojo, "readParallelism", 4);
+        mojo.execute();
+        Assert.assertEquals(FileUtils.readFileToString(new File(swaggerOutputDir, "swagger.json")), swaggerJson);
+        Assert.assertEquals(FileUtils.readFileToString(docOutput), document);
+    }
+
     @Test
     public void testNullSwaggerOutput() throws Exception {
         List<ApiSource> apisources = (List<ApiSource>) getVariableValueFromObject(mojo, "apiSources");
@@ -1,8 +1,21 @@
 package com.github.kongchen.smp.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.kongchen.swagger.docgen.discovery.DiscoveryCache;
 import com.github.kongchen.swagger.docgen.mavenplugin.ApiDocumentMojo;
 import com.github.kongchen.swagger.docgen.mavenplugin.ApiSource;
+import com.wordnik.sample.model.Pet;
+import io.swagger.converter.ModelConverters;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.StringProperty;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.PrefixFileFilter;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
@@ -12,10 +25,13 @@ import org.testng.annotations.Test;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilenameFilter;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Created by chekong on 8/15/14.
@@ -45,7 +61,34 @@ public class SwaggerMavenPluginTest extends AbstractMojoTestCase {
     public void testGeneratedDoc() throws Exception {
 
         mojo.execute();
+        assertGeneratedDoc();
+    }
+
+    @Test
+    public void testModelSubstituteRemovedAfterRead() throws Exception {
+        mojo.execute();
+        assertGeneratedDoc();
+        // the substitute of the apiSource does not resolve the models of anything read afterwards
+        Property name = ModelConverters.getInstance().read(Pet.class).get("Pet").getProperties().get("name");
+        Assert.assertFalse(name instanceof StringProperty, String.valueOf(name));
+    }
+
+    @Test
+    public void testCachedParallelDiscovery() throws Exception {
+        mojo = (ApiDocumentMojo) lookupMojo("generate",
+                new File(getBasedir(), "target/test-classes/plugin-config-cached.xml"));
+        File cacheDirectory = (File) getVariableValueFromObject(mojo, "cacheDirectory");
+        FileUtils.deleteDirectory(cacheDirectory);
+
+        mojo.execute();
+        assertGeneratedDoc();
+        Assert.assertTrue(new File(cacheDirectory, DiscoveryCache.FILE_NAME).isFile());
+        // the second build reads the discovery index written by the first one
+        mojo.execute();
+        assertGeneratedDoc();
+    }
 
+    private void assertGeneratedDoc() throws Exception {
         BufferedReader actualReader = new BufferedReader(new InputStreamReader(new FileInputStream(docOutput)));
         BufferedReader expectReader = new BufferedReader(new InputStreamReader(this.getClass().getResourceAsStream("/sample.html")));
 
@@ -76,6 +119,114 @@ public class SwaggerMavenPluginTest extends AbstractMojoTestCase {
 
     }
 
+    @Test
+    public void testIncrementalGeneration() throws Exception {
+        File cacheDirectory = new File(getBasedir(), "target/swagger-maven-plugin");
+        FileUtils.deleteDirectory(cacheDirectory);
+        setVariableValueToObject(mojo, "cacheDirectory", cacheDirectory);
+        setVariableValueToObject(mojo, "incremental", true);
+
+        InfoLog log = new InfoLog();
+        mojo.setLog(log);
+
+        mojo.execute();
+        String swaggerJson = FileUtils.readFileToString(new File(swaggerOutputDir, "swagger.json"));
+        String document = FileUtils.readFileToString(docOutput);
+        Assert.assertTrue(log.messages.contains("Reused 0 of 3 API classes read by the previous build"), log.messages.toString());
+        String kept = keptMessage(log);
+
+        // the second build reuses what the first one read
+        log.messages.clear();
+        mojo.execute();
+        Assert.assertEquals(FileUtils.readFileToString(new File(swaggerOutputDir, "swagger.json")), swaggerJson);
+        Assert.assertEquals(FileUtils.readFileToString(docOutput), document);
+        Assert.assertTrue(log.messages.contains("Reused 3 of 3 API classes read by the previous build"), log.messages.toString());
+        // what is reused holds the same details as what is read, so the same ones are shared
+        Assert.assertEquals(keptMessage(log), kept);
+
+        // the third build reads again the classes using a model whose class file changed
+        File[] stateFiles = cacheDirectory.listFiles((FilenameFilter) new PrefixFileFilter("incremental-"));
+        Assert.assertEquals(stateFiles.length, 1);
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode state = mapper.readTree(stateFiles[0]);
+        int changed = 0;
+        for (JsonNode fragment : state.get("fragments")) {
+            ObjectNode dependencies = (ObjectNode) fragment.get("dependencies");
+            if (dependencies.has(Pet.class.getName())) {
+                dependencies.put(Pet.class.getName(), "changed");
+                changed++;
+            }
+        }
+        Assert.assertTrue(changed > 0 && changed < 3, "classes using Pet: " + changed);
+        mapper.writeValue(stateFiles[0], state);
+
+        log.messages.clear();
+        mojo.execute();
+        Assert.assertEquals(FileUtils.readFileToString(new File(swaggerOutputDir, "swagger.json")), swaggerJson);
+        Assert.assertEquals(FileUtils.readFileToString(docOutput), document);
+        Assert.assertTrue(log.messages.contains("Reused " + (3 - changed) + " of 3 API classes read by the previous build"),
+                log.messages.toString());
+    }
+
+    @Test
+    public void testModelStoreFingerprint() throws Exception {
+        File cacheDirectory = new File(getBasedir(), "target/swagger-maven-plugin");
+        FileUtils.deleteDirectory(cacheDirectory);
+        setVariableValueToObject(mojo, "cacheDirectory", cacheDirectory);
+        setVariableValueToObject(mojo, "useModelStore", true);
+        InfoLog log = new InfoLog();
+        mojo.setLog(log);
+
+        mojo.execute();
+        Assert.assertTrue(loadedModels(log) == 0, log.messages.toString());
+        log.messages.clear();
+        mojo.execute();
+        Assert.assertTrue(loadedModels(log) > 0, log.messages.toString());
+
+        // a new artifact on the classpath may bring converters which resolve the models differently
+        List<Artifact> artifacts = new ArrayList<Artifact>();
+        artifacts.add(new DefaultArtifact("com.example", "converters", VersionRange.createFromVersion("1.0"),
+                "compile", "jar", null, new DefaultArtifactHandler("jar")));
+        setVariableValueToObject(mojo, "pluginArtifacts", artifacts);
+        log.messages.clear();
+        mojo.execute();
+        Assert.assertTrue(loadedModels(log) == 0, log.messages.toString());
+        assertGeneratedDoc();
+    }
+
+    private static String keptMessage(InfoLog log) {
+        for (String message : log.messages) {
+            if (message.startsWith("Kept ")) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    private static int loadedModels(InfoLog log) {
+        int loaded = 0;
+        for (String message : log.messages) {
+            Matcher matcher = Pattern.compile("loaded (\\d+) from the model store").matcher(message);
+            if (matcher.find()) {
+                loaded += Integer.parseInt(matcher.group(1));
+            }
+        }
+        return loaded;
+    }
+
+    @Test
+    public void testParallelRead() throws Exception {
+        setVariableValueToObject(mojo, "readParallelism", 1);
+        mojo.execute();
+        String swaggerJson = FileUtils.readFileToString(new File(swaggerOutputDir, "swagger.json"));
+        String document = FileUtils.readFileToString(docOutput);
+
+        setVariableValueToObject(mojo, "readParallelism", 4);
+        mojo.execute();
+        Assert.assertEquals(FileUtils.readFileToString(new File(swaggerOutputDir, "swagger.json")), swaggerJson);
+        Assert.assertEquals(FileUtils.readFileToString(docOutput), document);
+    }
+
     @Test
     public void testNullSwaggerOutput() throws Exception {
         List<ApiSource> apisources = (List<ApiSource>) getVariableValueFromObject(mojo, "apiSources");
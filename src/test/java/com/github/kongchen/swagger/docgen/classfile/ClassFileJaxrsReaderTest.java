@@ -0,0 +1,88 @@
+package com.github.kongchen.swagger.docgen.classfile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.kongchen.swagger.docgen.LogAdapter;
+import com.github.kongchen.swagger.docgen.reader.JaxrsReader;
+import com.github.kongchen.swagger.docgen.util.SwaggerInterner;
+import com.wordnik.jaxrs.PetResource;
+import com.wordnik.jaxrs.PetStoreResource;
+import com.wordnik.jaxrs.UserResource;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.models.Swagger;
+import io.swagger.util.Json;
+import org.apache.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ClassFileJaxrsReaderTest {
+    static boolean initialized;
+
+    private final LogAdapter log = new LogAdapter(Logger.getLogger(ClassFileJaxrsReaderTest.class));
+
+    private ClassFileJaxrsReader createReader() {
+        ClassFileRepository classFiles = new ClassFileRepository(getClass().getClassLoader());
+        return new ClassFileJaxrsReader(new Swagger(), log,
+                new ClassFileModelResolver(classFiles, Collections.<String, String>emptyMap()));
+    }
+
+    @Test
+    public void testSameAsJaxrsReader() throws Exception {
+        List<Class<?>> classes = Arrays.<Class<?>>asList(PetResource.class, PetStoreResource.class, UserResource.class);
+        Set<String> classNames = new LinkedHashSet<String>();
+        for (Class<?> cls : classes) {
+            classNames.add(cls.getName());
+        }
+        Swagger expected = new JaxrsReader(new Swagger(), log).read(new LinkedHashSet<Class<?>>(classes));
+        Swagger actual = createReader().read(classNames);
+
+        JsonNode expectedTree = Json.mapper().valueToTree(expected);
+        Assert.assertEquals(Json.mapper().valueToTree(actual), expectedTree);
+
+        // each class in its own fragment, as the document sources read them
+        ClassFileJaxrsReader reader = createReader();
+        reader.setInterner(new SwaggerInterner());
+        reader.setParallelism(2);
+        Assert.assertEquals(Json.mapper().valueToTree(reader.read(classNames)), expectedTree);
+    }
+
+    @Test
+    public void testClassesNotInitialized() throws Exception {
+        Swagger swagger = createReader().read(Collections.singleton(UninitializedResource.class.getName()));
+
+        Assert.assertEquals(swagger.getPath("/uninitialized").getGet().getOperationId(), "get");
+        Assert.assertTrue(swagger.getDefinitions().containsKey("UninitializedModel"));
+        Assert.assertFalse(initialized);
+    }
+
+    @Api("uninitialized")
+    @Path("/uninitialized")
+    static class UninitializedResource {
+        static {
+            initialized = true;
+        }
+
+        @GET
+        @ApiOperation("get")
+        public UninitializedModel get(@QueryParam("name") String name) {
+            return null;
+        }
+    }
+
+    static class UninitializedModel {
+        static {
+            initialized = true;
+        }
+
+        public String name;
+    }
+}
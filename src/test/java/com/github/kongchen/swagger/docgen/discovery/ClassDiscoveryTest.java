@@ -0,0 +1,319 @@
+package com.github.kongchen.swagger.docgen.discovery;
+
+import com.wordnik.jaxrs.PetResource;
+import com.wordnik.jaxrs.UserResource;
+import io.swagger.annotations.Api;
+import org.apache.commons.io.FileUtils;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+import org.reflections.Reflections;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Class discovery must find exactly what org.reflections finds.
+ */
+public class ClassDiscoveryTest {
+
+    @Test
+    public void testParseClassFile() throws Exception {
+        InputStream in = PetResource.class.getResourceAsStream("PetResource.class");
+        try {
+            ClassFileInfo info = ClassFileParser.parse(in);
+            Assert.assertEquals(info.getClassName(), PetResource.class.getName());
+            Assert.assertEquals(info.getSuperClassName(), Object.class.getName());
+            Assert.assertTrue(info.isAnnotatedWith(Api.class.getName()));
+            Assert.assertTrue(info.isAnnotatedWith(javax.ws.rs.Path.class.getName()));
+        } finally {
+            in.close();
+        }
+    }
+
+    @Test
+    public void testSameResultAsReflections() throws Exception {
+        String[] locations = {"com.wordnik.jaxrs", "com.wordnik.springmvc", "com.wordnik", "com.wordnik.sample.model"};
+        ClassDiscovery discovery = new ClassDiscovery();
+        for (String location : locations) {
+            Reflections reflections = new Reflections(location);
+            Assert.assertEquals(discovery.getTypesAnnotatedWith(location, Api.class),
+                    reflections.getTypesAnnotatedWith(Api.class), location);
+            Assert.assertEquals(discovery.getTypesAnnotatedWith(location, RequestMapping.class),
+                    reflections.getTypesAnnotatedWith(RequestMapping.class), location);
+        }
+    }
+
+    @Test
+    public void testMergedLocations() throws Exception {
+        List<String> locations = Arrays.asList("com.wordnik.jaxrs", "com.wordnik.springmvc", "com.wordnik.jaxrs.sub");
+        ClassDiscovery discovery = new ClassDiscovery();
+        Set<Class<?>> expected = new HashSet<Class<?>>();
+        for (String location : locations) {
+            expected.addAll(discovery.getTypesAnnotatedWith(location, Api.class));
+        }
+        Assert.assertEquals(discovery.getTypesAnnotatedWith(locations, Api.class), expected);
+    }
+
+    @Test
+    public void testParallelScan() throws Exception {
+        ClassDiscovery sequential = new ClassDiscovery();
+        ClassDiscovery parallel = new ClassDiscovery();
+        parallel.setParallelism(4);
+        Assert.assertEquals(parallel.getTypesAnnotatedWith("", Api.class), sequential.getTypesAnnotatedWith("", Api.class));
+        Assert.assertEquals(parallel.getTypesAnnotatedWith("org.springframework", RequestMapping.class),
+                sequential.getTypesAnnotatedWith("org.springframework", RequestMapping.class));
+    }
+
+    @Test
+    public void testDefaultScope() throws Exception {
+        File testClasses = new File(PetResource.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        ClassDiscovery discovery = new ClassDiscovery();
+        discovery.setDefaultScope(Collections.singleton(testClasses));
+        // everything in the test classes
+        Assert.assertEquals(discovery.getTypesAnnotatedWith(Api.class),
+                discovery.getTypesAnnotatedWith(Arrays.asList("com.wordnik", "com.github.kongchen"), Api.class));
+    }
+
+    @Test
+    public void testPreparedScan() throws Exception {
+        ClassDiscovery discovery = new ClassDiscovery();
+        ClassDiscovery prepared = new ClassDiscovery();
+        prepared.prepare(Arrays.asList("com.wordnik.jaxrs", "com.wordnik.springmvc"));
+        for (String location : new String[]{"com.wordnik.jaxrs", "com.wordnik.springmvc", "com.wordnik.jaxrs.PetResource", "com.wordnik"}) {
+            Assert.assertEquals(prepared.getTypesAnnotatedWith(location, Api.class),
+                    discovery.getTypesAnnotatedWith(location, Api.class), location);
+        }
+    }
+
+    @Test
+    public void testPrefixFilter() {
+        PrefixFilter filter = new PrefixFilter(Arrays.asList("com.b.x", "com.a", "com.a.y", "com.c.Foo"));
+        Assert.assertEquals(filter.getPrefixes(), Arrays.asList("com.a", "com.b.x", "com.c.Foo"));
+        Assert.assertTrue(filter.matches("com.a.Bar"));
+        Assert.assertTrue(filter.matches("com.b.x.Bar"));
+        Assert.assertTrue(filter.matches("com.c.FooBar"));
+        Assert.assertFalse(filter.matches("com.b.Bar"));
+        Assert.assertFalse(filter.matches("org.Bar"));
+        Assert.assertTrue(filter.mayContain("com"));
+        Assert.assertTrue(filter.mayContain("com.b"));
+        Assert.assertTrue(filter.mayContain("com.b.x.z"));
+        Assert.assertFalse(filter.mayContain("com.b.y"));
+        Assert.assertFalse(filter.mayContain("org"));
+    }
+
+    @Test
+    public void testJarPrefilter() throws Exception {
+        File jar = File.createTempFile("prefilter", ".jar");
+        try {
+            ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+            try {
+                for (String name : new String[]{"META-INF/MANIFEST.MF", "com/b/", "com/b/Bar.class", "com/a/Foo.class"}) {
+                    out.putNextEntry(new ZipEntry(name));
+                    out.closeEntry();
+                }
+            } finally {
+                out.close();
+            }
+            JarPrefilter prefilter = new JarPrefilter();
+            Assert.assertTrue(prefilter.mayContain(jar, new PrefixFilter(Arrays.asList("com.a"))));
+            Assert.assertTrue(prefilter.mayContain(jar, new PrefixFilter(Arrays.asList("org", "com.b.Bar"))));
+            Assert.assertTrue(prefilter.mayContain(jar, new PrefixFilter(Arrays.asList(""))));
+            Assert.assertFalse(prefilter.mayContain(jar, new PrefixFilter(Arrays.asList("com.c", "com.b.x"))));
+            Assert.assertFalse(prefilter.mayContain(jar, new PrefixFilter(Arrays.asList("META-INF"))));
+            // a root has the entry a resource lookup finds, and matching classes
+            Assert.assertTrue(prefilter.isRoot(jar, "com.b"));
+            Assert.assertTrue(prefilter.isRoot(jar, "com.a.Foo"));
+            Assert.assertFalse(prefilter.isRoot(jar, "com.a"));
+            Assert.assertFalse(prefilter.isRoot(jar, "com.c"));
+        } finally {
+            jar.delete();
+        }
+    }
+
+    @Test
+    public void testCompiledIndex() throws Exception {
+        File directory = File.createTempFile("compiled", "index");
+        directory.delete();
+        File sources = new File(directory, "src/com/foo");
+        File classes = new File(directory, "classes");
+        sources.mkdirs();
+        classes.mkdirs();
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            FileUtils.writeStringToFile(new File(sources, "Marker.java"), "package com.foo;\n"
+                    + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+                    + "public @interface Marker {}\n");
+            FileUtils.writeStringToFile(new File(sources, "Base.java"), "package com.foo;\n"
+                    + "@Marker public class Base { public static class Inner extends Base {} }\n");
+            FileUtils.writeStringToFile(new File(sources, "Other.java"), "package com.foo;\n"
+                    + "@Deprecated public class Other {}\n");
+
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            int status = compiler.run(null, null, null, "-d", classes.getPath(),
+                    "-processor", ClassIndexProcessor.class.getName(),
+                    "-processorpath", new File(ClassIndexProcessor.class.getProtectionDomain().getCodeSource()
+                            .getLocation().toURI()).getPath(),
+                    new File(sources, "Marker.java").getPath(), new File(sources, "Base.java").getPath(),
+                    new File(sources, "Other.java").getPath());
+            Assert.assertEquals(status, 0);
+
+            File index = new File(classes, CompiledIndex.RESOURCE);
+            InputStream in = new FileInputStream(index);
+            try {
+                List<ClassFileInfo> infos = CompiledIndex.read(in);
+                Assert.assertEquals(infos.size(), 4);
+                Assert.assertEquals(infos.get(1).getClassName(), "com.foo.Base$Inner");
+                Assert.assertEquals(infos.get(1).getSuperClassName(), "com.foo.Base");
+                Assert.assertEquals(infos.get(3).getAnnotationNames(), Arrays.asList("java.lang.Deprecated"));
+            } finally {
+                in.close();
+            }
+
+            // the index is read instead of the class files, leaving out the classes deleted since
+            FileWriter writer = new FileWriter(index, true);
+            try {
+                writer.write("com.foo.Other\tjava.lang.Object\t\tcom.foo.Marker\n");
+            } finally {
+                writer.close();
+            }
+            new File(classes, "com/foo/Base$Inner.class").delete();
+            ClassLoader loader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, null);
+            Thread.currentThread().setContextClassLoader(loader);
+            Set<String> names = new HashSet<String>();
+            for (Class<?> cls : new ClassDiscovery().getTypesAnnotatedWith("com.foo",
+                    loader.loadClass("com.foo.Marker").asSubclass(Annotation.class))) {
+                names.add(cls.getName());
+            }
+            Assert.assertEquals(names, new HashSet<String>(Arrays.asList("com.foo.Base", "com.foo.Other")));
+
+            // class files missing from the index or newer than it are read, whatever the index says
+            FileUtils.writeStringToFile(index, "# swagger-maven-plugin class index v1\n"
+                    + "com.foo.Other\tjava.lang.Object\t\tcom.foo.Marker\n");
+            Assert.assertTrue(new File(classes, "com/foo/Other.class").setLastModified(index.lastModified() + 10000));
+            names.clear();
+            for (Class<?> cls : new ClassDiscovery().getTypesAnnotatedWith("com.foo",
+                    loader.loadClass("com.foo.Marker").asSubclass(Annotation.class))) {
+                names.add(cls.getName());
+            }
+            Assert.assertEquals(names, Collections.singleton("com.foo.Base"));
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    public void testJandexIndex() throws Exception {
+        File jar = File.createTempFile("jandex", ".jar");
+        try {
+            Indexer indexer = new Indexer();
+            indexer.index(PetResource.class.getResourceAsStream("PetResource.class"));
+            ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+            try {
+                for (Class<?> cls : new Class<?>[]{PetResource.class, UserResource.class}) {
+                    out.putNextEntry(new ZipEntry(cls.getName().replace('.', '/') + ".class"));
+                    out.write(ClassFileParser.readFully(cls.getResourceAsStream(cls.getSimpleName() + ".class")));
+                    out.closeEntry();
+                }
+                out.putNextEntry(new ZipEntry(JandexIndex.RESOURCE));
+                new IndexWriter(out).write(indexer.complete());
+                out.closeEntry();
+            } finally {
+                out.close();
+            }
+
+            PrefixFilter filter = new PrefixFilter(Arrays.asList("com.wordnik.jaxrs"));
+            ClassDiscovery discovery = new ClassDiscovery();
+            Assert.assertEquals(discovery.scan(Collections.singleton(jar), filter).size(), 2);
+
+            // only the indexed class is seen once the index is trusted
+            discovery.setUseJandexIndex(true);
+            ClassIndex index = discovery.scan(Collections.singleton(jar), filter);
+            Assert.assertEquals(index.size(), 1);
+            Assert.assertTrue(index.get(PetResource.class.getName()).isAnnotatedWith(Api.class.getName()));
+        } finally {
+            jar.delete();
+        }
+    }
+
+    @Test
+    public void testCachedScan() throws Exception {
+        File directory = File.createTempFile("discovery", "cache");
+        directory.delete();
+        try {
+            ClassDiscovery discovery = new ClassDiscovery();
+            discovery.setCache(DiscoveryCache.load(directory, null));
+            Set<Class<?>> expected = discovery.getTypesAnnotatedWith("com.wordnik", Api.class);
+            discovery.getCache().save();
+            Assert.assertTrue(new File(directory, DiscoveryCache.FILE_NAME).isFile());
+
+            discovery = new ClassDiscovery();
+            discovery.setCache(DiscoveryCache.load(directory, null));
+            Assert.assertEquals(discovery.getTypesAnnotatedWith("com.wordnik", Api.class), expected);
+        } finally {
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    public void testRootsOfListedClasspath() throws Exception {
+        File jar = File.createTempFile("roots", ".jar");
+        File manifestJar = File.createTempFile("manifest", ".jar");
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+            try {
+                for (String name : new String[]{"com/", "com/a/", "com/a/Foo.class", "com/b/"}) {
+                    out.putNextEntry(new ZipEntry(name));
+                    out.closeEntry();
+                }
+            } finally {
+                out.close();
+            }
+            // the jar is only named by the Class-Path of another one, as surefire does
+            out = new ZipOutputStream(new FileOutputStream(manifestJar));
+            try {
+                out.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+                out.write(("Manifest-Version: 1.0\nClass-Path: " + jar.toURI().toURL() + "\n").getBytes("UTF-8"));
+                out.closeEntry();
+            } finally {
+                out.close();
+            }
+            Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[]{manifestJar.toURI().toURL()}, null));
+            ClassDiscovery discovery = new ClassDiscovery();
+            Assert.assertTrue(discovery.findRoots("com.a").contains(jar.getCanonicalFile()));
+            // the package is there, but none of its classes
+            Assert.assertFalse(discovery.findRoots("com.b").contains(jar.getCanonicalFile()));
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+            jar.delete();
+            manifestJar.delete();
+        }
+    }
+
+    @Test
+    public void testClassLocation() throws Exception {
+        Set<Class<?>> classes = new ClassDiscovery().getTypesAnnotatedWith(PetResource.class.getName(), Api.class);
+        Assert.assertEquals(classes.size(), 1);
+        Assert.assertTrue(classes.contains(PetResource.class));
+    }
+}
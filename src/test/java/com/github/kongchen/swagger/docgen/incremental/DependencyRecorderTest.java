@@ -0,0 +1,56 @@
+package com.github.kongchen.swagger.docgen.incremental;
+
+import com.github.kongchen.swagger.docgen.reader.JaxrsReaderTest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public class DependencyRecorderTest {
+
+    @Test
+    public void testRecordSignaturesOfSubResources() {
+        DependencyRecorder.start();
+        Set<Class<?>> recorded;
+        try {
+            DependencyRecorder.recordSignatures(JaxrsReaderTest.ParentA.class);
+        } finally {
+            recorded = DependencyRecorder.stop();
+        }
+
+        // the owner is only reached through the locator of the items
+        Assert.assertTrue(recorded.contains(JaxrsReaderTest.ItemResource.class));
+        Assert.assertTrue(recorded.contains(JaxrsReaderTest.OwnerResource.class));
+    }
+
+    @Test
+    public void testRecordSignaturesOfCycle() {
+        DependencyRecorder.start();
+        Set<Class<?>> recorded;
+        try {
+            DependencyRecorder.recordSignatures(JaxrsReaderTest.Tree.class);
+        } finally {
+            recorded = DependencyRecorder.stop();
+        }
+
+        Assert.assertTrue(recorded.contains(JaxrsReaderTest.Node.class));
+    }
+
+    @Test
+    public void testNestedRecordings() {
+        DependencyRecorder.start();
+        DependencyRecorder.record(String.class);
+        DependencyRecorder.start();
+        DependencyRecorder.record(Integer.class);
+        Set<Class<?>> inner = DependencyRecorder.stop();
+        DependencyRecorder.recordAll(Collections.<Class<?>>singleton(Long.class));
+        Set<Class<?>> outer = DependencyRecorder.stop();
+
+        Assert.assertEquals(inner, Collections.<Class<?>>singleton(Integer.class));
+        Assert.assertEquals(outer, new HashSet<Class<?>>(Arrays.asList(String.class, Integer.class, Long.class)));
+        Assert.assertFalse(DependencyRecorder.isRecording());
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.QueryParameter;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.BeanParam;
+import java.util.Collections;
+import java.util.List;
+
+public class BeanParameterCacheTest {
+
+    @Test
+    public void testIntrospectedOnce() throws Exception {
+        BeanParameterCache cache = new BeanParameterCache();
+        final int[] extractions = {0};
+        BeanParameterCache.Extractor extractor = new BeanParameterCache.Extractor() {
+            @Override
+            public List<Parameter> extractParameters(Class<?> bean) {
+                extractions[0]++;
+                return Collections.<Parameter>singletonList(new QueryParameter().name("page").type("integer"));
+            }
+        };
+
+        List<Parameter> first = cache.getParameters(BeanParam.class, BeanParameterCacheTest.class, extractor);
+        first.get(0).setDescription("changed by its caller");
+        List<Parameter> second = cache.getParameters(BeanParam.class, BeanParameterCacheTest.class, extractor);
+
+        Assert.assertEquals(extractions[0], 1);
+        Assert.assertNotSame(second.get(0), first.get(0));
+        Assert.assertEquals(second.get(0).getName(), "page");
+        Assert.assertNull(second.get(0).getDescription());
+    }
+}
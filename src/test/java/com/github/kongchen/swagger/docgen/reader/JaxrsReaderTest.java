@@ -0,0 +1,386 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import com.github.kongchen.swagger.docgen.LogAdapter;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiImplicitParam;
+import io.swagger.annotations.ApiImplicitParams;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.models.Operation;
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.PathParameter;
+import org.apache.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.BeanParam;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class JaxrsReaderTest {
+
+    private final LogAdapter log = new LogAdapter(Logger.getLogger(JaxrsReaderTest.class));
+
+    @Test
+    public void testSubResourceReadOnce() throws Exception {
+        Swagger swagger = new JaxrsReader(new Swagger(), log).read(
+                new LinkedHashSet<Class<?>>(Arrays.<Class<?>>asList(ParentA.class, ParentB.class)));
+
+        Assert.assertEquals(swagger.getPaths().keySet(), new TreeSet<String>(Arrays.asList(
+                "/a/items/{id}", "/a/items/owner", "/b/items/{id}", "/b/items/owner")));
+        // what is read from ItemResource under /a is copied under /b, each path can be changed on its own
+        Assert.assertEquals(swagger.getPath("/b/items/{id}").getGet(), swagger.getPath("/a/items/{id}").getGet());
+        Assert.assertNotSame(swagger.getPath("/b/items/{id}").getGet(), swagger.getPath("/a/items/{id}").getGet());
+        Assert.assertEquals(swagger.getPath("/b/items/owner").getGet(), swagger.getPath("/a/items/owner").getGet());
+        Assert.assertNotSame(swagger.getPath("/b/items/owner").getGet(), swagger.getPath("/a/items/owner").getGet());
+    }
+
+    @Test
+    public void testSubResourceCycle() throws Exception {
+        Set<Class<?>> classes = new HashSet<Class<?>>();
+        classes.add(Tree.class);
+        Swagger swagger = new JaxrsReader(new Swagger(), log).read(classes);
+
+        Assert.assertEquals(swagger.getPaths().keySet(), new TreeSet<String>(Arrays.asList(
+                "/tree/nodes/{id}", "/tree/nodes/{id}/children")));
+    }
+
+    @Test
+    public void testImplicitParamClassNotInitialized() throws Exception {
+        Set<Class<?>> classes = new HashSet<Class<?>>();
+        classes.add(ImplicitParamResource.class);
+        Swagger swagger = new JaxrsReader(new Swagger(), log).read(classes);
+
+        Assert.assertEquals(swagger.getPath("/implicit").getGet().getParameters().size(), 1);
+        Assert.assertFalse(initialized);
+    }
+
+    @Test
+    public void testInheritedAnnotations() throws Exception {
+        Set<Class<?>> classes = new HashSet<Class<?>>();
+        classes.add(InheritingResource.class);
+        Swagger swagger = new JaxrsReader(new Swagger(), log).read(classes);
+
+        Assert.assertEquals(swagger.getPaths().keySet(), new TreeSet<String>(Arrays.asList("/inherited/{id}")));
+        Operation operation = swagger.getPath("/inherited/{id}").getGet();
+        Assert.assertEquals(operation.getSummary(), "inherited");
+        Assert.assertEquals(operation.getParameters().size(), 1);
+        Assert.assertEquals(operation.getParameters().get(0).getIn(), "path");
+    }
+
+    @Test
+    public void testAnnotationsOfInterfaceImplementedByInheritedMethod() throws Exception {
+        Swagger swagger = new JaxrsReader(new Swagger(), log).read(
+                Collections.<Class<?>>singleton(BaseImplementingResource.class));
+
+        Operation operation = swagger.getPath("/inherited/{id}").getGet();
+        Assert.assertEquals(operation.getSummary(), "inherited");
+        Assert.assertEquals(operation.getParameters().get(0).getIn(), "path");
+    }
+
+    @Test
+    public void testAnnotationsOfGenericInterface() throws Exception {
+        Swagger swagger = new JaxrsReader(new Swagger(), log).read(
+                Collections.<Class<?>>singleton(GenericImplementingResource.class));
+
+        Assert.assertEquals(swagger.getPaths().keySet(), new TreeSet<String>(Arrays.asList("/generic/{id}")));
+        Operation operation = swagger.getPath("/generic/{id}").getGet();
+        Assert.assertEquals(operation.getSummary(), "generic");
+        Assert.assertEquals(operation.getParameters().size(), 1);
+        Assert.assertEquals(operation.getParameters().get(0).getIn(), "path");
+    }
+
+    @Test
+    public void testResponseImplementingApiInterfaceIsModel() throws Exception {
+        Swagger swagger = new JaxrsReader(new Swagger(), log).read(
+                Collections.<Class<?>>singleton(MarkedResponseResource.class));
+
+        Assert.assertEquals(swagger.getPaths().keySet(), new TreeSet<String>(Arrays.asList("/marked")));
+        Assert.assertTrue(swagger.getDefinitions().containsKey("MarkedResponse"));
+    }
+
+    @Test
+    public void testParameterTemplatesCopied() throws Exception {
+        Set<Class<?>> classes = new HashSet<Class<?>>();
+        classes.add(SameParameterResource.class);
+        Swagger swagger = new JaxrsReader(new Swagger(), log).read(classes);
+
+        PathParameter plain = (PathParameter) swagger.getPath("/same/{id}").getGet().getParameters().get(0);
+        PathParameter numeric = (PathParameter) swagger.getPath("/same/{id}/numeric").getGet().getParameters().get(0);
+        Assert.assertNotSame(numeric, plain);
+        Assert.assertEquals(numeric.getName(), "id");
+        Assert.assertEquals(numeric.getPattern(), "[0-9]+");
+        Assert.assertNull(plain.getPattern());
+    }
+
+    @Test
+    public void testBeanParamSuperclassFields() throws Exception {
+        Set<Class<?>> classes = new HashSet<Class<?>>();
+        classes.add(BeanParamResource.class);
+        Swagger swagger = new JaxrsReader(new Swagger(), log).read(classes);
+
+        List<Parameter> first = swagger.getPath("/beans/first").getGet().getParameters();
+        List<Parameter> second = swagger.getPath("/beans/second").getGet().getParameters();
+        Assert.assertEquals(first.size(), 2);
+        Assert.assertEquals(first.get(0).getName(), "sort");
+        Assert.assertEquals(first.get(1).getName(), "page");
+        Assert.assertEquals(second, first);
+        Assert.assertNotSame(second.get(1), first.get(1));
+    }
+
+    @Test
+    public void testParameterTemplatesOfSkippedTypes() throws Exception {
+        JaxrsReader reader = new JaxrsReader(new Swagger(), log);
+        Swagger swagger = reader.read(Collections.<Class<?>>singleton(BodyResource.class));
+        Assert.assertEquals(swagger.getPath("/body").getPost().getParameters().size(), 1);
+
+        // the same method parameter is read again once its type is skipped
+        reader.getTypesToSkip().add(Body.class);
+        swagger = reader.read(Collections.<Class<?>>singleton(OtherBodyResource.class));
+        Assert.assertEquals(swagger.getPath("/other").getPost().getParameters().size(), 0);
+    }
+
+    private static boolean initialized;
+
+    @Api
+    @Path("/body")
+    public static class BodyResource {
+        @POST
+        @ApiOperation("body")
+        public String post(Body body) {
+            return null;
+        }
+    }
+
+    @Api
+    @Path("/other")
+    public static class OtherBodyResource {
+        @POST
+        @ApiOperation("other")
+        public String post(Body body) {
+            return null;
+        }
+    }
+
+    public static class Body {
+        public String getValue() {
+            return null;
+        }
+    }
+
+    @Api
+    @Path("/beans")
+    public static class BeanParamResource {
+        @GET
+        @ApiOperation("first")
+        @Path("/first")
+        public String first(@BeanParam SortedPage page) {
+            return null;
+        }
+
+        @GET
+        @ApiOperation("second")
+        @Path("/second")
+        public String second(@BeanParam SortedPage page) {
+            return null;
+        }
+    }
+
+    public static class Page {
+        @QueryParam("page")
+        private int page;
+    }
+
+    public static class SortedPage extends Page {
+        @QueryParam("sort")
+        private String sort;
+    }
+
+    @Api
+    @Path("/same")
+    public static class SameParameterResource {
+        @GET
+        @ApiOperation("plain")
+        @Path("/{id}")
+        public String plain(@PathParam("id") String id) {
+            return null;
+        }
+
+        @GET
+        @ApiOperation("numeric")
+        @Path("/{id:[0-9]+}/numeric")
+        public String numeric(@PathParam("id") String id) {
+            return null;
+        }
+    }
+
+    @Api
+    @Path("/inherited")
+    public interface InheritedApi {
+        @GET
+        @ApiOperation("inherited")
+        @Path("/{id}")
+        String get(@PathParam("id") String id);
+    }
+
+    public static class InheritingResource implements InheritedApi {
+        public String get(String id) {
+            return null;
+        }
+    }
+
+    public static class UnannotatedBase {
+        public String get(String id) {
+            return null;
+        }
+    }
+
+    public static class BaseImplementingResource extends UnannotatedBase implements InheritedApi {
+    }
+
+    @Api
+    @Path("/generic")
+    public interface GenericApi<T> {
+        @GET
+        @ApiOperation("generic")
+        @Path("/{id}")
+        String get(@PathParam("id") T id);
+    }
+
+    public static class GenericImplementingResource implements GenericApi<String> {
+        public String get(String id) {
+            return null;
+        }
+    }
+
+    @Api
+    public interface MarkedApi {
+    }
+
+    public static class MarkedResponse implements MarkedApi {
+        public String getName() {
+            return null;
+        }
+    }
+
+    @Api
+    @Path("/marked")
+    public static class MarkedResponseResource {
+        @GET
+        @ApiOperation("marked")
+        public MarkedResponse get() {
+            return null;
+        }
+    }
+
+    @Api
+    @Path("/implicit")
+    public static class ImplicitParamResource {
+        @GET
+        @ApiOperation("implicit")
+        @ApiImplicitParams(@ApiImplicitParam(name = "filter", paramType = "query",
+                dataType = "com.github.kongchen.swagger.docgen.reader.JaxrsReaderTest$Filter"))
+        public String get() {
+            return null;
+        }
+    }
+
+    public static class Filter {
+        static {
+            initialized = true;
+        }
+
+        public String getValue() {
+            return null;
+        }
+    }
+
+    @Api
+    @Path("/a")
+    public static class ParentA {
+        @ApiOperation("items")
+        @Path("/items")
+        public ItemResource items() {
+            return null;
+        }
+    }
+
+    @Api
+    @Path("/b")
+    public static class ParentB {
+        @ApiOperation("items")
+        @Path("items")
+        public ItemResource items() {
+            return null;
+        }
+    }
+
+    @Api
+    public static class ItemResource {
+        @GET
+        @ApiOperation("item")
+        @Path("/{id}")
+        public String get(@PathParam("id") String id) {
+            return null;
+        }
+
+        @ApiOperation("owner")
+        @Path("/owner")
+        public OwnerResource owner() {
+            return null;
+        }
+    }
+
+    @Api
+    public static class OwnerResource {
+        @GET
+        @ApiOperation("owner")
+        @Path("/")
+        public String get() {
+            return null;
+        }
+    }
+
+    @Api
+    @Path("/tree")
+    public static class Tree {
+        @ApiOperation("node")
+        @Path("/nodes/{id}")
+        public Node node(@PathParam("id") String id) {
+            return null;
+        }
+    }
+
+    @Api
+    public static class Node {
+        @GET
+        @ApiOperation("node")
+        @Path("/")
+        public String get() {
+            return null;
+        }
+
+        @GET
+        @ApiOperation("children")
+        @Path("/children")
+        public String children() {
+            return null;
+        }
+
+        @ApiOperation("child")
+        @Path("/{child}")
+        public Node child(@PathParam("child") String child) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import com.github.kongchen.swagger.docgen.LogAdapter;
+import com.github.kongchen.swagger.docgen.incremental.DependencyRecorder;
+import com.github.kongchen.swagger.docgen.incremental.ModelStore;
+import io.swagger.converter.ModelConverters;
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Arrays;
+
+public class ModelCacheTest {
+
+    @Test
+    public void testViews() throws Exception {
+        ModelCache cache = new ModelCache(new PropertyCache());
+
+        Assert.assertEquals(cache.read(Page.class), ModelConverters.getInstance().read(Page.class));
+        Assert.assertEquals(cache.readAll(Page.class), ModelConverters.getInstance().readAll(Page.class));
+        Assert.assertEquals(cache.readAll(Page.class).keySet().size(), 2);
+        Assert.assertNotSame(cache.read(Page.class).get("Page"), cache.read(Page.class).get("Page"));
+        Assert.assertEquals(cache.getMisses(), 1);
+        Assert.assertEquals(cache.getHits(), 4);
+    }
+
+    @Test
+    public void testStore() throws Exception {
+        File directory = File.createTempFile("models", "");
+        Assert.assertTrue(directory.delete());
+        LogAdapter log = new LogAdapter(Logger.getLogger(ModelCacheTest.class));
+        DependencyRecorder recorder = new DependencyRecorder();
+        ModelConverters.getInstance().addConverter(recorder);
+        ModelCache cache = new ModelCache(new PropertyCache());
+        try {
+            ModelStore store = ModelStore.load(directory, "test", log);
+            cache.setStore(store, "");
+            Assert.assertEquals(cache.readAll(Page.class), ModelConverters.getInstance().readAll(Page.class));
+            Assert.assertEquals(cache.getMisses(), 1);
+            store.save();
+
+            cache.clear();
+            cache.setStore(ModelStore.load(directory, "test", log), "");
+            Assert.assertEquals(cache.read(Page.class), ModelConverters.getInstance().read(Page.class));
+            Assert.assertEquals(cache.readAll(Page.class), ModelConverters.getInstance().readAll(Page.class));
+            Assert.assertEquals(cache.getMisses(), 0);
+            Assert.assertEquals(cache.getLoads(), 1);
+
+            cache.clear();
+            cache.setStore(ModelStore.load(directory, "changed", log), "");
+            cache.read(Page.class);
+            Assert.assertEquals(cache.getMisses(), 1);
+        } finally {
+            ModelConverters.getInstance().removeConverter(recorder);
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+    @Test
+    public void testRecording() throws Exception {
+        File directory = File.createTempFile("models", "");
+        Assert.assertTrue(directory.delete());
+        LogAdapter log = new LogAdapter(Logger.getLogger(ModelCacheTest.class));
+        DependencyRecorder recorder = new DependencyRecorder();
+        ModelConverters.getInstance().addConverter(recorder);
+        ModelCache cache = new ModelCache(new PropertyCache());
+        try {
+            ModelStore store = ModelStore.load(directory, "test", log);
+            cache.setStore(store, "");
+            DependencyRecorder.start();
+            cache.read(Page.class);
+            Assert.assertTrue(DependencyRecorder.stop().containsAll(Arrays.asList(Page.class, Item.class)));
+            store.save();
+
+            DependencyRecorder.start();
+            cache.readAll(Page.class);
+            Assert.assertTrue(DependencyRecorder.stop().containsAll(Arrays.asList(Page.class, Item.class)));
+            Assert.assertEquals(cache.getMisses(), 1);
+            Assert.assertEquals(cache.getHits(), 1);
+
+            cache.clear();
+            cache.setStore(ModelStore.load(directory, "test", log), "");
+            DependencyRecorder.start();
+            cache.read(Page.class);
+            Assert.assertTrue(DependencyRecorder.stop().containsAll(Arrays.asList(Page.class, Item.class)));
+            Assert.assertEquals(cache.getMisses(), 0);
+            Assert.assertEquals(cache.getLoads(), 1);
+        } finally {
+            ModelConverters.getInstance().removeConverter(recorder);
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+    public static class Page {
+        public Item getItem() {
+            return null;
+        }
+    }
+
+    public static class Item {
+        public String getName() {
+            return null;
+        }
+    }
+}
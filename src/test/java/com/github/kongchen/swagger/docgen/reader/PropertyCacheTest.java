@@ -0,0 +1,32 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import io.swagger.converter.ModelConverters;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.StringProperty;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+public class PropertyCacheTest {
+
+    public List<String> names;
+
+    @Test
+    public void testCopies() throws Exception {
+        PropertyCache cache = new PropertyCache();
+        Type type = PropertyCacheTest.class.getField("names").getGenericType();
+
+        Property first = cache.readAsProperty(type);
+        ((StringProperty) ((ArrayProperty) first).getItems()).setEnum(Arrays.asList("a", "b"));
+        first.setDescription("changed by its caller");
+
+        Property second = cache.readAsProperty(type);
+        Assert.assertNotSame(second, first);
+        Assert.assertEquals(second, ModelConverters.getInstance().readAsProperty(type));
+        Assert.assertEquals(cache.getPropertyType(type), "array");
+    }
+}
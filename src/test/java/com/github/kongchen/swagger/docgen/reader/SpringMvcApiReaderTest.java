@@ -0,0 +1,61 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import com.github.kongchen.swagger.docgen.LogAdapter;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+import org.apache.log4j.Logger;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class SpringMvcApiReaderTest {
+
+    private final LogAdapter log = new LogAdapter(Logger.getLogger(SpringMvcApiReaderTest.class));
+
+    @Test
+    public void testHandlerParsedOnceForAllVerbs() throws Exception {
+        final Set<Method> parsed = new HashSet<Method>();
+        final int[] parses = new int[1];
+        SpringMvcApiReader reader = new SpringMvcApiReader(new Swagger(), log) {
+            @Override
+            protected Operation parseMethod(MethodDescriptor descriptor) {
+                parsed.add(descriptor.getMethod());
+                parses[0]++;
+                return super.parseMethod(descriptor);
+            }
+        };
+        Set<Class<?>> classes = new HashSet<Class<?>>();
+        classes.add(MultiVerbController.class);
+        Swagger swagger = reader.read(classes);
+
+        Assert.assertEquals(swagger.getPaths().keySet(), new TreeSet<String>(Arrays.asList("/multi/{id}")));
+        Path path = swagger.getPath("/multi/{id}");
+        Assert.assertNotNull(path.getGet());
+        Assert.assertNotNull(path.getPut());
+        Assert.assertNotNull(path.getOptions());
+        Assert.assertNotSame(path.getPut(), path.getGet());
+        Assert.assertEquals(parsed.size(), 1);
+        Assert.assertEquals(parses[0], 1);
+    }
+
+    @Api
+    @RequestMapping("/multi")
+    public static class MultiVerbController {
+        @ApiOperation("item")
+        @RequestMapping(value = "/{id}", method = {RequestMethod.GET, RequestMethod.PUT, RequestMethod.OPTIONS})
+        public String item(@PathVariable("id") String id) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.kongchen.swagger.docgen.util;
+
+import io.swagger.core.filter.AbstractSpecFilter;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.StringProperty;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CopyingSpecFilterTest {
+
+    @Test
+    public void testFilterDefinitions() {
+        Property name = new StringProperty();
+        Property secret = new StringProperty();
+        ModelImpl user = new ModelImpl().property("name", name).property("secret", secret);
+        ModelImpl pet = new ModelImpl().property("name", name);
+        user.setName("User");
+        // the swagger filter expects paths
+        Swagger swagger = new Swagger().path("/users", new Path()).model("User", user).model("Pet", pet);
+
+        Swagger filtered = new CopyingSpecFilter().filter(swagger, new NoSecretFilter(),
+                new HashMap<String, List<String>>(), new HashMap<String, String>(),
+                new HashMap<String, List<String>>());
+
+        Assert.assertEquals(user.getProperties().keySet().size(), 2);
+        Model copy = filtered.getDefinitions().get("User");
+        Assert.assertNotSame(copy, user);
+        Assert.assertEquals(copy.getProperties().keySet().size(), 1);
+        Assert.assertSame(copy.getProperties().get("name"), name);
+        Assert.assertEquals(((ModelImpl) copy).getName(), "User");
+        Assert.assertSame(filtered.getDefinitions().get("Pet"), pet);
+    }
+
+    private static class NoSecretFilter extends AbstractSpecFilter {
+        @Override
+        public boolean isPropertyAllowed(Model model, Property property, String propertyName,
+                                         Map<String, List<String>> params, Map<String, String> cookies,
+                                         Map<String, List<String>> headers) {
+            return !"secret".equals(propertyName);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.kongchen.swagger.docgen.util;
+
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Swagger;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.StringProperty;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SwaggerInternerTest {
+
+    @Test
+    public void testIntern() {
+        ModelImpl pet = new ModelImpl().property("name", name(false)).property("tags", new ArrayProperty(name(false)));
+        ModelImpl user = new ModelImpl().property("name", name(false)).property("tags", new ArrayProperty(name(false)));
+        ModelImpl order = new ModelImpl().property("name", name(true));
+        Swagger swagger = new Swagger().model("Pet", pet).model("User", user).model("Order", order);
+
+        SwaggerInterner interner = new SwaggerInterner();
+        interner.intern(swagger);
+
+        Assert.assertSame(user.getProperties().get("name"), pet.getProperties().get("name"));
+        Assert.assertSame(user.getProperties().get("tags"), pet.getProperties().get("tags"));
+        Assert.assertSame(((ArrayProperty) pet.getProperties().get("tags")).getItems(), pet.getProperties().get("name"));
+        // required only shows in the model, it still keeps the properties apart
+        Assert.assertNotSame(order.getProperties().get("name"), pet.getProperties().get("name"));
+        Assert.assertEquals(order.getRequired().size(), 1);
+        Assert.assertEquals(interner.getOccurrences(), 7);
+        Assert.assertEquals(interner.getDistinct(), 3);
+    }
+
+    @Test
+    public void testInternFragments() {
+        ModelImpl pet = new ModelImpl().property("name", name(false));
+        ModelImpl user = new ModelImpl().property("name", name(false));
+
+        SwaggerInterner interner = new SwaggerInterner();
+        interner.intern(new Swagger().model("Pet", pet));
+        interner.intern(new Swagger().model("User", user));
+
+        Assert.assertSame(user.getProperties().get("name"), pet.getProperties().get("name"));
+        Assert.assertEquals(interner.getDistinct(), 1);
+    }
+
+    private static Property name(boolean required) {
+        Property property = new StringProperty().description("The name");
+        property.setName("name");
+        property.setRequired(required);
+        return property;
+    }
+}